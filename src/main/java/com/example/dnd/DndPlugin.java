@@ -7,7 +7,15 @@ import com.example.dnd.combat.TurnManager;
 import com.example.dnd.commands.DndCommands;
 import com.example.dnd.gm.GMManager;
 import com.example.dnd.gm.commands.GMCommands;
+import com.example.dnd.movement.BlockChangeSystem;
+import com.example.dnd.movement.BlockPassability;
+import com.example.dnd.movement.GridMovementManager;
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.event.events.player.AddPlayerToWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.DrainPlayerFromWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerMouseButtonEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerMouseMotionEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
@@ -54,6 +62,11 @@ public class DndPlugin extends JavaPlugin {
     protected void setup() {
         LOGGER.atInfo().log("[D&D] Setting up D&D TTRPG Plugin");
 
+        // Classify block types for movement before any terrain is copied, now
+        // if they are already loaded and again whenever they are (re)loaded
+        BlockPassability.build();
+        getEventRegistry().register(LoadedAssetsEvent.class, BlockType.class, BlockPassability::onBlockTypesLoaded);
+
         // Initialize managers
         turnManager = TurnManager.get();
         gmManager = GMManager.get();
@@ -66,11 +79,26 @@ public class DndPlugin extends JavaPlugin {
         getCommandRegistry().registerCommand(new GMCommands(this, turnManager));
 
         // Register event listeners for camera input (handles pan/rotate/tilt via mouse drag)
+        // and the movement phase (click to move, hover to preview)
         getEventRegistry().register(PlayerMouseButtonEvent.class, this::onMouseButton);
-        getEventRegistry().register(PlayerMouseMotionEvent.class, cameraInputHandler::onMouseMotion);
+        getEventRegistry().register(PlayerMouseMotionEvent.class, this::onMouseMotion);
+
+        // Patch the encounter terrain when blocks are broken or placed mid-fight
+        getEntityStoreRegistry().registerSystem(new BlockChangeSystem.Break());
+        getEntityStoreRegistry().registerSystem(new BlockChangeSystem.Place());
+
+        // Walk movers and flush combat HUDs on the world tick
+        getEntityStoreRegistry().registerSystem(new WorldTickSystem());
+
+        // Keep track of who is in which world, for lookups and broadcasts
+        PlayerRegistry players = PlayerRegistry.get();
+        getEventRegistry().registerGlobal(AddPlayerToWorldEvent.class, players::onAddPlayerToWorld);
+        getEventRegistry().registerGlobal(DrainPlayerFromWorldEvent.class, players::onDrainPlayerFromWorld);
+        getEventRegistry().register(PlayerDisconnectEvent.class, players::onPlayerDisconnect);
+        getEventRegistry().register(PlayerDisconnectEvent.class, GridMovementManager.get()::onPlayerDisconnect);
 
-        LOGGER.atInfo().log("[D&D] Commands registered: /dnd camera, /dnd initiative, /dnd turn, /dnd roll, /dnd sheet, /dnd combat, /dnd move, /dnd target");
-        LOGGER.atInfo().log("[GM] Commands registered: /gm toggle, /gm spawn, /gm select, /gm damage, /gm heal, /gm initiative, /gm possess, /gm unpossess, /gm panel");
+        LOGGER.atInfo().log("[D&D] Commands registered: /dnd camera, /dnd initiative, /dnd turn, /dnd encounter, /dnd roll, /dnd sheet, /dnd combat, /dnd move, /dnd target");
+        LOGGER.atInfo().log("[GM] Commands registered: /gm toggle, /gm spawn, /gm select, /gm damage, /gm heal, /gm move, /gm terrain, /gm initiative, /gm possess, /gm unpossess, /gm panel");
     }
 
     /**
@@ -89,8 +117,25 @@ public class DndPlugin extends JavaPlugin {
         combatEventHandler.onPlayerMouseButton(event);
     }
 
+    /**
+     * Handle mouse motion events - camera drags first, then the movement hover preview.
+     */
+    private void onMouseMotion(PlayerMouseMotionEvent event) {
+        cameraInputHandler.onMouseMotion(event);
+
+        // A cancelled event was a camera drag, not a hover
+        if (event.isCancelled()) {
+            return;
+        }
+
+        combatEventHandler.onPlayerMouseMotion(event);
+    }
+
     @Override
     protected void start() {
+        // Players already online (e.g. after a reload) never fired the join events
+        PlayerRegistry.get().addOnlinePlayers();
+
         LOGGER.atInfo().log("[D&D] D&D TTRPG Plugin started!");
         LOGGER.atInfo().log("[D&D] Use '/dnd camera topdown' to enable top-down view");
         LOGGER.atInfo().log("[D&D] Use '/dnd sheet' to open your character sheet");
@@ -102,6 +147,7 @@ public class DndPlugin extends JavaPlugin {
     @Override
     protected void shutdown() {
         LOGGER.atInfo().log("[D&D] D&D TTRPG Plugin shutting down");
+        GridMovementManager.get().shutdown();
         characterSheets.clear();
     }
 
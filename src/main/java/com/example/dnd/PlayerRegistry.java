@@ -0,0 +1,303 @@
+package com.example.dnd;
+
+import com.example.dnd.combat.Encounter;
+import com.example.dnd.combat.TurnManager;
+import com.example.dnd.gm.GMManager;
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.player.AddPlayerToWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.DrainPlayerFromWorldEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The players online in each world, by UUID.
+ *
+ * Kept up to date from the server's join, leave and disconnect events, so
+ * finding a player is a map lookup instead of a scan of the world. Each world
+ * also keeps the players in GM mode, so a message to the GMs only goes
+ * through the GMs, and the players in each encounter's initiative, so a
+ * message to one table only goes to that table. Who is in GM mode is
+ * {@link GMManager}'s to say, and who is in an encounter is
+ * {@link TurnManager}'s; this only mirrors them per world.
+ */
+public class PlayerRegistry {
+    private static PlayerRegistry instance;
+
+    // Players per world (world UUID -> players)
+    private final Map<UUID, WorldPlayers> worlds = new ConcurrentHashMap<>();
+
+    private PlayerRegistry() {}
+
+    public static PlayerRegistry get() {
+        if (instance == null) {
+            instance = new PlayerRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * The players of one world.
+     */
+    private static final class WorldPlayers {
+        private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+        private final Map<UUID, Player> gms = new ConcurrentHashMap<>();
+        private final Map<UUID, Map<UUID, Player>> combatants = new ConcurrentHashMap<>();  // encounter UUID -> players
+
+        void removeEverywhere(UUID playerId) {
+            players.remove(playerId);
+            gms.remove(playerId);
+            for (Map<UUID, Player> encounterPlayers : combatants.values()) {
+                encounterPlayers.remove(playerId);
+            }
+        }
+    }
+
+    // ==================== Events ====================
+
+    /**
+     * A player entered a world: on joining the server or changing worlds.
+     */
+    public void onAddPlayerToWorld(@Nonnull AddPlayerToWorldEvent event) {
+        Player player = getPlayer(event.getHolder());
+        if (player != null) {
+            add(event.getWorld(), player);
+        }
+    }
+
+    /**
+     * A player left a world: on leaving the server or changing worlds.
+     */
+    public void onDrainPlayerFromWorld(@Nonnull DrainPlayerFromWorldEvent event) {
+        Player player = getPlayer(event.getHolder());
+        if (player != null) {
+            remove(event.getWorld(), player.getPlayerRef().getUuid());
+        }
+    }
+
+    /**
+     * A player left the server. Removed from every world, in case the world
+     * did not see them go.
+     */
+    public void onPlayerDisconnect(@Nonnull PlayerDisconnectEvent event) {
+        UUID playerId = event.getPlayerRef().getUuid();
+        for (WorldPlayers players : worlds.values()) {
+            players.removeEverywhere(playerId);
+        }
+    }
+
+    /**
+     * Add everyone already in a world, who joined before the events were
+     * registered (e.g. when the plugin is reloaded). Each world is read on
+     * its own thread.
+     */
+    public void addOnlinePlayers() {
+        for (World world : Universe.get().getWorlds().values()) {
+            world.execute(() -> {
+                for (PlayerRef playerRef : world.getPlayerRefs()) {
+                    Ref<EntityStore> ref = playerRef.getReference();
+                    if (ref == null || !ref.isValid()) continue;
+
+                    Player player = ref.getStore().getComponent(ref, Player.getComponentType());
+                    if (player != null) {
+                        add(world, player);
+                    }
+                }
+            });
+        }
+    }
+
+    @Nullable
+    private static Player getPlayer(@Nonnull Holder<EntityStore> holder) {
+        return holder.getComponent(Player.getComponentType());
+    }
+
+    // ==================== Registry ====================
+
+    /**
+     * Add a player to a world, taking them out of any other.
+     */
+    public void add(@Nonnull World world, @Nonnull Player player) {
+        UUID playerId = player.getPlayerRef().getUuid();
+        UUID worldId = world.getWorldConfig().getUuid();
+        for (Map.Entry<UUID, WorldPlayers> entry : worlds.entrySet()) {
+            if (!entry.getKey().equals(worldId)) {
+                entry.getValue().removeEverywhere(playerId);
+            }
+        }
+
+        WorldPlayers players = getWorldPlayers(world);
+        players.players.put(playerId, player);
+        if (GMManager.get().isGmMode(playerId)) {
+            players.gms.put(playerId, player);
+        }
+        Encounter encounter = TurnManager.get().getEncounterOf(playerId);
+        if (encounter != null && encounter.getWorldId().equals(worldId)) {
+            getEncounterPlayers(players, encounter).put(playerId, player);
+        }
+    }
+
+    /**
+     * Remove a player from a world.
+     */
+    public void remove(@Nonnull World world, @Nonnull UUID playerId) {
+        WorldPlayers players = worlds.get(world.getWorldConfig().getUuid());
+        if (players != null) {
+            players.removeEverywhere(playerId);
+        }
+    }
+
+    /**
+     * Record a player or NPC joining an encounter's initiative, taking them
+     * out of any other encounter's. Called by {@link TurnManager}; NPCs are
+     * not online players and are ignored.
+     */
+    public void addCombatant(@Nonnull Encounter encounter, @Nonnull UUID combatantId) {
+        for (WorldPlayers players : worlds.values()) {
+            for (Map<UUID, Player> encounterPlayers : players.combatants.values()) {
+                encounterPlayers.remove(combatantId);
+            }
+        }
+
+        WorldPlayers players = getWorldPlayers(encounter.getWorld());
+        Player player = players.players.get(combatantId);
+        if (player != null) {
+            getEncounterPlayers(players, encounter).put(combatantId, player);
+        }
+    }
+
+    /**
+     * Record a player or NPC leaving an encounter's initiative.
+     */
+    public void removeCombatant(@Nonnull Encounter encounter, @Nonnull UUID combatantId) {
+        WorldPlayers players = worlds.get(encounter.getWorldId());
+        Map<UUID, Player> encounterPlayers = players != null ? players.combatants.get(encounter.getId()) : null;
+        if (encounterPlayers != null) {
+            encounterPlayers.remove(combatantId);
+        }
+    }
+
+    /**
+     * Record an encounter's initiative being cleared.
+     */
+    public void clearCombatants(@Nonnull Encounter encounter) {
+        WorldPlayers players = worlds.get(encounter.getWorldId());
+        if (players != null) {
+            players.combatants.remove(encounter.getId());
+        }
+    }
+
+    /**
+     * Record a player entering or leaving GM mode. Called by
+     * {@link GMManager} when GM mode is toggled.
+     */
+    public void setGm(@Nonnull UUID playerId, boolean gm) {
+        for (WorldPlayers players : worlds.values()) {
+            Player player = players.players.get(playerId);
+            if (player == null) continue;
+
+            if (gm) {
+                players.gms.put(playerId, player);
+            } else {
+                players.gms.remove(playerId);
+            }
+        }
+    }
+
+    /**
+     * Find a player in a world by UUID.
+     */
+    @Nullable
+    public Player getPlayer(@Nonnull World world, @Nonnull UUID playerId) {
+        WorldPlayers players = worlds.get(world.getWorldConfig().getUuid());
+        return players != null ? players.players.get(playerId) : null;
+    }
+
+    /**
+     * Find a player's ref in a world by UUID.
+     */
+    @Nullable
+    public PlayerRef getPlayerRef(@Nonnull World world, @Nonnull UUID playerId) {
+        Player player = getPlayer(world, playerId);
+        return player != null ? player.getPlayerRef() : null;
+    }
+
+    /**
+     * Get every player in a world. A live view.
+     */
+    public Collection<Player> getPlayers(@Nonnull World world) {
+        WorldPlayers players = worlds.get(world.getWorldConfig().getUuid());
+        return players != null ? Collections.unmodifiableCollection(players.players.values()) : List.of();
+    }
+
+    /**
+     * Get the players in GM mode in a world. A live view.
+     */
+    public Collection<Player> getGms(@Nonnull World world) {
+        WorldPlayers players = worlds.get(world.getWorldConfig().getUuid());
+        return players != null ? Collections.unmodifiableCollection(players.gms.values()) : List.of();
+    }
+
+    /**
+     * Get the players in an encounter's initiative who are online in its
+     * world, in no particular order. A live view.
+     */
+    public Collection<Player> getCombatants(@Nonnull Encounter encounter) {
+        WorldPlayers players = worlds.get(encounter.getWorldId());
+        Map<UUID, Player> encounterPlayers = players != null ? players.combatants.get(encounter.getId()) : null;
+        return encounterPlayers != null ? Collections.unmodifiableCollection(encounterPlayers.values()) : List.of();
+    }
+
+    /**
+     * Send a message to every player in a world.
+     */
+    public void sendToWorld(@Nonnull World world, @Nonnull Message message) {
+        for (Player player : getPlayers(world)) {
+            player.getPlayerRef().sendMessage(message);
+        }
+    }
+
+    /**
+     * Send a message to an encounter's table: the players in its initiative
+     * and the GMs in its world, once each. Tables elsewhere in the world do
+     * not see it.
+     */
+    public void sendToEncounter(@Nonnull Encounter encounter, @Nonnull Message message) {
+        WorldPlayers players = worlds.get(encounter.getWorldId());
+        if (players == null) {
+            return;
+        }
+
+        Map<UUID, Player> encounterPlayers = players.combatants.getOrDefault(encounter.getId(), Map.of());
+        for (Player player : encounterPlayers.values()) {
+            player.getPlayerRef().sendMessage(message);
+        }
+        for (Map.Entry<UUID, Player> gm : players.gms.entrySet()) {
+            if (!encounterPlayers.containsKey(gm.getKey())) {
+                gm.getValue().getPlayerRef().sendMessage(message);
+            }
+        }
+    }
+
+    private WorldPlayers getWorldPlayers(World world) {
+        return worlds.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new WorldPlayers());
+    }
+
+    private static Map<UUID, Player> getEncounterPlayers(WorldPlayers players, Encounter encounter) {
+        return players.combatants.computeIfAbsent(encounter.getId(), k -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.dnd;
+
+import com.example.dnd.combat.TurnManager;
+import com.example.dnd.movement.GridMovementManager;
+import com.example.dnd.movement.MovementAnimator;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The plugin's one tick source: runs on each world's own tick, walks the
+ * world's movers along their paths ({@link MovementAnimator}) and flushes
+ * its queued combat HUDs ({@link TurnManager#refreshHuds}).
+ *
+ * The work is queued as one task on the world thread rather than done
+ * inside the tick, since arriving walkers can start turns and change
+ * entities while the store is still ticking. A world with nothing walking
+ * and no HUDs waiting queues nothing.
+ */
+public class WorldTickSystem extends TickingSystem<EntityStore> {
+
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        MovementAnimator animator = GridMovementManager.get().getAnimator();
+        TurnManager turnManager = TurnManager.get();
+
+        boolean walking = animator.getWalkerCount(world) > 0;
+        boolean hudsQueued = turnManager.hasQueuedHuds(world);
+        if (!walking && !hudsQueued) {
+            return;
+        }
+
+        world.execute(() -> {
+            if (walking) {
+                animator.tick(world, dt);
+            }
+            if (hudsQueued) {
+                turnManager.flushHuds(world);
+            }
+        });
+    }
+}
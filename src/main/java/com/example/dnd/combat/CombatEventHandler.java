@@ -11,6 +11,7 @@ import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.Entity;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.player.PlayerMouseButtonEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerMouseMotionEvent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 
@@ -20,6 +21,7 @@ import java.util.UUID;
  * Handles player mouse actions during turn-based combat.
  *
  * During the MOVEMENT phase:
+ * - Hover over block: Preview the path to it
  * - Left-click on block: Select/update movement destination
  * - Left-click on NPC: Select as target
  * - Right-click: Confirm and execute movement
@@ -48,21 +50,23 @@ public class CombatEventHandler {
         PlayerRef playerRef = event.getPlayerRefComponent();
         World world = event.getPlayerRef().getStore().getExternalData().getWorld();
 
-        CombatState combatState = turnManager.getCombatState(world);
+        UUID playerId = playerRef.getUuid();
+
+        // One consistent view of the player's encounter for the whole check,
+        // even if the turn changes meanwhile
+        CombatSnapshot combat = turnManager.getCombatState(world, playerId).getSnapshot();
 
         // If no combat active, allow all actions
-        if (!combatState.isCombatActive()) {
+        if (!combat.combatActive()) {
             return;
         }
 
-        UUID playerId = playerRef.getUuid();
-
         // If it's not this player's turn, cancel the action
-        if (!combatState.isPlayerTurn(playerId)) {
+        if (!combat.isPlayerTurn(playerId)) {
             event.setCancelled(true);
 
             // Notify the player
-            String currentPlayer = combatState.getCurrentPlayerName();
+            String currentPlayer = combat.getCurrentPlayerName();
             playerRef.sendMessage(Message.raw(
                 "[D&D] Not your turn! Waiting for: " + currentPlayer
             ));
@@ -73,7 +77,7 @@ public class CombatEventHandler {
         }
 
         // Handle phase-specific clicks
-        TurnPhase currentPhase = combatState.getCurrentPhase();
+        TurnPhase currentPhase = combat.phase();
 
         if (currentPhase == TurnPhase.MOVEMENT) {
             handleMovementPhaseClick(event, world);
@@ -82,6 +86,31 @@ public class CombatEventHandler {
         }
     }
 
+    /**
+     * Handle mouse motion for the movement phase's hover preview.
+     * Only the current player's cursor is tracked; everyone else is ignored.
+     */
+    public void onPlayerMouseMotion(PlayerMouseMotionEvent event) {
+        Vector3i targetBlock = event.getTargetBlock();
+        if (targetBlock == null) {
+            return;
+        }
+
+        Player player = event.getPlayer();
+        if (player == null || !movementManager.isPlanning(player.getPlayerRef().getUuid())) {
+            return;
+        }
+
+        World world = event.getPlayerRef().getStore().getExternalData().getWorld();
+        CombatSnapshot combat = turnManager.getCombatState(world, player.getPlayerRef().getUuid()).getSnapshot();
+        if (!combat.isPlayerTurn(player.getPlayerRef().getUuid())
+                || combat.phase() != TurnPhase.MOVEMENT) {
+            return;
+        }
+
+        movementManager.onBlockHovered(player, targetBlock, world);
+    }
+
     /**
      * Handle mouse clicks during the action phase.
      * Primary use: target selection for attacks/abilities.
@@ -0,0 +1,63 @@
+package com.example.dnd.combat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable view of a {@link CombatState} at one moment. Every change to
+ * the state publishes a new one, so a reader that takes one snapshot sees
+ * the order, the current turn and its resources all from the same moment,
+ * from any thread and without locking.
+ *
+ * @param currentPlayer Whose turn it is, or null when combat is not active
+ * @param currentIndex Position of the current player in the order, or -1
+ */
+public record CombatSnapshot(
+    boolean combatActive,
+    List<UUID> initiativeOrder,
+    Map<UUID, Integer> initiativeRolls,
+    Map<UUID, String> playerNames,
+    UUID currentPlayer,
+    int currentIndex,
+    int round,
+    TurnPhase phase,
+    boolean actionUsed,
+    boolean bonusActionUsed,
+    int movementRemaining
+) {
+    static final CombatSnapshot EMPTY = new CombatSnapshot(false, List.of(), Map.of(), Map.of(), null, -1, 0,
+        TurnPhase.MOVEMENT, false, false, 30);
+
+    /**
+     * Check if it's a specific player's turn.
+     */
+    public boolean isPlayerTurn(UUID playerId) {
+        return combatActive && playerId.equals(currentPlayer);
+    }
+
+    /**
+     * Get the current player's name.
+     */
+    public String getCurrentPlayerName() {
+        return currentPlayer != null ? playerNames.getOrDefault(currentPlayer, "Unknown") : "None";
+    }
+
+    /**
+     * Get initiative info as a formatted string.
+     */
+    public String getInitiativeListString() {
+        if (initiativeOrder.isEmpty()) {
+            return "No combatants in initiative.";
+        }
+        StringBuilder sb = new StringBuilder("Initiative Order:\n");
+        for (int i = 0; i < initiativeOrder.size(); i++) {
+            UUID id = initiativeOrder.get(i);
+            String name = playerNames.get(id);
+            int roll = initiativeRolls.getOrDefault(id, 0);
+            String marker = i == currentIndex ? " <-- CURRENT" : "";
+            sb.append(String.format("%d. %s (%d)%s\n", i + 1, name, roll, marker));
+        }
+        return sb.toString();
+    }
+}
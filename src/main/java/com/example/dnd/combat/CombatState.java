@@ -4,12 +4,18 @@ import java.util.*;
 
 /**
  * Tracks the state of an active combat encounter.
+ *
+ * Changes go through the synchronized methods below, one writer at a time,
+ * and each one ends by publishing a new {@link CombatSnapshot} through a
+ * single volatile field. The getters read that snapshot, so HUD refreshes
+ * and click checks on other threads never lock or see a half-made change.
+ * A reader that needs several values together should take one
+ * {@link #getSnapshot()} and read them all from it.
  */
 public class CombatState {
-    private final List<UUID> initiativeOrder = new ArrayList<>();
+    private final InitiativeOrder initiativeOrder = new InitiativeOrder();
     private final Map<UUID, Integer> initiativeRolls = new HashMap<>();
     private final Map<UUID, String> playerNames = new HashMap<>();
-    private int currentTurnIndex = 0;
     private TurnPhase currentPhase = TurnPhase.MOVEMENT;
     private boolean combatActive = false;
 
@@ -18,59 +24,122 @@ public class CombatState {
     private boolean bonusActionUsed = false;
     private int movementRemaining = 30;
 
+    private volatile CombatSnapshot snapshot = CombatSnapshot.EMPTY;
+    private boolean rosterChanged = false;  // Rolls or names changed since the last snapshot
+
     /**
      * Add a player to initiative.
      */
     public void addToInitiative(UUID playerId, String playerName, int roll) {
+        addToInitiative(playerId, playerName, roll, 0);
+    }
+
+    /**
+     * Add a player to initiative, with the DEX modifier that breaks ties.
+     * Joining mid-combat does not change whose turn it is.
+     */
+    public synchronized void addToInitiative(UUID playerId, String playerName, int roll, int dexModifier) {
         initiativeRolls.put(playerId, roll);
         playerNames.put(playerId, playerName);
-        rebuildInitiativeOrder();
+        initiativeOrder.add(playerId, roll, dexModifier);
+        rosterChanged = true;
+        publish();
     }
 
     /**
-     * Remove a player from initiative.
+     * Remove a player from initiative. If it was their turn, the turn passes
+     * to the next combatant with fresh turn resources; starting that
+     * combatant's movement is up to the caller.
+     *
+     * @return True if the turn passed to someone else
      */
-    public void removeFromInitiative(UUID playerId) {
+    public synchronized boolean removeFromInitiative(UUID playerId) {
         initiativeRolls.remove(playerId);
         playerNames.remove(playerId);
-        rebuildInitiativeOrder();
+        boolean turnPassed = initiativeOrder.remove(playerId) && combatActive;
+        if (turnPassed) {
+            resetTurnResources();
+        }
+        rosterChanged = true;
+        publish();
+        return turnPassed;
     }
 
     /**
-     * Rebuild the initiative order (sorted by roll, highest first).
+     * Delay a combatant's turn until right after another's. If it was their
+     * turn, the next combatant's turn starts.
+     *
+     * @return False if either is not in initiative
      */
-    private void rebuildInitiativeOrder() {
-        initiativeOrder.clear();
-        initiativeRolls.entrySet().stream()
-            .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-            .forEach(e -> initiativeOrder.add(e.getKey()));
+    public boolean delayTurn(UUID playerId, UUID afterId) {
+        return reslot(playerId, afterId, true);
+    }
+
+    /**
+     * Move a combatant to act right before another, as when a readied
+     * action goes off. If it was their turn, the next combatant's turn starts.
+     *
+     * @return False if either is not in initiative
+     */
+    public boolean readyTurn(UUID playerId, UUID beforeId) {
+        return reslot(playerId, beforeId, false);
+    }
+
+    private synchronized boolean reslot(UUID playerId, UUID anchorId, boolean after) {
+        UUID current = initiativeOrder.getCurrent();
+        boolean moved = after
+            ? initiativeOrder.moveAfter(playerId, anchorId)
+            : initiativeOrder.moveBefore(playerId, anchorId);
+        if (!moved) {
+            return false;
+        }
+
+        // Initiative count now matches the combatant they moved next to
+        initiativeRolls.put(playerId, initiativeRolls.getOrDefault(anchorId, 0));
+        if (combatActive && playerId.equals(current)) {
+            resetTurnResources();
+        }
+        rosterChanged = true;
+        publish();
+        return true;
     }
 
     /**
      * Get the current player's UUID.
      */
     public UUID getCurrentPlayer() {
-        if (!combatActive || initiativeOrder.isEmpty()) {
-            return null;
-        }
-        return initiativeOrder.get(currentTurnIndex);
+        return snapshot.currentPlayer();
     }
 
     /**
      * Get the current player's name.
      */
     public String getCurrentPlayerName() {
-        UUID current = getCurrentPlayer();
-        return current != null ? playerNames.getOrDefault(current, "Unknown") : "None";
+        return snapshot.getCurrentPlayerName();
     }
 
     /**
      * Advance to the next turn.
      */
-    public void nextTurn() {
+    public synchronized void nextTurn() {
         if (initiativeOrder.isEmpty()) return;
-        currentTurnIndex = (currentTurnIndex + 1) % initiativeOrder.size();
+        initiativeOrder.next();
         resetTurnResources();
+        publish();
+    }
+
+    /**
+     * Advance to the next turn if it is a player's turn, checked and done in
+     * one step so two requests to end the same turn can't skip a combatant.
+     *
+     * @return False if it was not their turn
+     */
+    public synchronized boolean endTurn(UUID playerId) {
+        if (!combatActive || !playerId.equals(initiativeOrder.getCurrent())) {
+            return false;
+        }
+        nextTurn();
+        return true;
     }
 
     /**
@@ -86,67 +155,88 @@ public class CombatState {
     /**
      * Start combat.
      */
-    public void startCombat() {
+    public synchronized void startCombat() {
         if (initiativeOrder.isEmpty()) return;
         combatActive = true;
-        currentTurnIndex = 0;
+        initiativeOrder.start();
         resetTurnResources();
+        publish();
     }
 
     /**
      * End combat.
      */
-    public void endCombat() {
+    public synchronized void endCombat() {
         combatActive = false;
+        publish();
     }
 
     /**
      * Clear all initiative data.
      */
-    public void clear() {
+    public synchronized void clear() {
         initiativeOrder.clear();
         initiativeRolls.clear();
         playerNames.clear();
-        currentTurnIndex = 0;
         combatActive = false;
+        rosterChanged = true;
+        publish();
     }
 
     /**
      * Check if it's a specific player's turn.
      */
     public boolean isPlayerTurn(UUID playerId) {
-        return combatActive && playerId.equals(getCurrentPlayer());
+        return snapshot.isPlayerTurn(playerId);
+    }
+
+    /**
+     * Get the state as of the last change. Never null.
+     */
+    public CombatSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publish the state as it is now. Called at the end of every change,
+     * while holding the lock.
+     */
+    private void publish() {
+        CombatSnapshot last = snapshot;
+        Map<UUID, Integer> rolls = last.initiativeRolls();
+        Map<UUID, String> names = last.playerNames();
+        if (rosterChanged) {
+            rolls = Map.copyOf(initiativeRolls);
+            names = Map.copyOf(playerNames);
+            rosterChanged = false;
+        }
+
+        List<UUID> order = initiativeOrder.toList();
+        UUID current = combatActive ? initiativeOrder.getCurrent() : null;
+        snapshot = new CombatSnapshot(combatActive, order, rolls, names, current,
+            current != null ? order.indexOf(current) : -1, initiativeOrder.getRound(),
+            currentPhase, actionUsed, bonusActionUsed, movementRemaining);
     }
 
     // Getters
-    public boolean isCombatActive() { return combatActive; }
-    public List<UUID> getInitiativeOrder() { return Collections.unmodifiableList(initiativeOrder); }
-    public Map<UUID, Integer> getInitiativeRolls() { return Collections.unmodifiableMap(initiativeRolls); }
-    public Map<UUID, String> getPlayerNames() { return Collections.unmodifiableMap(playerNames); }
-    public TurnPhase getCurrentPhase() { return currentPhase; }
-    public void setCurrentPhase(TurnPhase phase) { this.currentPhase = phase; }
-    public boolean isActionUsed() { return actionUsed; }
-    public void setActionUsed(boolean used) { this.actionUsed = used; }
-    public boolean isBonusActionUsed() { return bonusActionUsed; }
-    public void setBonusActionUsed(boolean used) { this.bonusActionUsed = used; }
-    public int getMovementRemaining() { return movementRemaining; }
-    public void setMovementRemaining(int movement) { this.movementRemaining = movement; }
+    public boolean isCombatActive() { return snapshot.combatActive(); }
+    public List<UUID> getInitiativeOrder() { return snapshot.initiativeOrder(); }
+    public int getRoundNumber() { return snapshot.round(); }
+    public Map<UUID, Integer> getInitiativeRolls() { return snapshot.initiativeRolls(); }
+    public Map<UUID, String> getPlayerNames() { return snapshot.playerNames(); }
+    public TurnPhase getCurrentPhase() { return snapshot.phase(); }
+    public synchronized void setCurrentPhase(TurnPhase phase) { this.currentPhase = phase; publish(); }
+    public boolean isActionUsed() { return snapshot.actionUsed(); }
+    public synchronized void setActionUsed(boolean used) { this.actionUsed = used; publish(); }
+    public boolean isBonusActionUsed() { return snapshot.bonusActionUsed(); }
+    public synchronized void setBonusActionUsed(boolean used) { this.bonusActionUsed = used; publish(); }
+    public int getMovementRemaining() { return snapshot.movementRemaining(); }
+    public synchronized void setMovementRemaining(int movement) { this.movementRemaining = movement; publish(); }
 
     /**
      * Get initiative info as a formatted string.
      */
     public String getInitiativeListString() {
-        if (initiativeOrder.isEmpty()) {
-            return "No combatants in initiative.";
-        }
-        StringBuilder sb = new StringBuilder("Initiative Order:\n");
-        for (int i = 0; i < initiativeOrder.size(); i++) {
-            UUID id = initiativeOrder.get(i);
-            String name = playerNames.get(id);
-            int roll = initiativeRolls.get(id);
-            String marker = (combatActive && i == currentTurnIndex) ? " <-- CURRENT" : "";
-            sb.append(String.format("%d. %s (%d)%s\n", i + 1, name, roll, marker));
-        }
-        return sb.toString();
+        return snapshot.getInitiativeListString();
     }
 }
@@ -0,0 +1,110 @@
+package com.example.dnd.combat;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One fight in a world: its own initiative, turn and participants, and the
+ * region of the world it is fought in.
+ *
+ * Several encounters can run in the same world at once, each taking turns
+ * on its own. Every world also has a default encounter with no region,
+ * used by anyone who is not in another one, so a world with a single table
+ * works without creating any.
+ */
+public class Encounter {
+    private final UUID id;
+    private final String name;
+    private final World world;
+    private final Vector3i min;  // Null for the default encounter
+    private final Vector3i max;
+    private final CombatState combatState = new CombatState();
+
+    /**
+     * Create an encounter.
+     *
+     * @param min Lowest corner of its region, or null for the whole world
+     * @param max Highest corner of its region (included), or null
+     */
+    Encounter(String name, World world, Vector3i min, Vector3i max) {
+        this.id = UUID.randomUUID();
+        this.name = name;
+        this.world = world;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Check if a cell is in the encounter's region. The default encounter
+     * covers the whole world.
+     */
+    public boolean contains(Vector3i cell) {
+        if (min == null) {
+            return true;
+        }
+        return cell.x >= min.x && cell.x <= max.x
+            && cell.y >= min.y && cell.y <= max.y
+            && cell.z >= min.z && cell.z <= max.z;
+    }
+
+    /**
+     * Check if the encounter's region overlaps a box (bounds included).
+     */
+    public boolean overlaps(Vector3i boxMin, Vector3i boxMax) {
+        if (min == null) {
+            return true;
+        }
+        return boxMin.x <= max.x && boxMax.x >= min.x
+            && boxMin.y <= max.y && boxMax.y >= min.y
+            && boxMin.z <= max.z && boxMax.z >= min.z;
+    }
+
+    /**
+     * Check if a player or NPC is in the encounter's initiative.
+     */
+    public boolean isParticipant(UUID combatantId) {
+        return combatState.getSnapshot().playerNames().containsKey(combatantId);
+    }
+
+    /**
+     * Get the participants, in turn order.
+     */
+    public List<UUID> getParticipants() {
+        return combatState.getInitiativeOrder();
+    }
+
+    public boolean isDefault() {
+        return min == null;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public UUID getWorldId() {
+        return world.getWorldConfig().getUuid();
+    }
+
+    public Vector3i getMin() {
+        return min;
+    }
+
+    public Vector3i getMax() {
+        return max;
+    }
+
+    public CombatState getCombatState() {
+        return combatState;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.dnd.combat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Turn order of an encounter, kept sorted as combatants join and leave.
+ *
+ * Highest roll goes first; ties go to the higher DEX modifier, then to a
+ * hidden roll-off made once when the combatant joins, so the order of tied
+ * combatants never changes between rounds. Joining, leaving and re-slotting
+ * are O(log n) in a sorted set instead of a full re-sort.
+ *
+ * The current turn is held by combatant rather than by position: someone
+ * joining or leaving ahead of it does not hand the turn to anyone else. A
+ * combatant who joins ahead of the current turn acts next round.
+ *
+ * A combatant can also give up its place and take another one next to
+ * someone else (3.5e-style delay and ready): it then acts on that
+ * combatant's initiative count, right after or right before them.
+ */
+public class InitiativeOrder {
+    private static final long SEQ_GAP = 1L << 20;  // Room to slot combatants between two others
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        if (a.roll != b.roll) return Integer.compare(b.roll, a.roll);
+        if (a.dexModifier != b.dexModifier) return Integer.compare(b.dexModifier, a.dexModifier);
+        if (a.rollOff != b.rollOff) return Integer.compare(b.rollOff, a.rollOff);
+        return Long.compare(a.seq, b.seq);
+    };
+
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private final Map<UUID, Entry> byId = new HashMap<>();
+    private final Random random = new Random();
+    private long nextSeq = 0;
+
+    private Entry current;
+    private int round = 0;
+    private List<UUID> snapshot;  // Order as a list, until the next change
+
+    /**
+     * A combatant's place in the order.
+     */
+    private static final class Entry {
+        final UUID id;
+        int roll;
+        int dexModifier;
+        int rollOff;
+        long seq;  // Join order; only compared between entries tied on everything else
+
+        Entry(UUID id, int roll, int dexModifier, int rollOff, long seq) {
+            this.id = id;
+            this.roll = roll;
+            this.dexModifier = dexModifier;
+            this.rollOff = rollOff;
+            this.seq = seq;
+        }
+
+        boolean isTiedWith(Entry other) {
+            return roll == other.roll && dexModifier == other.dexModifier && rollOff == other.rollOff;
+        }
+    }
+
+    /**
+     * Add a combatant, or move it if it is already in the order.
+     */
+    public void add(UUID id, int roll, int dexModifier) {
+        Entry entry = byId.get(id);
+        if (entry != null) {
+            entries.remove(entry);
+            entry.roll = roll;
+            entry.dexModifier = dexModifier;
+        } else {
+            entry = new Entry(id, roll, dexModifier, random.nextInt(), nextSeq);
+            nextSeq += SEQ_GAP;
+            byId.put(id, entry);
+        }
+        entries.add(entry);
+        snapshot = null;
+    }
+
+    /**
+     * Remove a combatant. If it was its turn, the turn passes to whoever is
+     * next.
+     *
+     * @return True if the current turn changed hands
+     */
+    public boolean remove(UUID id) {
+        Entry entry = byId.remove(id);
+        if (entry == null) {
+            return false;
+        }
+
+        boolean wasCurrent = entry == current;
+        if (wasCurrent) {
+            current = entries.size() > 1 ? after(entry) : null;
+        }
+        entries.remove(entry);
+        snapshot = null;
+        return wasCurrent;
+    }
+
+    /**
+     * Give the first turn to the top of the order.
+     */
+    public void start() {
+        current = entries.isEmpty() ? null : entries.first();
+        round = current != null ? 1 : 0;
+    }
+
+    /**
+     * Pass the turn to the next combatant, starting a new round after the
+     * last one.
+     */
+    public void next() {
+        if (current == null) return;
+        current = after(current);
+    }
+
+    /**
+     * Move a combatant to act right after another (delay). If it was its
+     * turn, the turn passes on first.
+     *
+     * @return False if either is not in the order, or they are the same
+     */
+    public boolean moveAfter(UUID id, UUID anchorId) {
+        return move(id, anchorId, true);
+    }
+
+    /**
+     * Move a combatant to act right before another (a readied action going
+     * off). If it was its turn, the turn passes on first.
+     *
+     * @return False if either is not in the order, or they are the same
+     */
+    public boolean moveBefore(UUID id, UUID anchorId) {
+        return move(id, anchorId, false);
+    }
+
+    private boolean move(UUID id, UUID anchorId, boolean after) {
+        Entry entry = byId.get(id);
+        Entry anchor = byId.get(anchorId);
+        if (entry == null || anchor == null || entry == anchor) {
+            return false;
+        }
+
+        if (entry == current) {
+            current = after(entry);
+        }
+        entries.remove(entry);
+
+        // Take the anchor's initiative count, next to it among those tied with it
+        entry.roll = anchor.roll;
+        entry.dexModifier = anchor.dexModifier;
+        entry.rollOff = anchor.rollOff;
+        Entry neighbor = after ? entries.higher(anchor) : entries.lower(anchor);
+        if (neighbor != null && neighbor.isTiedWith(anchor) && Math.abs(neighbor.seq - anchor.seq) < 2) {
+            respace(anchor);
+            neighbor = after ? entries.higher(anchor) : entries.lower(anchor);
+        }
+        if (neighbor != null && neighbor.isTiedWith(anchor)) {
+            entry.seq = anchor.seq + (neighbor.seq - anchor.seq) / 2;
+        } else {
+            entry.seq = after ? anchor.seq + SEQ_GAP : anchor.seq - SEQ_GAP;
+        }
+
+        entries.add(entry);
+        snapshot = null;
+        return true;
+    }
+
+    /**
+     * Spread out the join order of everyone tied with an entry, to make room
+     * between them. Only touches the tied run.
+     */
+    private void respace(Entry tied) {
+        List<Entry> run = new ArrayList<>();
+        for (Entry e = tied; e != null && e.isTiedWith(tied); e = entries.lower(e)) {
+            run.add(0, e);
+        }
+        for (Entry e = entries.higher(tied); e != null && e.isTiedWith(tied); e = entries.higher(e)) {
+            run.add(e);
+        }
+
+        entries.removeAll(run);
+        for (int i = 0; i < run.size(); i++) {
+            run.get(i).seq = i * SEQ_GAP;
+        }
+        entries.addAll(run);
+    }
+
+    /**
+     * Get who acts after an entry, wrapping to the top (and a new round).
+     */
+    private Entry after(Entry entry) {
+        Entry next = entries.higher(entry);
+        if (next == null) {
+            next = entries.isEmpty() ? null : entries.first();
+            round++;
+        }
+        return next;
+    }
+
+    public void clear() {
+        entries.clear();
+        byId.clear();
+        current = null;
+        round = 0;
+        snapshot = null;
+    }
+
+    /**
+     * Get whose turn it is, or null before the first turn.
+     */
+    public UUID getCurrent() {
+        return current != null ? current.id : null;
+    }
+
+    /**
+     * Get the round number, counting from 1 once started.
+     */
+    public int getRound() {
+        return round;
+    }
+
+    public boolean contains(UUID id) {
+        return byId.containsKey(id);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the order, first to act first. Built once per change.
+     */
+    public List<UUID> toList() {
+        if (snapshot == null) {
+            List<UUID> ids = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                ids.add(entry.id);
+            }
+            snapshot = Collections.unmodifiableList(ids);
+        }
+        return snapshot;
+    }
+}
@@ -1,26 +1,53 @@
 package com.example.dnd.combat;
 
+import com.example.dnd.PlayerRegistry;
+import com.example.dnd.movement.GridMovementManager;
 import com.example.dnd.ui.CombatHud;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages turn-based combat across worlds.
+ *
+ * A world can hold several {@link Encounter}s at once, each in its own
+ * region with its own initiative. Every combatant in initiative is indexed
+ * to its encounter, so finding whose fight a click or command belongs to is
+ * one lookup; anyone not in initiative belongs to the world's default
+ * encounter.
+ *
+ * HUD refreshes are coalesced: {@link #refreshHuds(Encounter)} only marks the
+ * participants' HUDs dirty and queues the encounter, and the world tick
+ * (see {@link com.example.dnd.WorldTickSystem}) flushes the queued
+ * encounters. However many moves, clicks and turn changes ask for a refresh
+ * in between, each player gets at most one HUD update per tick, and only the
+ * encounter's own participants are refreshed.
  */
 public class TurnManager {
     private static TurnManager instance;
 
-    // Combat state per world
-    private final Map<UUID, CombatState> worldCombatStates = new ConcurrentHashMap<>();
+    // Encounters by ID, and each world's default encounter (world UUID -> encounter)
+    private final Map<UUID, Encounter> encounters = new ConcurrentHashMap<>();
+    private final Map<UUID, Encounter> defaultEncounters = new ConcurrentHashMap<>();
+
+    // Encounter of everyone in initiative (player or NPC UUID -> encounter)
+    private final Map<UUID, Encounter> participantEncounters = new ConcurrentHashMap<>();
 
     // Active combat HUDs per player (player UUID -> HUD)
     private final Map<UUID, CombatHud> activeHuds = new ConcurrentHashMap<>();
 
+    // Encounters with HUDs waiting for the next tick (world UUID -> encounters)
+    private final Map<UUID, Set<Encounter>> queuedHudFlushes = new ConcurrentHashMap<>();
+
     private TurnManager() {}
 
     /**
@@ -33,84 +60,261 @@ public class TurnManager {
         return instance;
     }
 
+    // ========== Encounters ==========
+
+    /**
+     * Get or create a world's default encounter, which has no region.
+     */
+    public Encounter getDefaultEncounter(World world) {
+        return defaultEncounters.computeIfAbsent(world.getWorldConfig().getUuid(), k -> {
+            Encounter encounter = new Encounter("default", world, null, null);
+            encounters.put(encounter.getId(), encounter);
+            return encounter;
+        });
+    }
+
+    /**
+     * Create an encounter over a region of a world.
+     *
+     * @return The new encounter, or null if the name is taken in the world
+     *         or the region overlaps another encounter's
+     */
+    public synchronized Encounter createEncounter(World world, String name, Vector3i min, Vector3i max) {
+        for (Encounter other : getEncounters(world)) {
+            if (other.getName().equalsIgnoreCase(name) || (!other.isDefault() && other.overlaps(min, max))) {
+                return null;
+            }
+        }
+        Encounter encounter = new Encounter(name, world, min, max);
+        encounters.put(encounter.getId(), encounter);
+        return encounter;
+    }
+
     /**
-     * Get or create the combat state for a world.
+     * Remove an encounter that is not in combat, taking everyone out of its
+     * initiative. A world's default encounter is only cleared.
+     *
+     * @return False if the encounter is in combat
      */
-    public CombatState getCombatState(World world) {
-        return worldCombatStates.computeIfAbsent(
-            world.getWorldConfig().getUuid(),
-            k -> new CombatState()
-        );
+    public synchronized boolean removeEncounter(Encounter encounter) {
+        if (encounter.getCombatState().isCombatActive()) {
+            return false;
+        }
+        clearInitiative(encounter);
+        if (!encounter.isDefault()) {
+            encounters.remove(encounter.getId());
+        }
+        return true;
     }
 
     /**
-     * Get combat state by world UUID directly.
+     * Get every encounter in a world, the default one included.
      */
-    public CombatState getCombatState(UUID worldId) {
-        return worldCombatStates.computeIfAbsent(worldId, k -> new CombatState());
+    public List<Encounter> getEncounters(World world) {
+        getDefaultEncounter(world);
+        UUID worldId = world.getWorldConfig().getUuid();
+        List<Encounter> result = new ArrayList<>();
+        for (Encounter encounter : encounters.values()) {
+            if (encounter.getWorldId().equals(worldId)) {
+                result.add(encounter);
+            }
+        }
+        return result;
     }
 
     /**
-     * Check if it's a player's turn in the given world.
+     * Find an encounter in a world by name.
+     */
+    public Encounter getEncounter(World world, String name) {
+        for (Encounter encounter : getEncounters(world)) {
+            if (encounter.getName().equalsIgnoreCase(name)) {
+                return encounter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the encounter a player or NPC is in initiative in, or null.
+     */
+    public Encounter getEncounterOf(UUID combatantId) {
+        return participantEncounters.get(combatantId);
+    }
+
+    /**
+     * Get the encounter a player's clicks and commands belong to: the one
+     * they are in initiative in, or the world's default one.
+     */
+    public Encounter getEncounter(World world, UUID playerId) {
+        Encounter encounter = participantEncounters.get(playerId);
+        if (encounter != null && encounter.getWorld() == world) {
+            return encounter;
+        }
+        return getDefaultEncounter(world);
+    }
+
+    /**
+     * Get the encounter whose region holds a cell, or the world's default
+     * one.
+     */
+    public Encounter getEncounterAt(World world, Vector3i cell) {
+        if (cell != null) {
+            for (Encounter encounter : getEncounters(world)) {
+                if (!encounter.isDefault() && encounter.contains(cell)) {
+                    return encounter;
+                }
+            }
+        }
+        return getDefaultEncounter(world);
+    }
+
+    /**
+     * Get the encounter a combatant standing in a cell would join by rolling
+     * initiative: the one they are fighting in, or else the one whose region
+     * holds the cell.
+     *
+     * @param cell Where they stand, or null if unknown
+     */
+    public Encounter getEncounterToJoin(World world, UUID combatantId, Vector3i cell) {
+        Encounter encounter = participantEncounters.get(combatantId);
+        if (encounter != null && encounter.getWorld() == world && encounter.getCombatState().isCombatActive()) {
+            return encounter;
+        }
+        return getEncounterAt(world, cell);
+    }
+
+    /**
+     * Get the combat state of the encounter a player belongs to.
+     */
+    public CombatState getCombatState(World world, UUID playerId) {
+        return getEncounter(world, playerId).getCombatState();
+    }
+
+    /**
+     * Add a player or NPC to an encounter's initiative, taking them out of
+     * any other encounter's. A player joining mid-combat is put on the
+     * occupancy grid where they stand.
+     */
+    public synchronized void addToInitiative(Encounter encounter, UUID combatantId, String name, int roll,
+                                             int dexModifier) {
+        Encounter previous = participantEncounters.put(combatantId, encounter);
+        if (previous != null && previous != encounter) {
+            if (previous.getCombatState().removeFromInitiative(combatantId)) {
+                startCurrentTurn(previous);
+            }
+            refreshHuds(previous);
+        }
+        encounter.getCombatState().addToInitiative(combatantId, name, roll, dexModifier);
+        PlayerRegistry.get().addCombatant(encounter, combatantId);
+
+        if (encounter.getCombatState().isCombatActive()) {
+            GridMovementManager.get().placePlayer(encounter.getWorld(), combatantId);
+        }
+    }
+
+    /**
+     * Take a player or NPC out of initiative.
+     *
+     * @return The encounter they were in, or null
+     */
+    public synchronized Encounter removeFromInitiative(UUID combatantId) {
+        Encounter encounter = participantEncounters.remove(combatantId);
+        if (encounter != null) {
+            boolean turnPassed = encounter.getCombatState().removeFromInitiative(combatantId);
+            PlayerRegistry.get().removeCombatant(encounter, combatantId);
+            if (turnPassed) {
+                Player removed = PlayerRegistry.get().getPlayer(encounter.getWorld(), combatantId);
+                if (removed != null) {
+                    GridMovementManager.get().endMovementPhase(removed);
+                }
+                startCurrentTurn(encounter);
+            }
+            refreshHuds(encounter);
+        }
+        return encounter;
+    }
+
+    /**
+     * Start the movement phase of whoever's turn it now is in an encounter,
+     * if that is a player.
+     */
+    private void startCurrentTurn(Encounter encounter) {
+        UUID currentId = encounter.getCombatState().getCurrentPlayer();
+        if (currentId == null) return;
+
+        Player current = PlayerRegistry.get().getPlayer(encounter.getWorld(), currentId);
+        if (current != null) {
+            GridMovementManager.get().startMovementPhase(current, encounter.getWorld());
+        }
+    }
+
+    /**
+     * Clear an encounter's initiative.
+     */
+    public synchronized void clearInitiative(Encounter encounter) {
+        for (UUID combatantId : encounter.getParticipants()) {
+            participantEncounters.remove(combatantId, encounter);
+        }
+        encounter.getCombatState().clear();
+        PlayerRegistry.get().clearCombatants(encounter);
+    }
+
+    /**
+     * Check if it's a player's turn in the encounter they belong to.
      */
     public boolean isPlayerTurn(World world, UUID playerId) {
-        CombatState state = worldCombatStates.get(world.getWorldConfig().getUuid());
-        return state != null && state.isPlayerTurn(playerId);
+        return getEncounter(world, playerId).getCombatState().isPlayerTurn(playerId);
     }
 
     /**
-     * Check if combat is active in a world.
+     * Check if any encounter is in combat in a world.
      */
     public boolean isCombatActive(World world) {
-        CombatState state = worldCombatStates.get(world.getWorldConfig().getUuid());
-        return state != null && state.isCombatActive();
+        return getActiveEncounterCount(world) > 0;
     }
 
     /**
-     * Clear combat state for a world.
+     * Number of encounters in combat in a world.
      */
-    public void clearCombatState(World world) {
-        worldCombatStates.remove(world.getWorldConfig().getUuid());
+    public int getActiveEncounterCount(World world) {
+        int count = 0;
+        for (Encounter encounter : getEncounters(world)) {
+            if (encounter.getCombatState().isCombatActive()) {
+                count++;
+            }
+        }
+        return count;
     }
 
     // ========== HUD Lifecycle Management ==========
 
     /**
-     * Show combat HUDs for all players in the initiative order.
+     * Show combat HUDs for all players in an encounter's initiative order.
      */
-    public void showCombatHuds(World world) {
-        CombatState state = getCombatState(world);
-        if (!state.isCombatActive()) return;
+    public void showCombatHuds(Encounter encounter) {
+        if (!encounter.getCombatState().isCombatActive()) return;
 
-        for (UUID playerId : state.getInitiativeOrder()) {
-            Player player = findPlayerByUuid(world, playerId);
-            if (player != null) {
-                showHudForPlayer(player, world);
-            }
+        for (Player player : PlayerRegistry.get().getCombatants(encounter)) {
+            showHudForPlayer(player, encounter);
         }
     }
 
     /**
-     * Show the combat HUD for a specific player.
+     * Show the combat HUD of an encounter for a specific player.
      */
-    public void showHudForPlayer(Player player, World world) {
+    public void showHudForPlayer(Player player, Encounter encounter) {
         PlayerRef playerRef = player.getPlayerRef();
-        CombatHud hud = new CombatHud(playerRef, this, world);
+        CombatHud hud = new CombatHud(playerRef, encounter);
         activeHuds.put(playerRef.getUuid(), hud);
         player.getHudManager().setCustomHud(playerRef, hud);
     }
 
     /**
-     * Hide combat HUDs for all players in the world.
+     * Hide combat HUDs for all players in an encounter.
      */
-    public void hideCombatHuds(World world) {
-        CombatState state = getCombatState(world);
-
-        for (UUID playerId : state.getInitiativeOrder()) {
-            Player player = findPlayerByUuid(world, playerId);
-            if (player != null) {
-                hideHudForPlayer(player);
-            }
+    public void hideCombatHuds(Encounter encounter) {
+        for (Player player : PlayerRegistry.get().getCombatants(encounter)) {
+            hideHudForPlayer(player);
         }
     }
 
@@ -126,35 +330,70 @@ public class TurnManager {
     }
 
     /**
-     * Refresh all active combat HUDs in a world.
+     * Refresh the combat HUDs of the encounter a player belongs to at the
+     * next tick.
      */
-    public void refreshAllHuds(World world) {
-        CombatState state = getCombatState(world);
+    public void refreshHuds(World world, UUID playerId) {
+        refreshHuds(getEncounter(world, playerId));
+    }
 
-        for (UUID playerId : state.getInitiativeOrder()) {
+    /**
+     * Refresh the combat HUDs of an encounter's participants at the next
+     * tick.
+     */
+    public void refreshHuds(Encounter encounter) {
+        boolean marked = false;
+        for (UUID playerId : encounter.getParticipants()) {
             CombatHud hud = activeHuds.get(playerId);
             if (hud != null) {
-                hud.refresh();
+                hud.markDirty();
+                marked = true;
             }
         }
+        if (!marked) return;
+
+        queuedHudFlushes.computeIfAbsent(encounter.getWorldId(), k -> ConcurrentHashMap.newKeySet()).add(encounter);
     }
 
     /**
-     * Get the active HUD for a player.
+     * Check if any encounter in a world has HUDs waiting for the next tick.
      */
-    public CombatHud getHud(UUID playerId) {
-        return activeHuds.get(playerId);
+    public boolean hasQueuedHuds(World world) {
+        Set<Encounter> queued = queuedHudFlushes.get(world.getWorldConfig().getUuid());
+        return queued != null && !queued.isEmpty();
     }
 
     /**
-     * Find a player in the world by UUID.
+     * Send the changes of every dirty HUD in a world's queued encounters.
+     * Runs on the world thread, once per tick.
      */
-    private Player findPlayerByUuid(World world, UUID playerId) {
-        for (Player player : world.getPlayers()) {
-            if (player.getPlayerRef().getUuid().equals(playerId)) {
-                return player;
+    public void flushHuds(World world) {
+        Set<Encounter> queued = queuedHudFlushes.get(world.getWorldConfig().getUuid());
+        if (queued == null) return;
+
+        for (Iterator<Encounter> it = queued.iterator(); it.hasNext(); ) {
+            Encounter encounter = it.next();
+            it.remove();
+            flushHuds(encounter);
+        }
+    }
+
+    /**
+     * Send the changes of every dirty HUD in an encounter.
+     */
+    private void flushHuds(Encounter encounter) {
+        for (UUID playerId : encounter.getParticipants()) {
+            CombatHud hud = activeHuds.get(playerId);
+            if (hud != null) {
+                hud.flush();
             }
         }
-        return null;
+    }
+
+    /**
+     * Get the active HUD for a player.
+     */
+    public CombatHud getHud(UUID playerId) {
+        return activeHuds.get(playerId);
     }
 }
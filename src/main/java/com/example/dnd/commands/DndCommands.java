@@ -17,6 +17,7 @@ public class DndCommands extends AbstractCommandCollection {
         addSubCommand(new CameraCommand());
         addSubCommand(new InitiativeCommand(turnManager));
         addSubCommand(new TurnCommand(turnManager));
+        addSubCommand(new EncounterCommand(turnManager));
         addSubCommand(new RollCommand());
         addSubCommand(new SheetCommand(plugin));
         addSubCommand(new CombatCommand(plugin, turnManager));
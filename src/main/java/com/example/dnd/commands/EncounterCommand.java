@@ -0,0 +1,125 @@
+package com.example.dnd.commands;
+
+import com.example.dnd.combat.CombatSnapshot;
+import com.example.dnd.combat.Encounter;
+import com.example.dnd.combat.TurnManager;
+import com.example.dnd.movement.GridMovementManager;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Command to run several encounters in one world.
+ * Usage: /dnd encounter <create|list|remove> [name] [radius]
+ *
+ * Create marks out a region of the given radius in blocks around you for a
+ * new encounter. Anyone who rolls initiative inside it joins that encounter
+ * and takes turns with it, apart from fights elsewhere in the world.
+ */
+public class EncounterCommand extends AbstractPlayerCommand {
+    private static final int DEFAULT_RADIUS = 16;
+
+    private final TurnManager turnManager;
+    private final RequiredArg<String> actionArg;
+    private final DefaultArg<String> nameArg;
+    private final DefaultArg<Integer> radiusArg;
+
+    public EncounterCommand(TurnManager turnManager) {
+        super("encounter", "server.commands.dnd.encounter.desc");
+        this.turnManager = turnManager;
+
+        actionArg = withRequiredArg("action", "Action: create, list, or remove", ArgTypes.STRING);
+        nameArg = withDefaultArg("name", "Encounter name (for create and remove)", ArgTypes.STRING, "", "");
+        radiusArg = withDefaultArg("radius", "Region radius in blocks (for create)", ArgTypes.INTEGER,
+            DEFAULT_RADIUS, String.valueOf(DEFAULT_RADIUS));
+    }
+
+    @Override
+    protected void execute(
+        @Nonnull CommandContext context,
+        @Nonnull Store<EntityStore> store,
+        @Nonnull Ref<EntityStore> ref,
+        @Nonnull PlayerRef playerRef,
+        @Nonnull World world
+    ) {
+        String action = context.get(actionArg);
+        String name = context.get(nameArg);
+
+        switch (action.toLowerCase()) {
+            case "create" -> handleCreate(store, ref, playerRef, world, name, context.get(radiusArg));
+            case "list" -> handleList(playerRef, world);
+            case "remove" -> handleRemove(playerRef, world, name);
+            default -> playerRef.sendMessage(Message.raw("[D&D] Unknown action: " + action + ". Use: create, list, or remove"));
+        }
+    }
+
+    private void handleCreate(Store<EntityStore> store, Ref<EntityStore> ref, PlayerRef playerRef, World world,
+                              String name, int radius) {
+        if (name.isEmpty()) {
+            playerRef.sendMessage(Message.raw("[D&D] Usage: /dnd encounter create <name> [radius]"));
+            return;
+        }
+        if (radius < 1) {
+            playerRef.sendMessage(Message.raw("[D&D] Radius must be at least 1 block."));
+            return;
+        }
+
+        Player player = store.getComponent(ref, Player.getComponentType());
+        Vector3i cell = player != null ? GridMovementManager.get().getPlayerCell(player) : null;
+        if (cell == null) {
+            playerRef.sendMessage(Message.raw("[D&D] Could not find your position."));
+            return;
+        }
+
+        Vector3i min = new Vector3i(cell.x - radius, cell.y - radius, cell.z - radius);
+        Vector3i max = new Vector3i(cell.x + radius, cell.y + radius, cell.z + radius);
+        Encounter encounter = turnManager.createEncounter(world, name, min, max);
+        if (encounter == null) {
+            playerRef.sendMessage(Message.raw("[D&D] An encounter named '" + name
+                + "' already exists, or its region overlaps another encounter's."));
+            return;
+        }
+
+        playerRef.sendMessage(Message.raw(String.format(
+            "[D&D] Encounter '%s' created from %s to %s. Roll initiative inside it to join.",
+            encounter.getName(), min, max)));
+    }
+
+    private void handleList(PlayerRef playerRef, World world) {
+        StringBuilder sb = new StringBuilder("[D&D] Encounters:\n");
+        for (Encounter encounter : turnManager.getEncounters(world)) {
+            CombatSnapshot combat = encounter.getCombatState().getSnapshot();
+            sb.append(String.format("  %s: %d combatants, %s%s\n",
+                encounter.getName(),
+                combat.initiativeOrder().size(),
+                combat.combatActive() ? "round " + combat.round() + ", " + combat.getCurrentPlayerName() + "'s turn" : "not in combat",
+                encounter.isDefault() ? "" : " (" + encounter.getMin() + " to " + encounter.getMax() + ")"));
+        }
+        playerRef.sendMessage(Message.raw(sb.toString()));
+    }
+
+    private void handleRemove(PlayerRef playerRef, World world, String name) {
+        Encounter encounter = turnManager.getEncounter(world, name);
+        if (encounter == null || encounter.isDefault()) {
+            playerRef.sendMessage(Message.raw("[D&D] No encounter named '" + name + "'."));
+            return;
+        }
+        if (!turnManager.removeEncounter(encounter)) {
+            playerRef.sendMessage(Message.raw("[D&D] End combat in '" + encounter.getName() + "' first."));
+            return;
+        }
+        playerRef.sendMessage(Message.raw("[D&D] Encounter '" + encounter.getName() + "' removed."));
+    }
+}
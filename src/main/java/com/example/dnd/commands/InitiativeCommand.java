@@ -1,10 +1,13 @@
 package com.example.dnd.commands;
 
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.character.DiceRoller;
-import com.example.dnd.combat.CombatState;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
+import com.example.dnd.movement.GridMovementManager;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg;
@@ -21,6 +24,10 @@ import javax.annotation.Nonnull;
 /**
  * Command to manage initiative.
  * Usage: /dnd initiative <roll|list|clear> [modifier]
+ *
+ * Rolling joins the encounter whose region you stand in (see /dnd
+ * encounter), or the world's default encounter. List and clear act on the
+ * encounter you are in.
  */
 public class InitiativeCommand extends AbstractPlayerCommand {
     private final TurnManager turnManager;
@@ -32,7 +39,7 @@ public class InitiativeCommand extends AbstractPlayerCommand {
         this.turnManager = turnManager;
 
         actionArg = withRequiredArg("action", "Action: roll, list, or clear", ArgTypes.STRING);
-        modifierArg = withDefaultArg("modifier", "Initiative modifier (for roll)", ArgTypes.INTEGER, 0, "0");
+        modifierArg = withDefaultArg("modifier", "Initiative (DEX) modifier (for roll)", ArgTypes.INTEGER, 0, "0");
     }
 
     @Override
@@ -44,18 +51,22 @@ public class InitiativeCommand extends AbstractPlayerCommand {
         @Nonnull World world
     ) {
         String action = context.get(actionArg);
-        CombatState combatState = turnManager.getCombatState(world);
+        Encounter encounter = turnManager.getEncounter(world, playerRef.getUuid());
 
         switch (action.toLowerCase()) {
-            case "roll" -> handleRoll(context, playerRef, world, combatState);
-            case "list" -> handleList(playerRef, combatState);
-            case "clear" -> handleClear(playerRef, combatState);
+            case "roll" -> handleRoll(context, store, ref, playerRef, world);
+            case "list" -> handleList(playerRef, encounter);
+            case "clear" -> handleClear(playerRef, encounter);
             default -> playerRef.sendMessage(Message.raw("[D&D] Unknown action: " + action + ". Use: roll, list, or clear"));
         }
     }
 
-    private void handleRoll(CommandContext context, PlayerRef playerRef, World world, CombatState combatState) {
-        if (combatState.isCombatActive()) {
+    private void handleRoll(CommandContext context, Store<EntityStore> store, Ref<EntityStore> ref,
+                            PlayerRef playerRef, World world) {
+        Player player = store.getComponent(ref, Player.getComponentType());
+        Vector3i cell = player != null ? GridMovementManager.get().getPlayerCell(player) : null;
+        Encounter encounter = turnManager.getEncounterToJoin(world, playerRef.getUuid(), cell);
+        if (encounter.getCombatState().isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] Cannot roll initiative while combat is active!"));
             return;
         }
@@ -63,31 +74,29 @@ public class InitiativeCommand extends AbstractPlayerCommand {
         int modifier = context.get(modifierArg);
         DiceRoller.DiceResult result = DiceRoller.rollD20(modifier);
 
-        combatState.addToInitiative(playerRef.getUuid(), playerRef.getUsername(), result.total());
+        turnManager.addToInitiative(encounter, playerRef.getUuid(), playerRef.getUsername(), result.total(), modifier);
 
-        // Broadcast the roll to all players
-        String rollMessage = String.format("[D&D] %s rolled initiative: %s",
-            playerRef.getUsername(), result.format());
-        broadcastMessage(world, rollMessage);
+        // Announce the roll at the encounter's table
+        String rollMessage = String.format("[D&D] %s rolled initiative%s: %s",
+            playerRef.getUsername(), encounter.isDefault() ? "" : " in " + encounter.getName(), result.format());
+        broadcastMessage(encounter, rollMessage);
     }
 
-    private void handleList(PlayerRef playerRef, CombatState combatState) {
-        playerRef.sendMessage(Message.raw("[D&D] " + combatState.getInitiativeListString()));
+    private void handleList(PlayerRef playerRef, Encounter encounter) {
+        String prefix = encounter.isDefault() ? "[D&D] " : "[D&D] " + encounter.getName() + " - ";
+        playerRef.sendMessage(Message.raw(prefix + encounter.getCombatState().getInitiativeListString()));
     }
 
-    private void handleClear(PlayerRef playerRef, CombatState combatState) {
-        if (combatState.isCombatActive()) {
+    private void handleClear(PlayerRef playerRef, Encounter encounter) {
+        if (encounter.getCombatState().isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] Cannot clear initiative while combat is active! End combat first."));
             return;
         }
-        combatState.clear();
+        turnManager.clearInitiative(encounter);
         playerRef.sendMessage(Message.raw("[D&D] Initiative cleared."));
     }
 
-    @SuppressWarnings("deprecation")
-    private void broadcastMessage(World world, String message) {
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
+    private void broadcastMessage(Encounter encounter, String message) {
+        PlayerRegistry.get().sendToEncounter(encounter, Message.raw(message));
     }
 }
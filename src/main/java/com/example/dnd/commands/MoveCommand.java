@@ -8,6 +8,9 @@ import com.example.dnd.combat.TurnPhase;
 import com.example.dnd.movement.GridMovementManager;
 import com.example.dnd.movement.MovementConfig;
 import com.example.dnd.movement.MovementState;
+import com.example.dnd.movement.PathCache;
+import com.example.dnd.movement.PathSearchMode;
+import com.example.dnd.movement.PathfindingService;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
@@ -34,6 +37,7 @@ import java.util.UUID;
  *   /dnd move status        - Show current movement status
  *   /dnd move skip          - Skip movement phase
  *   /dnd move diagonal [1|1.5] - Set diagonal movement cost
+ *   /dnd move search [1|2]  - Set pathfinding mode (A* or jump point search)
  */
 public class MoveCommand extends AbstractPlayerCommand {
     private final TurnManager turnManager;
@@ -44,9 +48,9 @@ public class MoveCommand extends AbstractPlayerCommand {
         super("move", "server.commands.dnd.move.desc");
         this.turnManager = turnManager;
 
-        actionArg = withRequiredArg("action", "Action: cancel, confirm, speed, status, skip, diagonal",
+        actionArg = withRequiredArg("action", "Action: cancel, confirm, speed, status, skip, diagonal, search",
             ArgTypes.STRING);
-        valueArg = withOptionalArg("value", "Optional value for speed or diagonal cost",
+        valueArg = withOptionalArg("value", "Optional value for speed, diagonal cost or search mode",
             ArgTypes.INTEGER);
     }
 
@@ -71,8 +75,9 @@ public class MoveCommand extends AbstractPlayerCommand {
             case "status" -> handleStatus(playerRef, playerId, world);
             case "skip" -> handleSkip(player, playerRef, world);
             case "diagonal" -> handleDiagonal(playerRef, value);
+            case "search" -> handleSearch(playerRef, value);
             default -> playerRef.sendMessage(Message.raw(
-                "[D&D] Unknown action: " + action + ". Use: cancel, confirm, speed, status, skip, diagonal"
+                "[D&D] Unknown action: " + action + ". Use: cancel, confirm, speed, status, skip, diagonal, search"
             ));
         }
     }
@@ -105,7 +110,7 @@ public class MoveCommand extends AbstractPlayerCommand {
     }
 
     private void handleStatus(PlayerRef playerRef, UUID playerId, World world) {
-        CombatState combatState = turnManager.getCombatState(world);
+        CombatState combatState = turnManager.getCombatState(world, playerId);
 
         if (!combatState.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] No active combat."));
@@ -134,13 +139,23 @@ public class MoveCommand extends AbstractPlayerCommand {
             sb.append("  No destination selected\n");
         }
 
-        sb.append(String.format("  Planning mode: %s", moveState.isPlanning() ? "Active" : "Inactive"));
+        sb.append(String.format("  Planning mode: %s\n", moveState.isPlanning() ? "Active" : "Inactive"));
+
+        PathfindingService searches = GridMovementManager.get().getSearchService();
+        sb.append(String.format("  Your path searches this turn: %d\n", searches.getSubmittedCount(playerRef.getUuid())));
+        sb.append(String.format("  All path searches: %d (cancelled: %d, queued: %d, running: %d)\n",
+            searches.getSubmittedCount(), searches.getCancelledCount(), searches.getQueueDepth(),
+            searches.getActiveCount()));
+
+        PathCache cache = GridMovementManager.get().getPathCache(world);
+        sb.append(String.format("  Path cache: %d/%d (hits: %d, misses: %d)",
+            cache.size(), cache.getCapacity(), cache.getHits(), cache.getMisses()));
 
         playerRef.sendMessage(Message.raw(sb.toString()));
     }
 
     private void handleSkip(Player player, PlayerRef playerRef, World world) {
-        CombatState combatState = turnManager.getCombatState(world);
+        CombatState combatState = turnManager.getCombatState(world, playerRef.getUuid());
 
         if (!combatState.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] No active combat."));
@@ -165,7 +180,7 @@ public class MoveCommand extends AbstractPlayerCommand {
         playerRef.sendMessage(Message.raw("[D&D] Movement skipped. Now in ACTION phase."));
 
         // Refresh HUDs
-        turnManager.refreshAllHuds(world);
+        turnManager.refreshHuds(world, playerRef.getUuid());
     }
 
     private void handleDiagonal(PlayerRef playerRef, Integer value) {
@@ -173,8 +188,14 @@ public class MoveCommand extends AbstractPlayerCommand {
 
         if (value == null) {
             // Get current diagonal cost
+            if (config.isAlternatingDiagonals()) {
+                playerRef.sendMessage(Message.raw(
+                    "[D&D] Diagonal movement: 5e Variant (alternating 1 and 2 blocks)"
+                ));
+                return;
+            }
             double cost = config.getDiagonalCost();
-            String mode = cost == 1.0 ? "Simple (1 block)" : "5e Variant (1.5 blocks avg)";
+            String mode = cost == 1.0 ? "Simple (1 block)" : "Custom";
             playerRef.sendMessage(Message.raw(
                 String.format("[D&D] Diagonal movement: %s (cost: %.1f)", mode, cost)
             ));
@@ -188,7 +209,7 @@ public class MoveCommand extends AbstractPlayerCommand {
             } else if (value == 2) {
                 config.setAlternatingDiagonals(true);
                 playerRef.sendMessage(Message.raw(
-                    "[D&D] Diagonal movement set to 5e variant (1.5 blocks per diagonal)"
+                    "[D&D] Diagonal movement set to 5e variant (alternating 1 and 2 blocks per diagonal)"
                 ));
             } else {
                 playerRef.sendMessage(Message.raw(
@@ -197,4 +218,27 @@ public class MoveCommand extends AbstractPlayerCommand {
             }
         }
     }
+
+    private void handleSearch(PlayerRef playerRef, Integer value) {
+        MovementConfig config = GridMovementManager.get().getConfig();
+
+        if (value == null) {
+            // Get current search mode
+            String note = config.getSearchMode() == PathSearchMode.JUMP_POINT && !config.isJumpPointSearchActive()
+                ? " (inactive: needs simple diagonals)" : "";
+            playerRef.sendMessage(Message.raw(
+                String.format("[D&D] Pathfinding: %s%s", config.getSearchMode().getDescription(), note)
+            ));
+        } else if (value == 1) {
+            config.setSearchMode(PathSearchMode.ASTAR);
+            playerRef.sendMessage(Message.raw("[D&D] Pathfinding set to A*"));
+        } else if (value == 2) {
+            config.setSearchMode(PathSearchMode.JUMP_POINT);
+            playerRef.sendMessage(Message.raw("[D&D] Pathfinding set to jump point search"));
+        } else {
+            playerRef.sendMessage(Message.raw(
+                "[D&D] Invalid value. Use 1 for A* or 2 for jump point search."
+            ));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.dnd.commands;
 
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.character.DiceRoller;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
@@ -9,7 +10,6 @@ import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
-import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
@@ -74,10 +74,7 @@ public class RollCommand extends AbstractPlayerCommand {
         broadcastMessage(world, rollMessage);
     }
 
-    @SuppressWarnings("deprecation")
     private void broadcastMessage(World world, String message) {
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
+        PlayerRegistry.get().sendToWorld(world, Message.raw(message));
     }
 }
@@ -1,20 +1,29 @@
 package com.example.dnd.commands;
 
+import com.example.dnd.gm.GMManager;
+import com.example.dnd.gm.ManagedNPC;
+import com.example.dnd.movement.CreatureSize;
+import com.example.dnd.targeting.Cover;
+import com.example.dnd.targeting.LineOfSight;
 import com.example.dnd.targeting.TargetInfo;
 import com.example.dnd.targeting.TargetManager;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
 import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -24,6 +33,7 @@ import java.util.UUID;
  *   /dnd target           - Show current target info
  *   /dnd target clear     - Clear current target
  *   /dnd target info      - Show detailed target info
+ *   /dnd target visible   - List the NPCs you can see, with their cover
  */
 public class TargetCommand extends AbstractPlayerCommand {
     private final OptionalArg<String> actionArg;
@@ -31,7 +41,7 @@ public class TargetCommand extends AbstractPlayerCommand {
     public TargetCommand() {
         super("target", "server.commands.dnd.target.desc");
 
-        actionArg = withOptionalArg("action", "Action: clear, info (default: show current target)",
+        actionArg = withOptionalArg("action", "Action: clear, info, visible (default: show current target)",
             ArgTypes.STRING);
     }
 
@@ -54,8 +64,9 @@ public class TargetCommand extends AbstractPlayerCommand {
             switch (action.toLowerCase()) {
                 case "clear" -> handleClear(playerRef, playerId, world, targetManager);
                 case "info" -> handleInfo(playerRef, playerId, world, targetManager);
+                case "visible" -> handleVisible(store, ref, playerRef, world);
                 default -> playerRef.sendMessage(Message.raw(
-                    "[D&D] Unknown action: " + action + ". Use: clear, info"
+                    "[D&D] Unknown action: " + action + ". Use: clear, info, visible"
                 ));
             }
         }
@@ -107,4 +118,46 @@ public class TargetCommand extends AbstractPlayerCommand {
 
         playerRef.sendMessage(Message.raw(sb.toString()));
     }
+
+    private void handleVisible(Store<EntityStore> store, Ref<EntityStore> ref, PlayerRef playerRef, World world) {
+        TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
+        if (transform == null) {
+            playerRef.sendMessage(Message.raw("[D&D] Cannot determine your position."));
+            return;
+        }
+        Vector3i eye = CreatureSize.MEDIUM.getCorner(transform.getPosition());
+
+        // Every living NPC in the world, checked in one batch
+        List<ManagedNPC> npcs = new ArrayList<>();
+        List<Vector3i> cells = new ArrayList<>();
+        List<CreatureSize> sizes = new ArrayList<>();
+        for (ManagedNPC npc : GMManager.get().getNpcsInWorld(world.getWorldConfig().getUuid())) {
+            if (npc.isDead() || !npc.isEntityValid()) continue;
+            TransformComponent npcTransform = store.getComponent(npc.getEntityRef(), TransformComponent.getComponentType());
+            if (npcTransform == null) continue;
+
+            npcs.add(npc);
+            cells.add(npc.getSize().getCorner(npcTransform.getPosition()));
+            sizes.add(npc.getSize());
+        }
+
+        if (npcs.isEmpty()) {
+            playerRef.sendMessage(Message.raw("[D&D] No NPCs nearby."));
+            return;
+        }
+
+        Cover[] covers = LineOfSight.get().getCovers(world, eye, CreatureSize.MEDIUM, cells, sizes);
+        StringBuilder sb = new StringBuilder("[D&D] Line of sight:");
+        int visible = 0;
+        for (int i = 0; i < covers.length; i++) {
+            if (!covers[i].isTargetable()) continue;
+            sb.append(String.format("\n  %s: %s", npcs.get(i).getName(), covers[i].getDescription()));
+            if (covers[i].getAcBonus() > 0) {
+                sb.append(String.format(" (+%d AC)", covers[i].getAcBonus()));
+            }
+            visible++;
+        }
+        sb.append(String.format("\n  %d of %d NPCs visible", visible, covers.length));
+        playerRef.sendMessage(Message.raw(sb.toString()));
+    }
 }
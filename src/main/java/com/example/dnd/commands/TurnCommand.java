@@ -1,6 +1,8 @@
 package com.example.dnd.commands;
 
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.combat.CombatState;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
 import com.example.dnd.movement.GridMovementManager;
 import com.example.dnd.targeting.TargetManager;
@@ -8,6 +10,7 @@ import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg;
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
@@ -17,21 +20,29 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Command to control turn-based combat.
- * Usage: /dnd turn <start|next|end|status>
+ * Usage: /dnd turn <start|next|delay|ready|end|status> [name]
+ *
+ * Delay ends your turn and moves you to act right after the named
+ * combatant (the next one if no name is given). Ready moves you to act
+ * right before them instead.
  */
 public class TurnCommand extends AbstractPlayerCommand {
     private final TurnManager turnManager;
     private final RequiredArg<String> actionArg;
+    private final DefaultArg<String> nameArg;
 
     public TurnCommand(TurnManager turnManager) {
         super("turn", "server.commands.dnd.turn.desc");
         this.turnManager = turnManager;
 
-        actionArg = withRequiredArg("action", "Action: start, next, end, or status", ArgTypes.STRING);
+        actionArg = withRequiredArg("action", "Action: start, next, delay, ready, end, or status", ArgTypes.STRING);
+        nameArg = withDefaultArg("name", "Combatant to delay after or ready before", ArgTypes.STRING, "", "");
     }
 
     @Override
@@ -43,18 +54,21 @@ public class TurnCommand extends AbstractPlayerCommand {
         @Nonnull World world
     ) {
         String action = context.get(actionArg);
-        CombatState combatState = turnManager.getCombatState(world);
+        Encounter encounter = turnManager.getEncounter(world, playerRef.getUuid());
 
         switch (action.toLowerCase()) {
-            case "start" -> handleStart(playerRef, world, combatState);
-            case "next" -> handleNext(playerRef, world, combatState);
-            case "end" -> handleEnd(world, combatState);
-            case "status" -> handleStatus(playerRef, combatState);
-            default -> playerRef.sendMessage(Message.raw("[D&D] Unknown action: " + action + ". Use: start, next, end, or status"));
+            case "start" -> handleStart(playerRef, world, encounter);
+            case "next" -> handleNext(playerRef, world, encounter);
+            case "delay" -> handleReslot(playerRef, world, encounter, context.get(nameArg), true);
+            case "ready" -> handleReslot(playerRef, world, encounter, context.get(nameArg), false);
+            case "end" -> handleEnd(world, encounter);
+            case "status" -> handleStatus(playerRef, encounter.getCombatState());
+            default -> playerRef.sendMessage(Message.raw("[D&D] Unknown action: " + action + ". Use: start, next, delay, ready, end, or status"));
         }
     }
 
-    private void handleStart(PlayerRef playerRef, World world, CombatState combatState) {
+    private void handleStart(PlayerRef playerRef, World world, Encounter encounter) {
+        CombatState combatState = encounter.getCombatState();
         if (combatState.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] Combat is already active!"));
             return;
@@ -66,18 +80,20 @@ public class TurnCommand extends AbstractPlayerCommand {
         }
 
         combatState.startCombat();
+        GridMovementManager.get().beginEncounter(world, encounter.getParticipants());
         String message = String.format("[D&D] Combat started! First turn: %s",
             combatState.getCurrentPlayerName());
-        broadcastMessage(world, message);
+        broadcastMessage(encounter, message);
 
         // Show combat HUDs for all combatants
-        turnManager.showCombatHuds(world);
+        turnManager.showCombatHuds(encounter);
 
         // Start movement phase for the first player
         startMovementPhaseForCurrentPlayer(world, combatState);
     }
 
-    private void handleNext(PlayerRef playerRef, World world, CombatState combatState) {
+    private void handleNext(PlayerRef playerRef, World world, Encounter encounter) {
+        CombatState combatState = encounter.getCombatState();
         if (!combatState.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] No active combat! Use /dnd turn start first."));
             return;
@@ -93,30 +109,101 @@ public class TurnCommand extends AbstractPlayerCommand {
         // End movement phase for current player
         endMovementPhaseForCurrentPlayer(world, combatState);
 
-        combatState.nextTurn();
+        if (!combatState.endTurn(playerRef.getUuid())) {
+            return;  // Someone else ended this turn first
+        }
         String message = String.format("[D&D] Next turn: %s", combatState.getCurrentPlayerName());
-        broadcastMessage(world, message);
+        broadcastMessage(encounter, message);
 
         // Start movement phase for new current player
         startMovementPhaseForCurrentPlayer(world, combatState);
 
-        // Refresh all combat HUDs to show new turn
-        turnManager.refreshAllHuds(world);
+        // Refresh the encounter's combat HUDs to show new turn
+        turnManager.refreshHuds(encounter);
+    }
+
+    private void handleReslot(PlayerRef playerRef, World world, Encounter encounter, String name, boolean delay) {
+        CombatState combatState = encounter.getCombatState();
+        if (!combatState.isCombatActive()) {
+            playerRef.sendMessage(Message.raw("[D&D] No active combat! Use /dnd turn start first."));
+            return;
+        }
+        if (!combatState.isPlayerTurn(playerRef.getUuid())) {
+            playerRef.sendMessage(Message.raw("[D&D] You can only delay or ready on your turn."));
+            return;
+        }
+
+        // Acting right before the next combatant is acting now, so ready
+        // needs someone further down the order; delay defaults to the next
+        List<UUID> order = combatState.getInitiativeOrder();
+        UUID nextId = order.get((order.indexOf(playerRef.getUuid()) + 1) % order.size());
+        if (name.isEmpty() && !delay) {
+            playerRef.sendMessage(Message.raw("[D&D] Usage: /dnd turn ready <name>"));
+            return;
+        }
+        UUID anchorId = name.isEmpty() ? nextId : findCombatantByName(combatState, name);
+        if (anchorId == null || anchorId.equals(playerRef.getUuid())) {
+            playerRef.sendMessage(Message.raw("[D&D] No other combatant named '" + name + "' in initiative."));
+            return;
+        }
+        if (!delay && anchorId.equals(nextId)) {
+            playerRef.sendMessage(Message.raw("[D&D] You already act right before "
+                + combatState.getPlayerNames().getOrDefault(anchorId, "them") + "."));
+            return;
+        }
+
+        endMovementPhaseForCurrentPlayer(world, combatState);
+
+        boolean moved = delay
+            ? combatState.delayTurn(playerRef.getUuid(), anchorId)
+            : combatState.readyTurn(playerRef.getUuid(), anchorId);
+        if (!moved) {
+            return;
+        }
+
+        String anchorName = combatState.getPlayerNames().getOrDefault(anchorId, "Unknown");
+        String message = String.format("[D&D] %s %s %s. Next turn: %s",
+            playerRef.getUsername(), delay ? "delays until after" : "readies to act before",
+            anchorName, combatState.getCurrentPlayerName());
+        broadcastMessage(encounter, message);
+
+        startMovementPhaseForCurrentPlayer(world, combatState);
+        turnManager.refreshHuds(encounter);
+    }
+
+    /**
+     * Find a combatant in initiative by name (exact match first, then partial).
+     */
+    private UUID findCombatantByName(CombatState combatState, String name) {
+        UUID partial = null;
+        for (Map.Entry<UUID, String> entry : combatState.getPlayerNames().entrySet()) {
+            if (entry.getValue().equalsIgnoreCase(name)) {
+                return entry.getKey();
+            }
+            if (partial == null && entry.getValue().toLowerCase().contains(name.toLowerCase())) {
+                partial = entry.getKey();
+            }
+        }
+        return partial;
     }
 
-    private void handleEnd(World world, CombatState combatState) {
+    private void handleEnd(World world, Encounter encounter) {
+        CombatState combatState = encounter.getCombatState();
         if (!combatState.isCombatActive()) {
             return;
         }
 
         // Hide all combat HUDs before ending combat
-        turnManager.hideCombatHuds(world);
+        turnManager.hideCombatHuds(encounter);
 
-        // Clear all target selections
-        TargetManager.get().clearAllTargets(world);
+        // Clear the combatants' target selections
+        for (UUID combatantId : encounter.getParticipants()) {
+            TargetManager.get().clearTarget(combatantId, world);
+        }
 
         combatState.endCombat();
-        broadcastMessage(world, "[D&D] Combat ended!");
+        GridMovementManager.get().endEncounter(world, encounter.getParticipants());
+        broadcastMessage(encounter, "[D&D] Combat ended!");
     }
 
     private void handleStatus(PlayerRef playerRef, CombatState combatState) {
@@ -131,11 +218,8 @@ public class TurnCommand extends AbstractPlayerCommand {
         playerRef.sendMessage(Message.raw(status));
     }
 
-    @SuppressWarnings("deprecation")
-    private void broadcastMessage(World world, String message) {
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
+    private void broadcastMessage(Encounter encounter, String message) {
+        PlayerRegistry.get().sendToEncounter(encounter, Message.raw(message));
     }
 
     /**
@@ -145,7 +229,7 @@ public class TurnCommand extends AbstractPlayerCommand {
         UUID currentPlayerId = combatState.getCurrentPlayer();
         if (currentPlayerId == null) return;
 
-        Player currentPlayer = findPlayerByUuid(world, currentPlayerId);
+        Player currentPlayer = PlayerRegistry.get().getPlayer(world, currentPlayerId);
         if (currentPlayer != null) {
             GridMovementManager.get().startMovementPhase(currentPlayer, world);
         }
@@ -158,21 +242,9 @@ public class TurnCommand extends AbstractPlayerCommand {
         UUID currentPlayerId = combatState.getCurrentPlayer();
         if (currentPlayerId == null) return;
 
-        Player currentPlayer = findPlayerByUuid(world, currentPlayerId);
+        Player currentPlayer = PlayerRegistry.get().getPlayer(world, currentPlayerId);
         if (currentPlayer != null) {
             GridMovementManager.get().endMovementPhase(currentPlayer);
         }
     }
-
-    /**
-     * Find a player in the world by UUID.
-     */
-    private Player findPlayerByUuid(World world, UUID playerId) {
-        for (Player player : world.getPlayers()) {
-            if (player.getPlayerRef().getUuid().equals(playerId)) {
-                return player;
-            }
-        }
-        return null;
-    }
 }
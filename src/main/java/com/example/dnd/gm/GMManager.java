@@ -1,7 +1,12 @@
 package com.example.dnd.gm;
 
-import com.example.dnd.combat.CombatState;
+import com.example.dnd.PlayerRegistry;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
+import com.example.dnd.movement.Combatant;
+import com.example.dnd.movement.CreatureSize;
+import com.example.dnd.movement.Faction;
+import com.example.dnd.movement.GridMovementManager;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.logger.HytaleLogger;
@@ -94,6 +99,7 @@ public class GMManager {
     public boolean toggleGmMode(@Nonnull UUID playerId, @Nonnull String playerName) {
         GMSession session = getOrCreateSession(playerId, playerName);
         boolean newState = session.toggleGmMode();
+        PlayerRegistry.get().setGm(playerId, newState);
         LOGGER.atInfo().log("[GM] %s toggled GM mode: %s", playerName, newState ? "ON" : "OFF");
         return newState;
     }
@@ -109,6 +115,7 @@ public class GMManager {
      * @param name Display name for the NPC
      * @param maxHp Maximum HP
      * @param armorClass Armor class
+     * @param size Size category, which sets the NPC's footprint on the grid
      * @param worldId World UUID for tracking
      * @return The created ManagedNPC, or null if spawn failed
      */
@@ -120,6 +127,7 @@ public class GMManager {
         @Nonnull String name,
         int maxHp,
         int armorClass,
+        @Nonnull CreatureSize size,
         @Nonnull UUID worldId
     ) {
         NPCPlugin npcPlugin = NPCPlugin.get();
@@ -152,10 +160,12 @@ public class GMManager {
         ManagedNPC managedNpc = new ManagedNPC(
             npcId, name, roleKey, entityRef, networkId, maxHp, armorClass
         );
+        managedNpc.setSize(size);
 
         // Register the NPC
         managedNpcs.put(npcId, managedNpc);
         worldNpcs.computeIfAbsent(worldId, k -> ConcurrentHashMap.newKeySet()).add(npcId);
+        GridMovementManager.get().placeCombatant(worldId, npcId, size.getCorner(position), Faction.HOSTILE, size);
 
         LOGGER.atInfo().log("[GM] Spawned managed NPC: %s (ID: %s)", name, npcId);
         return managedNpc;
@@ -212,6 +222,7 @@ public class GMManager {
             for (Set<UUID> worldSet : worldNpcs.values()) {
                 worldSet.remove(npcId);
             }
+            GridMovementManager.get().removeCombatant(npcId);
             LOGGER.atInfo().log("[GM] Removed managed NPC: %s", npc.getName());
         }
     }
@@ -227,6 +238,9 @@ public class GMManager {
         if (npc == null) return 0;
 
         int damage = npc.takeDamage(amount);
+        if (npc.isDead()) {
+            GridMovementManager.get().removeCombatant(npcId);  // The body no longer blocks anyone
+        }
 
         // Track GM stats
         if (gmId != null) {
@@ -265,17 +279,21 @@ public class GMManager {
     // ==================== Initiative Integration ====================
 
     /**
-     * Add an NPC to the initiative order.
+     * Add an NPC to the initiative order of the encounter whose region it
+     * stands in.
      */
     public boolean addNpcToInitiative(@Nonnull UUID npcId, int initiativeRoll, @Nonnull World world) {
         ManagedNPC npc = managedNpcs.get(npcId);
         if (npc == null || turnManager == null) return false;
 
-        CombatState combatState = turnManager.getCombatState(world);
-        combatState.addToInitiative(npcId, npc.getName(), initiativeRoll);
+        Combatant combatant = GridMovementManager.get().getCombatant(world, npcId);
+        Encounter encounter = turnManager.getEncounterToJoin(world, npcId,
+            combatant != null ? combatant.getCorner() : null);
+        turnManager.addToInitiative(encounter, npcId, npc.getName(), initiativeRoll, 0);
         npc.setInInitiative(true);
 
-        LOGGER.atInfo().log("[GM] Added NPC %s to initiative with roll %d", npc.getName(), initiativeRoll);
+        LOGGER.atInfo().log("[GM] Added NPC %s to initiative of %s with roll %d",
+            npc.getName(), encounter.getName(), initiativeRoll);
         return true;
     }
 
@@ -286,8 +304,7 @@ public class GMManager {
         ManagedNPC npc = managedNpcs.get(npcId);
         if (npc == null || turnManager == null) return false;
 
-        CombatState combatState = turnManager.getCombatState(world);
-        combatState.removeFromInitiative(npcId);
+        turnManager.removeFromInitiative(npcId);
         npc.setInInitiative(false);
 
         LOGGER.atInfo().log("[GM] Removed NPC %s from initiative", npc.getName());
@@ -399,13 +416,9 @@ public class GMManager {
     /**
      * Broadcast a message to all players in GM mode in a world.
      */
-    @SuppressWarnings("deprecation")
     public void broadcastToGMs(@Nonnull World world, @Nonnull String message) {
-        for (Player player : world.getPlayers()) {
-            UUID playerId = player.getPlayerRef().getUuid();
-            if (isGmMode(playerId)) {
-                player.getPlayerRef().sendMessage(Message.raw(message));
-            }
+        for (Player player : PlayerRegistry.get().getGms(world)) {
+            player.getPlayerRef().sendMessage(Message.raw(message));
         }
     }
 
@@ -1,5 +1,6 @@
 package com.example.dnd.gm;
 
+import com.example.dnd.movement.CreatureSize;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
@@ -22,6 +23,7 @@ public class ManagedNPC {
     private int maxHp;
     private int currentHp;
     private int armorClass;
+    private CreatureSize size = CreatureSize.MEDIUM;  // Selects the movement footprint
 
     // State flags
     private boolean isDead = false;
@@ -130,6 +132,10 @@ public class ManagedNPC {
     public int getArmorClass() { return armorClass; }
     public void setArmorClass(int armorClass) { this.armorClass = armorClass; }
 
+    @Nonnull
+    public CreatureSize getSize() { return size; }
+    public void setSize(@Nonnull CreatureSize size) { this.size = size; }
+
     public boolean isDead() { return isDead; }
 
     public boolean isInInitiative() { return inInitiative; }
@@ -0,0 +1,145 @@
+package com.example.dnd.gm.commands;
+
+import com.example.dnd.DndPlugin;
+import com.example.dnd.PlayerRegistry;
+import com.example.dnd.character.CharacterSheet;
+import com.example.dnd.gm.GMManager;
+import com.example.dnd.gm.ManagedNPC;
+import com.example.dnd.targeting.AreaOfEffect;
+import com.example.dnd.targeting.AreaShape;
+import com.example.dnd.targeting.AreaTemplate;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * Deal damage to every combatant in an area of effect at once.
+ * Usage: /gm area <shape> <feet> <damage>
+ *
+ * Shape can be sphere, cylinder (radius around the GM), cube, cone or line
+ * (starting at the GM, pointing where they face). Feet is the radius, side
+ * or length from the spell; cylinders are as tall as their radius. Creatures
+ * behind a wall from the origin are not hit.
+ */
+public class GMAreaCommand extends AbstractPlayerCommand {
+    private static final int FEET_PER_BLOCK = 5;
+    private static final int MAX_FEET = 120;
+    private static final int AIM_PRECISION = 16;  // Direction is rounded to 1/16 of a block
+
+    private final DndPlugin plugin;
+    private final RequiredArg<String> shapeArg;
+    private final RequiredArg<Integer> feetArg;
+    private final RequiredArg<Integer> damageArg;
+
+    public GMAreaCommand(DndPlugin plugin) {
+        super("area", "server.commands.gm.area.desc");
+        this.plugin = plugin;
+
+        shapeArg = withRequiredArg("shape", "sphere, cube, cone, line or cylinder", ArgTypes.STRING);
+        feetArg = withRequiredArg("feet", "Radius, side or length in feet", ArgTypes.INTEGER);
+        damageArg = withRequiredArg("damage", "Damage to each creature", ArgTypes.INTEGER);
+    }
+
+    @Override
+    protected void execute(
+        @Nonnull CommandContext context,
+        @Nonnull Store<EntityStore> store,
+        @Nonnull Ref<EntityStore> ref,
+        @Nonnull PlayerRef playerRef,
+        @Nonnull World world
+    ) {
+        GMManager gmManager = GMManager.get();
+
+        // Check GM mode
+        if (!gmManager.isGmMode(playerRef.getUuid())) {
+            playerRef.sendMessage(Message.raw("[GM] Must be in GM mode. Use /gm toggle first."));
+            return;
+        }
+
+        AreaShape shape = AreaShape.fromName(context.get(shapeArg));
+        int feet = context.get(feetArg);
+        int damage = context.get(damageArg);
+
+        if (shape == null) {
+            playerRef.sendMessage(Message.raw("[GM] Unknown shape. Use sphere, cube, cone, line or cylinder."));
+            return;
+        }
+        if (feet < FEET_PER_BLOCK || feet > MAX_FEET) {
+            playerRef.sendMessage(Message.raw("[GM] Size must be between " + FEET_PER_BLOCK + " and " + MAX_FEET + " feet."));
+            return;
+        }
+        if (damage <= 0) {
+            playerRef.sendMessage(Message.raw("[GM] Damage amount must be positive."));
+            return;
+        }
+
+        TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
+        if (transform == null) {
+            playerRef.sendMessage(Message.raw("[GM] Cannot determine your position."));
+            return;
+        }
+        Vector3d position = transform.getPosition();
+        Vector3i origin = new Vector3i(
+            (int) Math.floor(position.getX()),
+            (int) Math.floor(position.getY()),
+            (int) Math.floor(position.getZ())
+        );
+
+        // Aim along the GM's facing, flat on the grid
+        float yaw = transform.getRotation().getY();
+        Vector3i direction = new Vector3i(
+            (int) Math.round(-Math.sin(yaw) * AIM_PRECISION),
+            0,
+            (int) Math.round(Math.cos(yaw) * AIM_PRECISION)
+        );
+
+        AreaTemplate template = new AreaTemplate(shape, origin, direction, feet / FEET_PER_BLOCK);
+        AreaOfEffect.AreaHits hits = AreaOfEffect.get().findTargets(world, template, true);
+
+        String area = String.format("%d-foot %s", feet, shape.name().toLowerCase());
+        if (hits.isEmpty()) {
+            playerRef.sendMessage(Message.raw("[GM] The " + area + " hits nobody."));
+            return;
+        }
+
+        int defeated = 0;
+        for (ManagedNPC npc : hits.npcs()) {
+            gmManager.damageNpc(npc.getId(), damage, playerRef.getUuid());
+            if (npc.isDead()) {
+                defeated++;
+            }
+        }
+
+        for (UUID playerId : hits.players()) {
+            CharacterSheet sheet = plugin.getOrCreateCharacterSheet(playerId);
+            boolean down = sheet.takeDamage(damage);
+            Player player = PlayerRegistry.get().getPlayer(world, playerId);
+            if (player != null) {
+                player.getPlayerRef().sendMessage(Message.raw(String.format(
+                    "[D&D] You take %d damage from a %s! (HP: %d/%d)%s",
+                    damage, area, sheet.getCurrentHp(), sheet.getMaxHp(), down ? " You fall unconscious!" : "")));
+            }
+        }
+
+        String message = String.format("[GM] %s's %s deals %d damage to %d NPCs and %d players",
+            playerRef.getUsername(), area, damage, hits.npcs().size(), hits.players().size());
+        gmManager.broadcastToGMs(world, message);
+        if (defeated > 0) {
+            gmManager.broadcastToGMs(world, String.format("[GM] %d NPCs have been defeated!", defeated));
+        }
+    }
+}
@@ -19,6 +19,9 @@ public class GMCommands extends AbstractCommandCollection {
         addSubCommand(new GMSelectCommand());
         addSubCommand(new GMDamageCommand());
         addSubCommand(new GMHealCommand());
+        addSubCommand(new GMMoveCommand());
+        addSubCommand(new GMTerrainCommand());
+        addSubCommand(new GMAreaCommand(plugin));
         addSubCommand(new GMInitiativeCommand());
         addSubCommand(new GMPossessCommand());
         addSubCommand(new GMUnpossessCommand());
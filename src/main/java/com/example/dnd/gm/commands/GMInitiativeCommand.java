@@ -1,6 +1,8 @@
 package com.example.dnd.gm.commands;
 
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.character.DiceRoller;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.gm.GMManager;
 import com.example.dnd.gm.GMSession;
 import com.example.dnd.gm.ManagedNPC;
@@ -12,7 +14,6 @@ import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
-import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
@@ -97,7 +98,7 @@ public class GMInitiativeCommand extends AbstractPlayerCommand {
             } else {
                 message = String.format("[GM] %s joins initiative with roll %d", npc.getName(), roll);
             }
-            broadcastMessage(world, message);
+            broadcastMessage(gmManager.getTurnManager().getEncounterOf(npc.getId()), message);
         } else {
             playerRef.sendMessage(Message.raw("[GM] Failed to add NPC to initiative."));
         }
@@ -120,9 +121,10 @@ public class GMInitiativeCommand extends AbstractPlayerCommand {
             return;
         }
 
+        Encounter encounter = gmManager.getTurnManager().getEncounterOf(npc.getId());
         boolean success = gmManager.removeNpcFromInitiative(npc.getId(), world);
         if (success) {
-            broadcastMessage(world, String.format("[GM] %s removed from initiative.", npc.getName()));
+            broadcastMessage(encounter, String.format("[GM] %s removed from initiative.", npc.getName()));
         } else {
             playerRef.sendMessage(Message.raw("[GM] Failed to remove NPC from initiative."));
         }
@@ -146,10 +148,7 @@ public class GMInitiativeCommand extends AbstractPlayerCommand {
         return gmManager.getNpcByName(target);
     }
 
-    @SuppressWarnings("deprecation")
-    private void broadcastMessage(World world, String message) {
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
+    private void broadcastMessage(Encounter encounter, String message) {
+        PlayerRegistry.get().sendToEncounter(encounter, Message.raw(message));
     }
 }
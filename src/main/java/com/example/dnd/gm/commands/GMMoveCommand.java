@@ -0,0 +1,142 @@
+package com.example.dnd.gm.commands;
+
+import com.example.dnd.gm.GMManager;
+import com.example.dnd.gm.ManagedNPC;
+import com.example.dnd.movement.CreatureSize;
+import com.example.dnd.movement.Faction;
+import com.example.dnd.movement.GridMovementManager;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Move a group of managed NPCs toward the GM, all planned in one pass.
+ * Usage: /gm move <group> [distance]
+ *
+ * Group can be:
+ * - NPC name (partial match, e.g. "goblin" moves every goblin)
+ * - "all" for every living NPC in the world
+ *
+ * NPCs of each size are planned together, with their footprint. They pass
+ * through each other but not through players.
+ */
+public class GMMoveCommand extends AbstractPlayerCommand {
+    private final RequiredArg<String> groupArg;
+    private final DefaultArg<Integer> distanceArg;
+
+    public GMMoveCommand() {
+        super("move", "server.commands.gm.move.desc");
+
+        groupArg = withRequiredArg("group", "NPC name or 'all'", ArgTypes.STRING);
+        distanceArg = withDefaultArg("distance", "Movement per NPC in blocks", ArgTypes.INTEGER, 6, "6");
+    }
+
+    @Override
+    protected void execute(
+        @Nonnull CommandContext context,
+        @Nonnull Store<EntityStore> store,
+        @Nonnull Ref<EntityStore> ref,
+        @Nonnull PlayerRef playerRef,
+        @Nonnull World world
+    ) {
+        GMManager gmManager = GMManager.get();
+
+        // Check GM mode
+        if (!gmManager.isGmMode(playerRef.getUuid())) {
+            playerRef.sendMessage(Message.raw("[GM] Must be in GM mode. Use /gm toggle first."));
+            return;
+        }
+
+        String group = context.get(groupArg).toLowerCase();
+        int distance = context.get(distanceArg);
+
+        if (distance <= 0) {
+            playerRef.sendMessage(Message.raw("[GM] Distance must be positive."));
+            return;
+        }
+
+        // The group heads for the GM
+        TransformComponent gmTransform = store.getComponent(ref, TransformComponent.getComponentType());
+        if (gmTransform == null) {
+            playerRef.sendMessage(Message.raw("[GM] Cannot determine your position."));
+            return;
+        }
+        Vector3i goal = toCell(gmTransform.getPosition());
+
+        // Collect the group by size, with the corner cell each member stands on
+        Map<CreatureSize, List<UUID>> ids = new EnumMap<>(CreatureSize.class);
+        Map<CreatureSize, List<Ref<EntityStore>>> refs = new EnumMap<>(CreatureSize.class);
+        Map<CreatureSize, List<Vector3i>> starts = new EnumMap<>(CreatureSize.class);
+        int total = 0;
+        for (ManagedNPC npc : gmManager.getNpcsInWorld(world.getWorldConfig().getUuid())) {
+            if (npc.isDead() || !npc.isEntityValid()) continue;
+            if (!group.equals("all") && !npc.getName().toLowerCase().contains(group)) continue;
+
+            TransformComponent transform = store.getComponent(npc.getEntityRef(), TransformComponent.getComponentType());
+            if (transform == null) continue;
+
+            CreatureSize size = npc.getSize();
+            ids.computeIfAbsent(size, k -> new ArrayList<>()).add(npc.getId());
+            refs.computeIfAbsent(size, k -> new ArrayList<>()).add(npc.getEntityRef());
+            starts.computeIfAbsent(size, k -> new ArrayList<>()).add(size.getCorner(transform.getPosition()));
+            total++;
+        }
+
+        if (total == 0) {
+            playerRef.sendMessage(Message.raw("[GM] No living NPCs match '" + group + "'."));
+            return;
+        }
+
+        // One distance field per size, then every NPC walks its path at once
+        GridMovementManager movement = GridMovementManager.get();
+        UUID worldId = world.getWorldConfig().getUuid();
+        int moved = 0;
+        for (Map.Entry<CreatureSize, List<Vector3i>> entry : starts.entrySet()) {
+            CreatureSize size = entry.getKey();
+            List<UUID> sizeIds = ids.get(size);
+            List<List<Vector3i>> paths = movement.planGroupMove(world, sizeIds, entry.getValue(), goal, distance,
+                size, Faction.HOSTILE);
+
+            List<Ref<EntityStore>> sizeRefs = refs.get(size);
+            for (int i = 0; i < paths.size(); i++) {
+                List<Vector3i> path = paths.get(i);
+                Vector3i end = path.get(path.size() - 1);
+                movement.placeCombatant(worldId, sizeIds.get(i), end, Faction.HOSTILE, size);
+                if (path.size() < 2) continue;
+
+                movement.getAnimator().walk(world, sizeIds.get(i), sizeRefs.get(i), path, size, null);
+                moved++;
+            }
+        }
+
+        String message = String.format("[GM] Moved %d of %d NPCs toward %s",
+            moved, total, playerRef.getUsername());
+        gmManager.broadcastToGMs(world, message);
+    }
+
+    private static Vector3i toCell(Vector3d position) {
+        return new Vector3i(
+            (int) Math.floor(position.getX()),
+            (int) Math.floor(position.getY()),
+            (int) Math.floor(position.getZ())
+        );
+    }
+}
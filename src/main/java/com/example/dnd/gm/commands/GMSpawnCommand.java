@@ -3,6 +3,7 @@ package com.example.dnd.gm.commands;
 import com.example.dnd.gm.GMManager;
 import com.example.dnd.gm.GMSession;
 import com.example.dnd.gm.ManagedNPC;
+import com.example.dnd.movement.CreatureSize;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Vector3d;
@@ -21,13 +22,17 @@ import javax.annotation.Nonnull;
 
 /**
  * Spawn a managed NPC with TTRPG stats.
- * Usage: /gm spawn <role> [name] [hp] [ac]
+ * Usage: /gm spawn <role> [name] [hp] [ac] [size]
+ *
+ * Size is a 5e size category (tiny, small, medium, large, huge,
+ * gargantuan) and sets the footprint the NPC needs to move.
  */
 public class GMSpawnCommand extends AbstractPlayerCommand {
     private final RequiredArg<String> roleArg;
     private final DefaultArg<String> nameArg;
     private final DefaultArg<Integer> hpArg;
     private final DefaultArg<Integer> acArg;
+    private final DefaultArg<String> sizeArg;
 
     public GMSpawnCommand() {
         super("spawn", "server.commands.gm.spawn.desc");
@@ -36,6 +41,7 @@ public class GMSpawnCommand extends AbstractPlayerCommand {
         nameArg = withDefaultArg("name", "Display name", ArgTypes.STRING, "", "");
         hpArg = withDefaultArg("hp", "Maximum HP", ArgTypes.INTEGER, 20, "20");
         acArg = withDefaultArg("ac", "Armor Class", ArgTypes.INTEGER, 12, "12");
+        sizeArg = withDefaultArg("size", "Size category (e.g., 'medium', 'large')", ArgTypes.STRING, "medium", "medium");
     }
 
     @Override
@@ -58,6 +64,12 @@ public class GMSpawnCommand extends AbstractPlayerCommand {
         String name = context.get(nameArg);
         int hp = context.get(hpArg);
         int ac = context.get(acArg);
+        CreatureSize size = CreatureSize.fromName(context.get(sizeArg));
+
+        if (size == null) {
+            playerRef.sendMessage(Message.raw("[GM] Unknown size. Use tiny, small, medium, large, huge or gargantuan."));
+            return;
+        }
 
         // Default name to role if not specified
         if (name.isEmpty()) {
@@ -84,7 +96,7 @@ public class GMSpawnCommand extends AbstractPlayerCommand {
 
         // Spawn the NPC
         ManagedNPC npc = gmManager.spawnNpc(
-            store, role, spawnPos, name, hp, ac,
+            store, role, spawnPos, name, hp, ac, size,
             world.getWorldConfig().getUuid()
         );
 
@@ -102,8 +114,8 @@ public class GMSpawnCommand extends AbstractPlayerCommand {
         }
 
         playerRef.sendMessage(Message.raw(String.format(
-            "[GM] Spawned: %s (HP: %d/%d, AC: %d)",
-            npc.getName(), npc.getCurrentHp(), npc.getMaxHp(), npc.getArmorClass()
+            "[GM] Spawned: %s (HP: %d/%d, AC: %d, %s)",
+            npc.getName(), npc.getCurrentHp(), npc.getMaxHp(), npc.getArmorClass(), size.name().toLowerCase()
         )));
         playerRef.sendMessage(Message.raw(String.format("[GM] NPC ID: %s", npc.getId())));
     }
@@ -0,0 +1,96 @@
+package com.example.dnd.gm.commands;
+
+import com.example.dnd.gm.GMManager;
+import com.example.dnd.movement.GridMovementManager;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.DefaultArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Paint a movement cost zone (hazard, spell area) around the GM.
+ * Usage: /gm terrain <multiplier> [radius]
+ *
+ * Multiplier can be:
+ * - 1 to clear the zone back to normal terrain
+ * - 2 for difficult terrain (each block costs double)
+ * - 3 or 4 for especially hazardous ground
+ */
+public class GMTerrainCommand extends AbstractPlayerCommand {
+    private static final int MAX_MULTIPLIER = 4;
+    private static final int MAX_RADIUS = 32;
+    private static final int HEIGHT = 2;  // Blocks painted above and below the GM
+
+    private final RequiredArg<Integer> multiplierArg;
+    private final DefaultArg<Integer> radiusArg;
+
+    public GMTerrainCommand() {
+        super("terrain", "server.commands.gm.terrain.desc");
+
+        multiplierArg = withRequiredArg("multiplier", "Movement cost multiplier (1 clears)", ArgTypes.INTEGER);
+        radiusArg = withDefaultArg("radius", "Zone radius in blocks", ArgTypes.INTEGER, 2, "2");
+    }
+
+    @Override
+    protected void execute(
+        @Nonnull CommandContext context,
+        @Nonnull Store<EntityStore> store,
+        @Nonnull Ref<EntityStore> ref,
+        @Nonnull PlayerRef playerRef,
+        @Nonnull World world
+    ) {
+        GMManager gmManager = GMManager.get();
+
+        // Check GM mode
+        if (!gmManager.isGmMode(playerRef.getUuid())) {
+            playerRef.sendMessage(Message.raw("[GM] Must be in GM mode. Use /gm toggle first."));
+            return;
+        }
+
+        int multiplier = context.get(multiplierArg);
+        int radius = context.get(radiusArg);
+
+        if (multiplier < 1 || multiplier > MAX_MULTIPLIER) {
+            playerRef.sendMessage(Message.raw("[GM] Multiplier must be between 1 and " + MAX_MULTIPLIER + "."));
+            return;
+        }
+        if (radius < 0 || radius > MAX_RADIUS) {
+            playerRef.sendMessage(Message.raw("[GM] Radius must be between 0 and " + MAX_RADIUS + "."));
+            return;
+        }
+
+        TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
+        if (transform == null) {
+            playerRef.sendMessage(Message.raw("[GM] Cannot determine your position."));
+            return;
+        }
+        Vector3d position = transform.getPosition();
+        int x = (int) Math.floor(position.getX());
+        int y = (int) Math.floor(position.getY());
+        int z = (int) Math.floor(position.getZ());
+
+        int changed = GridMovementManager.get().paintMoveCost(world,
+            new Vector3i(x - radius, y - HEIGHT, z - radius),
+            new Vector3i(x + radius, y + HEIGHT, z + radius),
+            multiplier);
+
+        String message = multiplier == 1
+            ? String.format("[GM] %s cleared movement costs around them (%d blocks changed)",
+                playerRef.getUsername(), changed)
+            : String.format("[GM] %s made the ground around them cost x%d movement (%d blocks changed)",
+                playerRef.getUsername(), multiplier, changed);
+        gmManager.broadcastToGMs(world, message);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.dnd.gm.ui;
 
 import com.example.dnd.DndPlugin;
+import com.example.dnd.combat.CombatSnapshot;
 import com.example.dnd.combat.CombatState;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
 import com.example.dnd.gm.GMManager;
 import com.example.dnd.gm.GMSession;
@@ -53,7 +55,7 @@ public class GMControlPage extends InteractiveCustomUIPage<GMControlPage.GMEvent
         GMManager gmManager = GMManager.get();
         GMSession session = gmManager.getSession(playerRef.getUuid());
         TurnManager turnManager = plugin.getTurnManager();
-        CombatState combatState = turnManager.getCombatState(world);
+        CombatState combatState = getGmEncounter(turnManager, session).getCombatState();
 
         // GM Status
         boolean gmActive = session != null && session.isGmModeActive();
@@ -151,11 +153,26 @@ public class GMControlPage extends InteractiveCustomUIPage<GMControlPage.GMEvent
         cmd.set("#noNpcsMsg.Visible", npcs.isEmpty());
     }
 
-    private void buildPlayerList(UICommandBuilder cmd, CombatState combatState) {
-        List<UUID> order = combatState.getInitiativeOrder();
-        Map<UUID, String> names = combatState.getPlayerNames();
-        Map<UUID, Integer> rolls = combatState.getInitiativeRolls();
-        UUID currentPlayer = combatState.getCurrentPlayer();
+    /**
+     * Get the encounter the GM is running: the selected NPC's, or else the
+     * GM's own.
+     */
+    private Encounter getGmEncounter(TurnManager turnManager, GMSession session) {
+        if (session != null && session.getSelectedNpcId() != null) {
+            Encounter encounter = turnManager.getEncounterOf(session.getSelectedNpcId());
+            if (encounter != null) {
+                return encounter;
+            }
+        }
+        return turnManager.getEncounter(world, playerRef.getUuid());
+    }
+
+    private void buildPlayerList(UICommandBuilder cmd, CombatState state) {
+        CombatSnapshot combatState = state.getSnapshot();
+        List<UUID> order = combatState.initiativeOrder();
+        Map<UUID, String> names = combatState.playerNames();
+        Map<UUID, Integer> rolls = combatState.initiativeRolls();
+        UUID currentPlayer = combatState.currentPlayer();
 
         int maxSlots = 8;
         for (int i = 0; i < maxSlots; i++) {
@@ -166,7 +183,7 @@ public class GMControlPage extends InteractiveCustomUIPage<GMControlPage.GMEvent
                 String name = names.getOrDefault(id, "Unknown");
                 int roll = rolls.getOrDefault(id, 0);
 
-                boolean isCurrent = combatState.isCombatActive() && id.equals(currentPlayer);
+                boolean isCurrent = combatState.combatActive() && id.equals(currentPlayer);
 
                 cmd.set(slotId + ".Text", String.format("%d. %s (%d)", i + 1, name, roll));
                 cmd.set(slotId + ".Style.TextColor", isCurrent ? "#4caf50" : "#cccccc");
@@ -361,7 +378,7 @@ public class GMControlPage extends InteractiveCustomUIPage<GMControlPage.GMEvent
 
     private void refreshDisplay(UICommandBuilder cmd, GMManager gmManager, GMSession session) {
         TurnManager turnManager = plugin.getTurnManager();
-        CombatState combatState = turnManager.getCombatState(world);
+        CombatState combatState = getGmEncounter(turnManager, session).getCombatState();
 
         // GM Status
         boolean gmActive = session != null && session.isGmModeActive();
@@ -419,10 +436,11 @@ public class GMControlPage extends InteractiveCustomUIPage<GMControlPage.GMEvent
         cmd.set("#noNpcsMsg.Visible", npcs.isEmpty());
 
         // Refresh initiative list
-        List<UUID> order = combatState.getInitiativeOrder();
-        Map<UUID, String> names = combatState.getPlayerNames();
-        Map<UUID, Integer> rolls = combatState.getInitiativeRolls();
-        UUID currentPlayer = combatState.getCurrentPlayer();
+        CombatSnapshot combat = combatState.getSnapshot();
+        List<UUID> order = combat.initiativeOrder();
+        Map<UUID, String> names = combat.playerNames();
+        Map<UUID, Integer> rolls = combat.initiativeRolls();
+        UUID currentPlayer = combat.currentPlayer();
 
         for (int i = 0; i < maxSlots; i++) {
             String slotId = "#initSlot" + i;
@@ -432,7 +450,7 @@ public class GMControlPage extends InteractiveCustomUIPage<GMControlPage.GMEvent
                 String name = names.getOrDefault(id, "Unknown");
                 int roll = rolls.getOrDefault(id, 0);
 
-                boolean isCurrent = combatState.isCombatActive() && id.equals(currentPlayer);
+                boolean isCurrent = combat.combatActive() && id.equals(currentPlayer);
 
                 cmd.set(slotId + ".Text", String.format("%d. %s (%d)", i + 1, name, roll));
                 cmd.set(slotId + ".Style.TextColor", isCurrent ? "#4caf50" : "#cccccc");
@@ -0,0 +1,532 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * Per-encounter copy of the terrain around the combatants, stored as one
+ * solid bit per block (classified by {@link BlockPassability} when copied).
+ *
+ * Feet-clear, head-clear and ground-solid are all derived from these bits,
+ * so a standability check is three bit tests instead of three chunk lookups.
+ * Blocks are copied in 16x16x16 sections: sections around a mover are
+ * prefetched when their movement phase starts, and any other section is
+ * copied the first time a query touches it. Block changes replace the bits of
+ * their section through {@link #onBlockChanged}.
+ *
+ * Each section also keeps a plane of difficult-terrain bits (blocks flagged
+ * {@link BlockPassability#DIFFICULT}), and the snapshot owns the encounter's
+ * {@link CostField} of GM-painted multipliers. Entering a cell costs the
+ * larger of its painted multiplier and x2 when the block at its feet or the
+ * one it stands on is difficult. A third plane marks the solid blocks that
+ * give no footing (hazards such as lava), so nothing is pathed over them.
+ *
+ * For neighbor generation, each section also gets a column index: for every
+ * (x, z) column, the set of Y levels in the section a creature can stand on,
+ * as 16 bits. It is built from the solid bits the first time a section's
+ * columns are asked for and patched when a block changes, so finding the
+ * floors within step height of a cell (stairs, multi-storey buildings) is
+ * one mask lookup instead of three block tests per level.
+ *
+ * Creatures bigger than one block read the snapshot's {@link ClearanceMap},
+ * built per section on first use, so checking an N x N footprint is one
+ * byte read rather than a scan of its columns.
+ *
+ * Not thread-safe; owned by the world thread of its encounter. Searches that
+ * run on other threads read a {@link #freeze() frozen} view instead.
+ */
+public class ArenaSnapshot implements TerrainView {
+    static final int SECTION_SHIFT = 4;
+    static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+    private static final int SECTION_MASK = SECTION_SIZE - 1;
+    private static final int SECTION_LONGS = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE / 64;
+    private static final long[] NO_BITS = new long[SECTION_LONGS];  // Shared by sections with no difficult or hazard blocks
+    private static final int COLUMN_LONGS = SECTION_SIZE * SECTION_SIZE / 4;  // 16 level bits per column
+
+    static final int DIFFICULT_MULTIPLIER = 2;
+
+    private final World world;
+
+    private final SectionTable sections = new SectionTable(32);
+    private final SectionTable difficult = new SectionTable(32);  // Same keys as sections
+    private final SectionTable noFooting = new SectionTable(32);  // Same keys as sections
+    private final SectionTable standable = new SectionTable(32);  // Column index, built on first use
+    private final CostField costs = new CostField();
+    private final ClearanceMap clearance = new ClearanceMap();
+    private int difficultBlocks;  // Difficult blocks across all copied sections
+    private int version;          // Bumped on every block change, for caches keyed on the terrain
+
+    // Most queries hit the same section as the previous one
+    private long lastKey;
+    private long[] lastSection;
+    private long[] lastDifficult;
+    private long lastColumnsKey;
+    private long[] lastColumns;
+
+    public ArenaSnapshot(World world) {
+        this.world = world;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        return testBit(section(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT), x, y, z);
+    }
+
+    @Override
+    public boolean hasFooting(int x, int y, int z) {
+        long[] bits = section(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+        return testBit(bits, x, y, z)
+            && !testBit(noFooting.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT)), x, y, z);
+    }
+
+    @Override
+    public long getStandableLevels(int x, int minY, int z, int height) {
+        long levels = 0;
+        int end = minY + height;
+        for (int y = minY; y < end; ) {
+            int count = Math.min(SECTION_SIZE - (y & SECTION_MASK), end - y);
+            long column = columnLevels(columns(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT), x, z);
+            levels |= ((column >>> (y & SECTION_MASK)) & ((1L << count) - 1)) << (y - minY);
+            y += count;
+        }
+        return levels;
+    }
+
+    @Override
+    public int getClearance(int x, int y, int z) {
+        return clearance.get(this, x, y, z);
+    }
+
+    @Override
+    public int getMoveMultiplier(int x, int y, int z) {
+        int multiplier = costs.get(x, y, z);
+        if (difficultBlocks > 0 && multiplier < DIFFICULT_MULTIPLIER
+                && (isDifficult(x, y, z) || isDifficult(x, y - 1, z))) {
+            multiplier = DIFFICULT_MULTIPLIER;
+        }
+        return multiplier;
+    }
+
+    @Override
+    public boolean hasMoveMultipliers() {
+        return difficultBlocks > 0 || !costs.isEmpty();
+    }
+
+    /**
+     * Set the movement multiplier of every cell in the box spanned by two
+     * corners (a GM hazard zone or spell area; 1 clears it). Only the cost
+     * sections overlapping the box are touched.
+     *
+     * @param multiplier 1 to {@value CostField#MAX_MULTIPLIER}
+     * @return The number of cells whose multiplier changed
+     */
+    public int paintMoveCost(Vector3i a, Vector3i b, int multiplier) {
+        if (multiplier < 1 || multiplier > CostField.MAX_MULTIPLIER) {
+            throw new IllegalArgumentException("Multiplier must be between 1 and " + CostField.MAX_MULTIPLIER);
+        }
+        return costs.paint(Math.min(a.x, b.x), Math.min(a.y, b.y), Math.min(a.z, b.z),
+            Math.max(a.x, b.x), Math.max(a.y, b.y), Math.max(a.z, b.z), multiplier);
+    }
+
+    /**
+     * Number of cells with a painted multiplier above x1.
+     */
+    public int getPaintedCellCount() {
+        return costs.getPaintedCells();
+    }
+
+    /**
+     * Copy every section within a radius of a position, so the searches of a
+     * movement phase read only from memory.
+     */
+    public void prefetch(Vector3i center, int radius) {
+        prefetch(center, center, radius);
+    }
+
+    /**
+     * Copy every section of the box spanned by two positions, grown by a
+     * margin on every side.
+     */
+    public void prefetch(Vector3i a, Vector3i b, int margin) {
+        int minX = (Math.min(a.x, b.x) - margin) >> SECTION_SHIFT;
+        int maxX = (Math.max(a.x, b.x) + margin) >> SECTION_SHIFT;
+        int minY = (Math.min(a.y, b.y) - margin - 1) >> SECTION_SHIFT;
+        int maxY = (Math.max(a.y, b.y) + margin + 1) >> SECTION_SHIFT;
+        int minZ = (Math.min(a.z, b.z) - margin) >> SECTION_SHIFT;
+        int maxZ = (Math.max(a.z, b.z) + margin) >> SECTION_SHIFT;
+
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sy = minY; sy <= maxY; sy++) {
+                for (int sz = minZ; sz <= maxZ; sz++) {
+                    section(sx, sy, sz);
+                }
+            }
+        }
+    }
+
+    /**
+     * Patch a single block after it changed in the world.
+     * Blocks in sections that were never copied are ignored; they will be
+     * read fresh when first queried.
+     *
+     * The section is copied before it is patched, so frozen views taken
+     * earlier keep seeing the terrain as it was.
+     */
+    public void onBlockChanged(int x, int y, int z, int blockId) {
+        long key = GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+        long[] bits = sections.get(key);
+        if (bits == null) {
+            return;
+        }
+
+        BlockPassability passability = BlockPassability.get();
+        bits = setBit(bits, x, y, z, passability.isSolid(blockId));
+        sections.put(key, bits);
+        version++;
+
+        long[] difficultBits = difficult.get(key);
+        boolean wasDifficult = testBit(difficultBits, x, y, z);
+        boolean isDifficult = passability.has(blockId, BlockPassability.DIFFICULT);
+        if (wasDifficult != isDifficult) {
+            difficultBits = setBit(difficultBits, x, y, z, isDifficult);
+            difficult.put(key, difficultBits);
+            difficultBlocks += isDifficult ? 1 : -1;
+        }
+
+        long[] noFootingBits = noFooting.get(key);
+        boolean hadNoFooting = testBit(noFootingBits, x, y, z);
+        boolean hasNoFooting = passability.isSolid(blockId) && !passability.isStandable(blockId);
+        if (hadNoFooting != hasNoFooting) {
+            noFooting.put(key, setBit(noFootingBits, x, y, z, hasNoFooting));
+        }
+
+        if (lastKey == key) {
+            lastSection = bits;
+            lastDifficult = difficultBits;
+        }
+        clearance.onBlockChanged(x, y, z);
+
+        // The block decides whether the levels just below, at and above it
+        // can be stood on
+        for (int sy = (y - 1) >> SECTION_SHIFT; sy <= (y + 1) >> SECTION_SHIFT; sy++) {
+            long columnsKey = GridKey.pack(x >> SECTION_SHIFT, sy, z >> SECTION_SHIFT);
+            long[] columns = standable.get(columnsKey);
+            if (columns == null) continue;
+
+            int sx = x >> SECTION_SHIFT;
+            int sz = z >> SECTION_SHIFT;
+            columns = columns.clone();
+            setColumnLevels(columns, x, z, computeLevels(sx, sy, sz, x, z));
+            standable.put(columnsKey, columns);
+            if (lastColumns != null && lastColumnsKey == columnsKey) {
+                lastColumns = columns;
+            }
+        }
+    }
+
+    /**
+     * Re-read a single block from the world after it changed.
+     */
+    public void onBlockChanged(int x, int y, int z) {
+        onBlockChanged(x, y, z, world.getBlock(x, y, z));
+    }
+
+    /**
+     * Drop every copied section (e.g. after a large edit).
+     */
+    public void invalidateAll() {
+        sections.clear();
+        difficult.clear();
+        noFooting.clear();
+        standable.clear();
+        clearance.clear();
+        difficultBlocks = 0;
+        version++;
+        lastSection = null;
+        lastDifficult = null;
+        lastColumns = null;
+    }
+
+    /**
+     * Take an immutable view of every section copied so far, safe to read
+     * from any thread. Blocks outside those sections read as solid, so
+     * prefetch the area a search needs before freezing.
+     */
+    public TerrainView freeze() {
+        return new Frozen(sections.copy(), difficult.copy(), noFooting.copy(), standable.copy(), clearance.copy(),
+            costs.copy(), hasMoveMultipliers());
+    }
+
+    /**
+     * Get a counter that changes whenever a copied block does, so results
+     * worked out from the terrain can tell they are stale.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of 16x16x16 sections currently copied.
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    private static int bitIndex(int x, int y, int z) {
+        return ((y & SECTION_MASK) << (2 * SECTION_SHIFT)) | ((z & SECTION_MASK) << SECTION_SHIFT) | (x & SECTION_MASK);
+    }
+
+    private static boolean testBit(long[] bits, int x, int y, int z) {
+        int index = bitIndex(x, y, z);
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Copy a section's bits with one bit changed.
+     */
+    private static long[] setBit(long[] bits, int x, int y, int z, boolean value) {
+        bits = bits.clone();
+        int index = bitIndex(x, y, z);
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+        return bits;
+    }
+
+    private static int columnLevels(long[] columns, int x, int z) {
+        int column = ((z & SECTION_MASK) << SECTION_SHIFT) | (x & SECTION_MASK);
+        return (int) (columns[column >>> 2] >>> ((column & 3) << 4)) & 0xFFFF;
+    }
+
+    private static void setColumnLevels(long[] columns, int x, int z, int levels) {
+        int column = ((z & SECTION_MASK) << SECTION_SHIFT) | (x & SECTION_MASK);
+        int shift = (column & 3) << 4;
+        columns[column >>> 2] = (columns[column >>> 2] & ~(0xFFFFL << shift)) | ((long) levels << shift);
+    }
+
+    private boolean isDifficult(int x, int y, int z) {
+        section(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+        return testBit(lastDifficult, x, y, z);
+    }
+
+    /**
+     * Get the column index of a section, building it on first use.
+     */
+    private long[] columns(int sx, int sy, int sz) {
+        long key = GridKey.pack(sx, sy, sz);
+        if (lastColumns != null && lastColumnsKey == key) {
+            return lastColumns;
+        }
+
+        long[] columns = standable.get(key);
+        if (columns == null) {
+            columns = new long[COLUMN_LONGS];
+            for (int z = 0; z < SECTION_SIZE; z++) {
+                for (int x = 0; x < SECTION_SIZE; x++) {
+                    setColumnLevels(columns, x, z, computeLevels(sx, sy, sz, x, z));
+                }
+            }
+            standable.put(key, columns);
+        }
+
+        lastColumnsKey = key;
+        lastColumns = columns;
+        return columns;
+    }
+
+    /**
+     * Work out which levels of one column of a section can be stood on,
+     * from its solid and no-footing bits and those of the sections just
+     * below and above.
+     */
+    private int computeLevels(int sx, int sy, int sz, int x, int z) {
+        long[] below = section(sx, sy - 1, sz);
+        long[] belowNoFooting = noFooting.get(GridKey.pack(sx, sy - 1, sz));
+        long[] above = section(sx, sy + 1, sz);
+        long[] bits = section(sx, sy, sz);
+        long[] bitsNoFooting = noFooting.get(GridKey.pack(sx, sy, sz));
+
+        // Bit i is the block at local y = i - 1
+        int solid = testBit(below, x, SECTION_MASK, z) ? 1 : 0;
+        int footing = solid != 0 && !testBit(belowNoFooting, x, SECTION_MASK, z) ? 1 : 0;
+        for (int y = 0; y < SECTION_SIZE; y++) {
+            if (testBit(bits, x, y, z)) {
+                solid |= 2 << y;
+                if (!testBit(bitsNoFooting, x, y, z)) {
+                    footing |= 2 << y;
+                }
+            }
+        }
+        if (testBit(above, x, 0, z)) {
+            solid |= 1 << (SECTION_SIZE + 1);
+        }
+
+        // Ground below, feet and head clear
+        return footing & ~(solid >>> 1) & ~(solid >>> 2) & 0xFFFF;
+    }
+
+    /**
+     * Get the bits of a section, copying it from the world on first use.
+     */
+    private long[] section(int sx, int sy, int sz) {
+        long key = GridKey.pack(sx, sy, sz);
+        if (lastSection != null && lastKey == key) {
+            return lastSection;
+        }
+
+        long[] bits = sections.get(key);
+        if (bits == null) {
+            bits = copySection(key, sx, sy, sz);
+        }
+
+        lastKey = key;
+        lastSection = bits;
+        lastDifficult = difficult.get(key);
+        return bits;
+    }
+
+    /**
+     * Copy a section's solid and difficult bits from the world.
+     */
+    private long[] copySection(long key, int sx, int sy, int sz) {
+        BlockPassability passability = BlockPassability.get();
+        long[] bits = new long[SECTION_LONGS];
+        long[] difficultBits = NO_BITS;
+        long[] noFootingBits = NO_BITS;
+        int baseX = sx << SECTION_SHIFT;
+        int baseY = sy << SECTION_SHIFT;
+        int baseZ = sz << SECTION_SHIFT;
+
+        for (int y = 0; y < SECTION_SIZE; y++) {
+            for (int z = 0; z < SECTION_SIZE; z++) {
+                for (int x = 0; x < SECTION_SIZE; x++) {
+                    int flags = passability.getFlags(world.getBlock(baseX + x, baseY + y, baseZ + z));
+                    int index = bitIndex(x, y, z);
+                    if ((flags & BlockPassability.PASSABLE) == 0) {
+                        bits[index >>> 6] |= 1L << index;
+                        if ((flags & BlockPassability.STANDABLE) == 0) {
+                            if (noFootingBits == NO_BITS) {
+                                noFootingBits = new long[SECTION_LONGS];
+                            }
+                            noFootingBits[index >>> 6] |= 1L << index;
+                        }
+                    }
+                    if ((flags & BlockPassability.DIFFICULT) != 0) {
+                        if (difficultBits == NO_BITS) {
+                            difficultBits = new long[SECTION_LONGS];
+                        }
+                        difficultBits[index >>> 6] |= 1L << index;
+                        difficultBlocks++;
+                    }
+                }
+            }
+        }
+
+        sections.put(key, bits);
+        difficult.put(key, difficultBits);
+        noFooting.put(key, noFootingBits);
+        return bits;
+    }
+
+    /**
+     * Read-only view over a copy of the section tables, clearance map and
+     * cost field.
+     */
+    private static final class Frozen implements TerrainView {
+        private final SectionTable sections;
+        private final SectionTable difficult;
+        private final SectionTable noFooting;
+        private final SectionTable standable;
+        private final ClearanceMap clearance;
+        private final CostField costs;
+        private final boolean hasMultipliers;
+
+        Frozen(SectionTable sections, SectionTable difficult, SectionTable noFooting, SectionTable standable,
+               ClearanceMap clearance, CostField costs, boolean hasMultipliers) {
+            this.sections = sections;
+            this.difficult = difficult;
+            this.noFooting = noFooting;
+            this.standable = standable;
+            this.clearance = clearance;
+            this.costs = costs;
+            this.hasMultipliers = hasMultipliers;
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            long[] bits = sections.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT));
+            if (bits == null) {
+                // Never copied - treat as a wall rather than guess
+                return true;
+            }
+            return testBit(bits, x, y, z);
+        }
+
+        @Override
+        public boolean hasFooting(int x, int y, int z) {
+            long key = GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+            long[] bits = sections.get(key);
+            return bits != null && testBit(bits, x, y, z) && !testBit(noFooting.get(key), x, y, z);
+        }
+
+        @Override
+        public long getStandableLevels(int x, int minY, int z, int height) {
+            long levels = 0;
+            int end = minY + height;
+            for (int y = minY; y < end; ) {
+                int count = Math.min(SECTION_SIZE - (y & SECTION_MASK), end - y);
+                long[] columns = standable.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT));
+                long part;
+                if (columns != null) {
+                    part = (columnLevels(columns, x, z) >>> (y & SECTION_MASK)) & ((1L << count) - 1);
+                } else {
+                    // Columns not indexed before freezing: test the blocks
+                    part = TerrainView.super.getStandableLevels(x, y, z, count);
+                }
+                levels |= part << (y - minY);
+                y += count;
+            }
+            return levels;
+        }
+
+        @Override
+        public int getClearance(int x, int y, int z) {
+            int value = clearance.peek(x, y, z);
+            // Not built before freezing: test the blocks
+            return value >= 0 ? value : TerrainView.super.getClearance(x, y, z);
+        }
+
+        @Override
+        public int getMoveMultiplier(int x, int y, int z) {
+            if (!hasMultipliers) {
+                return 1;
+            }
+            int multiplier = costs.get(x, y, z);
+            if (multiplier < DIFFICULT_MULTIPLIER && (isDifficult(x, y, z) || isDifficult(x, y - 1, z))) {
+                multiplier = DIFFICULT_MULTIPLIER;
+            }
+            return multiplier;
+        }
+
+        @Override
+        public boolean hasMoveMultipliers() {
+            return hasMultipliers;
+        }
+
+        private boolean isDifficult(int x, int y, int z) {
+            long[] bits = difficult.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT));
+            return bits != null && testBit(bits, x, y, z);
+        }
+
+        @Override
+        public boolean isLoaded(int x, int y, int z) {
+            return sections.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT)) != null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.CancellableEcsEvent;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Feeds block breaks and placements to {@link GridMovementManager#onBlockChanged},
+ * so the encounter's terrain snapshot, and everything worked out from it,
+ * follows walls and pits made mid-fight.
+ *
+ * Block events are ECS events fired before the block changes, and a later
+ * system may still cancel them. The block is therefore read back from the
+ * world in the world thread's next task instead of taken from the event.
+ */
+public abstract class BlockChangeSystem<E extends CancellableEcsEvent> extends EntityEventSystem<EntityStore, E> {
+
+    protected BlockChangeSystem(@Nonnull Class<E> eventType) {
+        super(eventType);
+    }
+
+    @Override
+    public void handle(int index, @Nonnull ArchetypeChunk<EntityStore> archetypeChunk, @Nonnull Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull E event) {
+        if (event.isCancelled()) {
+            return;
+        }
+
+        Vector3i block = getTargetBlock(event);
+        World world = store.getExternalData().getWorld();
+        world.execute(() -> GridMovementManager.get().onBlockChanged(world, block.x, block.y, block.z));
+    }
+
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.any();  // Players and NPCs alike
+    }
+
+    protected abstract Vector3i getTargetBlock(E event);
+
+    /**
+     * A block was broken.
+     */
+    public static final class Break extends BlockChangeSystem<BreakBlockEvent> {
+        public Break() {
+            super(BreakBlockEvent.class);
+        }
+
+        @Override
+        protected Vector3i getTargetBlock(BreakBlockEvent event) {
+            return event.getTargetBlock();
+        }
+    }
+
+    /**
+     * A block was placed.
+     */
+    public static final class Place extends BlockChangeSystem<PlaceBlockEvent> {
+        public Place() {
+            super(PlaceBlockEvent.class);
+        }
+
+        @Override
+        protected Vector3i getTargetBlock(PlaceBlockEvent event) {
+            return event.getTargetBlock();
+        }
+    }
+}
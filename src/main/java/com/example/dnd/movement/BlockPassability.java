@@ -0,0 +1,196 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.assetstore.map.BlockTypeAssetMap;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.protocol.BlockMaterial;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Movement flags for every block ID, so terrain code answers "can a creature
+ * walk through this?" with one array load instead of assuming only ID 0 is
+ * air.
+ *
+ * Built from the block asset registry whenever block types are loaded:
+ * blocks without collision (grass, flowers, torches) are passable, blocks
+ * with collision can be stood on, and difficult terrain, liquids, hazards and
+ * climbable blocks come from explicit lists of block type IDs. IDs are
+ * matched whole, never by substring, so mud bricks or hawthorn planks stay
+ * plain floors. Water is passable difficult terrain; lava is a hazard, which
+ * a creature can neither enter nor stand on. Until the table is built, and
+ * for IDs it did not see, the old rule applies: 0 is air and everything else
+ * is solid.
+ */
+public final class BlockPassability {
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    public static final byte PASSABLE = 1;     // A creature's body can occupy the block
+    public static final byte STANDABLE = 2;    // A creature can stand on top of the block
+    public static final byte DIFFICULT = 4;    // Costs extra movement to enter (5e difficult terrain)
+    public static final byte LIQUID = 8;       // Water, lava and other fluids
+    public static final byte CLIMBABLE = 16;   // Ladders and vines
+    public static final byte HAZARD = 32;      // Harms what enters it; neither passable nor standable
+
+    private static final byte UNKNOWN = STANDABLE;  // Unknown IDs behave as plain solid blocks
+
+    // Block type IDs, compared without case
+    private static final Set<String> DIFFICULT_BLOCKS = Set.of(
+        "soil_mud", "plant_bramble", "deco_cobweb");
+    private static final Set<String> WATER_BLOCKS = Set.of(  // Passable but difficult
+        "water", "water_source");
+    private static final Set<String> HAZARD_LIQUIDS = Set.of(  // Never pathed through or over
+        "lava", "lava_source");
+    private static final Set<String> CLIMBABLE_BLOCKS = Set.of(
+        "deco_ladder", "plant_vine");
+
+    private static volatile BlockPassability instance = new BlockPassability(new byte[] { PASSABLE });
+
+    private final byte[] flags;
+
+    private BlockPassability(byte[] flags) {
+        this.flags = flags;
+    }
+
+    public static BlockPassability get() {
+        return instance;
+    }
+
+    /**
+     * Reclassify every block type after the block assets were loaded or
+     * reloaded.
+     */
+    public static void onBlockTypesLoaded(LoadedAssetsEvent<String, BlockType, BlockTypeAssetMap<String, BlockType>> event) {
+        build();
+    }
+
+    /**
+     * Classify every registered block type. Does nothing if no block types
+     * are loaded yet; {@link #onBlockTypesLoaded} builds the table once they
+     * are.
+     */
+    public static BlockPassability build() {
+        try {
+            BlockTypeAssetMap<String, BlockType> assetMap = BlockType.getAssetMap();
+            Map<String, BlockType> types = assetMap.getAssetMap();
+            if (types.isEmpty()) {
+                LOGGER.atFine().log("No block types loaded yet; classifying them once they are");
+                return instance;
+            }
+
+            int maxIndex = 0;
+            for (String key : types.keySet()) {
+                maxIndex = Math.max(maxIndex, assetMap.getIndex(key));
+            }
+
+            byte[] flags = new byte[maxIndex + 1];
+            Arrays.fill(flags, UNKNOWN);
+            flags[0] = PASSABLE;  // Air
+            int passable = 0;
+            int difficult = 0;
+            int hazards = 0;
+            for (Map.Entry<String, BlockType> entry : types.entrySet()) {
+                int index = assetMap.getIndex(entry.getKey());
+                if (index <= 0) continue;
+                flags[index] = classify(entry.getKey(), entry.getValue());
+                if ((flags[index] & PASSABLE) != 0) {
+                    passable++;
+                }
+                if ((flags[index] & DIFFICULT) != 0) {
+                    difficult++;
+                }
+                if ((flags[index] & HAZARD) != 0) {
+                    hazards++;
+                }
+            }
+
+            instance = new BlockPassability(flags);
+            LOGGER.atInfo().log("Classified %d block types (%d passable, %d difficult, %d hazards)",
+                types.size(), passable, difficult, hazards);
+            warnMissing(types);
+        } catch (RuntimeException e) {
+            LOGGER.atWarning().log("Could not read block types (%s); treating every non-air block as solid", e.getMessage());
+        }
+        return instance;
+    }
+
+    /**
+     * Work out the flags of one block type from its collision material and ID.
+     */
+    static byte classify(String key, BlockType type) {
+        String id = key.toLowerCase(Locale.ROOT);
+        if (HAZARD_LIQUIDS.contains(id)) {
+            return LIQUID | HAZARD;
+        }
+        if (WATER_BLOCKS.contains(id)) {
+            return PASSABLE | LIQUID | DIFFICULT;
+        }
+
+        byte result = type.getMaterial() == BlockMaterial.Empty ? PASSABLE : STANDABLE;
+        if (CLIMBABLE_BLOCKS.contains(id)) {
+            result = PASSABLE | CLIMBABLE;
+        }
+        if (DIFFICULT_BLOCKS.contains(id)) {
+            result |= DIFFICULT;
+        }
+        return result;
+    }
+
+    /**
+     * Log the listed IDs the registry does not have, so a renamed block
+     * does not silently lose its rule.
+     */
+    private static void warnMissing(Map<String, BlockType> types) {
+        List<String> missing = new ArrayList<>(DIFFICULT_BLOCKS);
+        missing.addAll(WATER_BLOCKS);
+        missing.addAll(HAZARD_LIQUIDS);
+        missing.addAll(CLIMBABLE_BLOCKS);
+        for (String key : types.keySet()) {
+            missing.remove(key.toLowerCase(Locale.ROOT));
+        }
+        if (!missing.isEmpty()) {
+            LOGGER.atWarning().log("Block types listed for movement rules but not in the registry: %s", missing);
+        }
+    }
+
+    /**
+     * Get every flag of a block ID.
+     */
+    public int getFlags(int blockId) {
+        return blockId >= 0 && blockId < flags.length ? flags[blockId] : UNKNOWN;
+    }
+
+    /**
+     * Check if a block ID has a flag.
+     */
+    public boolean has(int blockId, int flag) {
+        return (getFlags(blockId) & flag) != 0;
+    }
+
+    /**
+     * Check if a block ID blocks a creature's body.
+     */
+    public boolean isSolid(int blockId) {
+        return (getFlags(blockId) & PASSABLE) == 0;
+    }
+
+    /**
+     * Check if a creature can stand on top of a block ID.
+     */
+    public boolean isStandable(int blockId) {
+        return (getFlags(blockId) & STANDABLE) != 0;
+    }
+
+    /**
+     * Number of block IDs in the table.
+     */
+    public int size() {
+        return flags.length;
+    }
+}
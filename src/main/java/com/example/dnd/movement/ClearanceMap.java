@@ -0,0 +1,160 @@
+package com.example.dnd.movement;
+
+/**
+ * Clearance of every cell of an encounter: the side of the largest square
+ * footprint (up to {@link #MAX_CLEARANCE}) whose corner can sit at the cell
+ * with room overhead, one byte per cell.
+ *
+ * A cell has clearance n when the n x n square spanning x..x+n-1 and
+ * z..z+n-1 is clear for n + 1 blocks up from y (two blocks for a 1x1
+ * creature, five for a 4x4 one). Fitting n implies fitting every smaller
+ * size, so one number answers "does this creature fit here?" for all of
+ * {@link CreatureSize} with a single lookup instead of a scan of its columns.
+ *
+ * Built per 16x16x16 section the first time a cell in it is asked for, from
+ * the section's solid bits and the few blocks past its high edges: a
+ * bottom-up count of clear blocks per column, then one square-growing pass
+ * per footprint. Block changes mark the sections whose cells can see the
+ * block as stale; they are rebuilt on their next query.
+ *
+ * Not thread-safe; owned by the world thread of its encounter.
+ */
+final class ClearanceMap {
+    static final int MAX_CLEARANCE = 4;
+
+    private static final int SECTION_SHIFT = ArenaSnapshot.SECTION_SHIFT;
+    private static final int SECTION_SIZE = ArenaSnapshot.SECTION_SIZE;
+    private static final int SECTION_MASK = SECTION_SIZE - 1;
+    private static final int SECTION_LONGS = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE / 8;
+    private static final int MAX_HEIGHT = MAX_CLEARANCE + 1;
+    private static final int WINDOW = SECTION_SIZE + MAX_CLEARANCE - 1;  // Columns read per side
+    private static final long[] STALE = new long[0];  // Marks a section to rebuild
+
+    private final SectionTable sections;
+
+    ClearanceMap() {
+        this.sections = new SectionTable(32);
+    }
+
+    private ClearanceMap(ClearanceMap other) {
+        this.sections = other.sections.copy();
+    }
+
+    /**
+     * Get the clearance of a cell, building its section from the terrain's
+     * solid blocks if needed.
+     */
+    int get(TerrainView terrain, int x, int y, int z) {
+        long key = GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+        long[] cells = sections.get(key);
+        if (cells == null || cells == STALE) {
+            cells = build(terrain, x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+            sections.put(key, cells);
+        }
+        return read(cells, x, y, z);
+    }
+
+    /**
+     * Get the clearance of a cell without building anything.
+     *
+     * @return The clearance, or -1 if its section is not built or is stale
+     */
+    int peek(int x, int y, int z) {
+        long[] cells = sections.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT));
+        return cells == null || cells == STALE ? -1 : read(cells, x, y, z);
+    }
+
+    /**
+     * Mark every built section with a cell whose footprint or headroom
+     * includes a block as stale.
+     */
+    void onBlockChanged(int x, int y, int z) {
+        for (int sx = (x - MAX_CLEARANCE + 1) >> SECTION_SHIFT; sx <= x >> SECTION_SHIFT; sx++) {
+            for (int sy = (y - MAX_HEIGHT + 1) >> SECTION_SHIFT; sy <= y >> SECTION_SHIFT; sy++) {
+                for (int sz = (z - MAX_CLEARANCE + 1) >> SECTION_SHIFT; sz <= z >> SECTION_SHIFT; sz++) {
+                    long key = GridKey.pack(sx, sy, sz);
+                    if (sections.get(key) != null) {
+                        sections.put(key, STALE);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Take a copy that later changes do not affect.
+     */
+    ClearanceMap copy() {
+        return new ClearanceMap(this);
+    }
+
+    void clear() {
+        sections.clear();
+    }
+
+    /**
+     * Work out the clearance of every cell of a section.
+     */
+    private static long[] build(TerrainView terrain, int sx, int sy, int sz) {
+        int baseX = sx << SECTION_SHIFT;
+        int baseY = sy << SECTION_SHIFT;
+        int baseZ = sz << SECTION_SHIFT;
+        long[] cells = new long[SECTION_LONGS];
+
+        // Clear blocks going up from each level, capped at the tallest creature
+        byte[][] runs = new byte[SECTION_SIZE][WINDOW * WINDOW];
+        for (int z = 0; z < WINDOW; z++) {
+            for (int x = 0; x < WINDOW; x++) {
+                int run = 0;
+                for (int y = SECTION_SIZE + MAX_HEIGHT - 2; y >= 0; y--) {
+                    run = terrain.isSolid(baseX + x, baseY + y, baseZ + z) ? 0 : Math.min(run + 1, MAX_HEIGHT);
+                    if (y < SECTION_SIZE) {
+                        runs[y][z * WINDOW + x] = (byte) run;
+                    }
+                }
+            }
+        }
+
+        // Per level and footprint, the largest square of tall enough columns
+        // with its corner at each cell; grown from the high edges inward
+        int[] squares = new int[WINDOW * WINDOW];
+        for (int y = 0; y < SECTION_SIZE; y++) {
+            byte[] level = runs[y];
+            for (int n = 1; n <= MAX_CLEARANCE; n++) {
+                for (int z = WINDOW - 1; z >= 0; z--) {
+                    for (int x = WINDOW - 1; x >= 0; x--) {
+                        int i = z * WINDOW + x;
+                        int square = 0;
+                        if (level[i] >= n + 1) {
+                            square = 1;
+                            if (x + 1 < WINDOW && z + 1 < WINDOW) {
+                                square += Math.min(squares[i + 1], Math.min(squares[i + WINDOW], squares[i + WINDOW + 1]));
+                            }
+                        }
+                        squares[i] = Math.min(square, MAX_CLEARANCE);
+
+                        if (square >= n && x < SECTION_SIZE && z < SECTION_SIZE) {
+                            write(cells, x, y, z, n);
+                        }
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static int read(long[] cells, int x, int y, int z) {
+        int index = cellIndex(x, y, z);
+        return (int) (cells[index >>> 3] >>> ((index & 7) << 3)) & 0xFF;
+    }
+
+    private static void write(long[] cells, int x, int y, int z, int value) {
+        int index = cellIndex(x, y, z);
+        int shift = (index & 7) << 3;
+        cells[index >>> 3] = (cells[index >>> 3] & ~(0xFFL << shift)) | ((long) value << shift);
+    }
+
+    private static int cellIndex(int x, int y, int z) {
+        return ((y & SECTION_MASK) << (2 * SECTION_SHIFT)) | ((z & SECTION_MASK) << SECTION_SHIFT) | (x & SECTION_MASK);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.UUID;
+
+/**
+ * A combatant on the grid: who it is, its side, its size and the corner cell
+ * (lowest x, y and z) of its body.
+ */
+public record Combatant(UUID id, Faction faction, CreatureSize size, long corner) {
+
+    public Vector3i getCorner() {
+        return GridKey.toVector(corner);
+    }
+
+    /**
+     * Check if the combatant's body fills a block.
+     */
+    public boolean contains(int x, int y, int z) {
+        int cx = GridKey.x(corner);
+        int cy = GridKey.y(corner);
+        int cz = GridKey.z(corner);
+        return x >= cx && x < cx + size.getFootprint()
+            && y >= cy && y < cy + size.getHeight()
+            && z >= cz && z < cz + size.getFootprint();
+    }
+
+    /**
+     * Check if any block of the combatant's body is inside a box (bounds
+     * included).
+     */
+    public boolean overlaps(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        int cx = GridKey.x(corner);
+        int cy = GridKey.y(corner);
+        int cz = GridKey.z(corner);
+        return cx <= maxX && cx + size.getFootprint() - 1 >= minX
+            && cy <= maxY && cy + size.getHeight() - 1 >= minY
+            && cz <= maxZ && cz + size.getFootprint() - 1 >= minZ;
+    }
+
+    /**
+     * Squared distance in blocks from a cell to the nearest block of the
+     * combatant's body (0 if the body fills the cell).
+     */
+    public long distanceSquared(int x, int y, int z) {
+        long dx = gap(x, GridKey.x(corner), size.getFootprint());
+        long dy = gap(y, GridKey.y(corner), size.getHeight());
+        long dz = gap(z, GridKey.z(corner), size.getFootprint());
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int gap(int value, int start, int length) {
+        if (value < start) {
+            return start - value;
+        }
+        return Math.max(0, value - (start + length - 1));
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.dnd.movement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Combatants of a world hashed into 8x8x8 buckets by their corner cell, for
+ * "who is near here?" questions (area spells, targeting, nearest enemy).
+ *
+ * A box query visits only the buckets the box touches, widened by the size
+ * of the biggest body on its low sides, so its cost follows the size of the
+ * box and the number of combatants in it rather than everyone in the world.
+ * When the box spans more buckets than are in use, the used buckets are
+ * scanned instead.
+ *
+ * Kept in step with {@link OccupancyGrid}. Not thread-safe; owned by the
+ * world thread.
+ */
+final class CombatantIndex {
+    private static final int BUCKET_SHIFT = 3;
+    private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+    private static final int MAX_FOOTPRINT = CreatureSize.GARGANTUAN.getFootprint();
+    private static final int MAX_HEIGHT = CreatureSize.GARGANTUAN.getHeight();
+
+    private final Map<Long, List<Combatant>> buckets = new HashMap<>();
+
+    void add(Combatant combatant) {
+        buckets.computeIfAbsent(bucketOf(combatant.corner()), k -> new ArrayList<>(2)).add(combatant);
+    }
+
+    void remove(Combatant combatant) {
+        long key = bucketOf(combatant.corner());
+        List<Combatant> bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(combatant) && bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    /**
+     * Call an action with every combatant whose body reaches into a box
+     * (bounds included). The action must not change the index.
+     */
+    void forEachInBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Consumer<Combatant> action) {
+        // A body can reach into the box from a corner up to its size below it
+        int fromX = (minX - MAX_FOOTPRINT + 1) >> BUCKET_SHIFT;
+        int fromY = (minY - MAX_HEIGHT + 1) >> BUCKET_SHIFT;
+        int fromZ = (minZ - MAX_FOOTPRINT + 1) >> BUCKET_SHIFT;
+        int toX = maxX >> BUCKET_SHIFT;
+        int toY = maxY >> BUCKET_SHIFT;
+        int toZ = maxZ >> BUCKET_SHIFT;
+
+        long span = (long) (toX - fromX + 1) * (toY - fromY + 1) * (toZ - fromZ + 1);
+        if (span > buckets.size()) {
+            for (List<Combatant> bucket : buckets.values()) {
+                visit(bucket, minX, minY, minZ, maxX, maxY, maxZ, action);
+            }
+            return;
+        }
+
+        for (int by = fromY; by <= toY; by++) {
+            for (int bz = fromZ; bz <= toZ; bz++) {
+                for (int bx = fromX; bx <= toX; bx++) {
+                    List<Combatant> bucket = buckets.get(GridKey.pack(bx, by, bz));
+                    if (bucket != null) {
+                        visit(bucket, minX, minY, minZ, maxX, maxY, maxZ, action);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get every combatant with a block of its body within a distance of a
+     * cell.
+     */
+    List<Combatant> findInRadius(int x, int y, int z, int radius) {
+        long limit = (long) radius * radius;
+        List<Combatant> found = new ArrayList<>();
+        forEachInBox(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, combatant -> {
+            if (combatant.distanceSquared(x, y, z) <= limit) {
+                found.add(combatant);
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Find the combatant nearest to a cell that passes a filter, searching
+     * rings of buckets outward until no closer one can remain.
+     *
+     * @return The nearest match within maxRadius, or null
+     */
+    Combatant findNearest(int x, int y, int z, int maxRadius, Predicate<Combatant> filter) {
+        int cx = x >> BUCKET_SHIFT;
+        int cy = y >> BUCKET_SHIFT;
+        int cz = z >> BUCKET_SHIFT;
+        int rings = (maxRadius + MAX_HEIGHT) / BUCKET_SIZE + 1;
+
+        Nearest nearest = new Nearest(x, y, z, (long) maxRadius * maxRadius, filter);
+        for (int ring = 0; ring <= rings; ring++) {
+            // Closest a body in this ring can come, as bodies reach up to
+            // their size out of their bucket
+            long reach = (long) (ring - 1) * BUCKET_SIZE + 1 - MAX_HEIGHT;
+            if (reach > 0 && reach * reach > nearest.distance) {
+                break;
+            }
+
+            long side = 2L * ring + 1;
+            long shell = ring == 0 ? 1 : side * side * side - (side - 2) * (side - 2) * (side - 2);
+            if (shell > buckets.size()) {
+                for (List<Combatant> bucket : buckets.values()) {
+                    nearest.offer(bucket);
+                }
+                break;
+            }
+
+            for (int dy = -ring; dy <= ring; dy++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    // Inside the shell only its two x faces are new
+                    int step = Math.abs(dy) == ring || Math.abs(dz) == ring ? 1 : Math.max(1, 2 * ring);
+                    for (int dx = -ring; dx <= ring; dx += step) {
+                        List<Combatant> bucket = buckets.get(GridKey.pack(cx + dx, cy + dy, cz + dz));
+                        if (bucket != null) {
+                            nearest.offer(bucket);
+                        }
+                    }
+                }
+            }
+        }
+        return nearest.best;
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    private static void visit(List<Combatant> bucket, int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                              Consumer<Combatant> action) {
+        for (Combatant combatant : bucket) {
+            if (combatant.overlaps(minX, minY, minZ, maxX, maxY, maxZ)) {
+                action.accept(combatant);
+            }
+        }
+    }
+
+    private static long bucketOf(long corner) {
+        return GridKey.pack(GridKey.x(corner) >> BUCKET_SHIFT, GridKey.y(corner) >> BUCKET_SHIFT,
+            GridKey.z(corner) >> BUCKET_SHIFT);
+    }
+
+    /**
+     * Best match so far of a nearest search.
+     */
+    private static final class Nearest {
+        private final int x, y, z;
+        private final Predicate<Combatant> filter;
+        private long distance;  // Squared; the search radius until a match is found
+        private Combatant best;
+
+        Nearest(int x, int y, int z, long limit, Predicate<Combatant> filter) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.distance = limit;
+            this.filter = filter;
+        }
+
+        void offer(List<Combatant> bucket) {
+            for (Combatant combatant : bucket) {
+                long d = combatant.distanceSquared(x, y, z);
+                if ((best == null ? d <= distance : d < distance) && filter.test(combatant)) {
+                    best = combatant;
+                    distance = d;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.dnd.movement;
+
+/**
+ * Movement cost multiplier of every cell of an encounter (GM hazard zones,
+ * spell areas), one byte per cell.
+ *
+ * Stored in the same 16x16x16 sections as {@link ArenaSnapshot}, eight cells
+ * per long. Sections nobody painted take no memory and cost x1. Painting
+ * copies only the sections it touches before changing them, so copies taken
+ * earlier keep the old values and can be read from any thread.
+ *
+ * Not thread-safe; owned by the world thread of its encounter.
+ */
+final class CostField {
+    static final int MAX_MULTIPLIER = 4;
+
+    private static final int SECTION_SHIFT = ArenaSnapshot.SECTION_SHIFT;
+    private static final int SECTION_SIZE = ArenaSnapshot.SECTION_SIZE;
+    private static final int SECTION_MASK = SECTION_SIZE - 1;
+    private static final int SECTION_LONGS = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE / 8;
+
+    private final SectionTable sections;
+    private int paintedCells;  // Cells costing more than x1
+
+    CostField() {
+        this.sections = new SectionTable(8);
+    }
+
+    private CostField(CostField other) {
+        this.sections = other.sections.copy();
+        this.paintedCells = other.paintedCells;
+    }
+
+    /**
+     * Get the multiplier of a cell, 1 if it was never painted.
+     */
+    int get(int x, int y, int z) {
+        if (paintedCells == 0) {
+            return 1;
+        }
+        long[] cells = sections.get(GridKey.pack(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT));
+        if (cells == null) {
+            return 1;
+        }
+        int index = cellIndex(x, y, z);
+        return (int) ((cells[index >>> 3] >>> ((index & 7) << 3)) & 0xFF) + 1;
+    }
+
+    /**
+     * Set the multiplier of every cell in the box spanned by two corners.
+     * Only the sections overlapping the box are visited.
+     *
+     * @param multiplier 1 (normal) to {@link #MAX_MULTIPLIER}
+     * @return The number of cells whose multiplier changed
+     */
+    int paint(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int multiplier) {
+        long stored = multiplier - 1;
+        int changed = 0;
+
+        for (int sx = minX >> SECTION_SHIFT; sx <= maxX >> SECTION_SHIFT; sx++) {
+            for (int sy = minY >> SECTION_SHIFT; sy <= maxY >> SECTION_SHIFT; sy++) {
+                for (int sz = minZ >> SECTION_SHIFT; sz <= maxZ >> SECTION_SHIFT; sz++) {
+                    long key = GridKey.pack(sx, sy, sz);
+                    long[] cells = sections.get(key);
+                    if (cells == null && stored == 0) {
+                        continue;  // Already x1
+                    }
+                    cells = cells != null ? cells.clone() : new long[SECTION_LONGS];
+
+                    // Clip the box to this section
+                    int sectionChanged = 0;
+                    for (int y = Math.max(minY, sy << SECTION_SHIFT); y <= Math.min(maxY, (sy << SECTION_SHIFT) + SECTION_MASK); y++) {
+                        for (int z = Math.max(minZ, sz << SECTION_SHIFT); z <= Math.min(maxZ, (sz << SECTION_SHIFT) + SECTION_MASK); z++) {
+                            for (int x = Math.max(minX, sx << SECTION_SHIFT); x <= Math.min(maxX, (sx << SECTION_SHIFT) + SECTION_MASK); x++) {
+                                int index = cellIndex(x, y, z);
+                                int shift = (index & 7) << 3;
+                                long old = (cells[index >>> 3] >>> shift) & 0xFF;
+                                if (old == stored) continue;
+
+                                cells[index >>> 3] = (cells[index >>> 3] & ~(0xFFL << shift)) | (stored << shift);
+                                if (old == 0) paintedCells++;
+                                if (stored == 0) paintedCells--;
+                                sectionChanged++;
+                            }
+                        }
+                    }
+
+                    if (sectionChanged > 0) {
+                        sections.put(key, cells);
+                        changed += sectionChanged;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Check if every cell costs x1.
+     */
+    boolean isEmpty() {
+        return paintedCells == 0;
+    }
+
+    /**
+     * Number of cells costing more than x1.
+     */
+    int getPaintedCells() {
+        return paintedCells;
+    }
+
+    /**
+     * Take a copy that later painting does not affect.
+     */
+    CostField copy() {
+        return new CostField(this);
+    }
+
+    void clear() {
+        sections.clear();
+        paintedCells = 0;
+    }
+
+    private static int cellIndex(int x, int y, int z) {
+        return ((y & SECTION_MASK) << (2 * SECTION_SHIFT)) | ((z & SECTION_MASK) << SECTION_SHIFT) | (x & SECTION_MASK);
+    }
+}
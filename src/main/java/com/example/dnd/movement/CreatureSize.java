@@ -0,0 +1,74 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
+
+/**
+ * 5e size categories, each with the square footprint and height in blocks a
+ * creature of that size needs to move through the grid.
+ */
+public enum CreatureSize {
+    TINY(1, 2),
+    SMALL(1, 2),
+    MEDIUM(1, 2),
+    LARGE(2, 3),
+    HUGE(3, 4),
+    GARGANTUAN(4, 5);
+
+    private final int footprint;
+    private final int height;
+
+    CreatureSize(int footprint, int height) {
+        this.footprint = footprint;
+        this.height = height;
+    }
+
+    /**
+     * Side of the square of blocks the creature occupies.
+     */
+    public int getFootprint() {
+        return footprint;
+    }
+
+    /**
+     * Clear blocks the creature needs overhead, counting its feet.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the corner cell (lowest x and z) of the footprint of a creature
+     * centered on a position. The grid tracks big creatures by this cell.
+     */
+    public Vector3i getCorner(Vector3d position) {
+        double half = footprint / 2.0;
+        return new Vector3i(
+            (int) Math.floor(position.getX() - half + 0.5),
+            (int) Math.floor(position.getY()),
+            (int) Math.floor(position.getZ() - half + 0.5)
+        );
+    }
+
+    /**
+     * Get the position at the center of the footprint with its corner at a cell.
+     */
+    public Vector3d getCenter(Vector3i corner) {
+        double half = footprint / 2.0;
+        return new Vector3d(corner.x + half, corner.y, corner.z + half);
+    }
+
+    /**
+     * Look up a size by name, case-insensitive.
+     *
+     * @return The size, or null if the name matches none
+     */
+    public static CreatureSize fromName(String name) {
+        for (CreatureSize size : values()) {
+            if (size.name().equalsIgnoreCase(name)) {
+                return size;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.dnd.movement;
+
+/**
+ * Side a combatant fights on. Creatures may move through allies but not
+ * through enemies.
+ */
+public enum Faction {
+    PARTY,    // Players
+    HOSTILE;  // GM-controlled NPCs
+
+    public boolean isEnemyOf(Faction other) {
+        return this != other;
+    }
+}
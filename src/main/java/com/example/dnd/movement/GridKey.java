@@ -0,0 +1,84 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+/**
+ * Packs block coordinates into a single long so the pathfinder can key
+ * its tables without allocating a Vector3i per cell.
+ *
+ * Layout (high to low bits): X (25 bits) | Z (26 bits) | Y (12 bits) |
+ * parity (1 bit), all two's complement, which covers +/- 16 million blocks
+ * horizontally and -2048..2047 vertically.
+ *
+ * The parity bit is not part of the position: searches using the 5e
+ * alternating diagonal rule set it on a node to record that an odd number
+ * of diagonals led there. {@link #pack} always leaves it clear, so plain
+ * cell keys compare equal to each other as before.
+ */
+public final class GridKey {
+    private static final int X_BITS = 25;
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long X_MASK = (1L << X_BITS) - 1;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final int Y_SHIFT = 1;
+    private static final int Z_SHIFT = Y_SHIFT + Y_BITS;
+    private static final int X_SHIFT = Z_SHIFT + XZ_BITS;
+    private static final long PARITY_BIT = 1L;
+
+    private GridKey() {}
+
+    public static long pack(int x, int y, int z) {
+        return ((x & X_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | ((y & Y_MASK) << Y_SHIFT);
+    }
+
+    public static long pack(Vector3i pos) {
+        return pack(pos.x, pos.y, pos.z);
+    }
+
+    public static int x(long key) {
+        return (int) (key >> X_SHIFT);
+    }
+
+    public static int y(long key) {
+        return (int) (key << (64 - Y_SHIFT - Y_BITS) >> (64 - Y_BITS));
+    }
+
+    public static int z(long key) {
+        return (int) (key << (64 - Z_SHIFT - XZ_BITS) >> (64 - XZ_BITS));
+    }
+
+    public static Vector3i toVector(long key) {
+        return new Vector3i(x(key), y(key), z(key));
+    }
+
+    /**
+     * Get the diagonal parity of a search node key (0 or 1).
+     */
+    static int parity(long key) {
+        return (int) (key & PARITY_BIT);
+    }
+
+    /**
+     * Set the diagonal parity of a key.
+     */
+    static long withParity(long key, int parity) {
+        return (key & ~PARITY_BIT) | (parity & PARITY_BIT);
+    }
+
+    /**
+     * Strip the diagonal parity, leaving the plain cell key.
+     */
+    static long cell(long key) {
+        return key & ~PARITY_BIT;
+    }
+
+    /**
+     * Mix the bits of a packed key for open-addressed table lookups.
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
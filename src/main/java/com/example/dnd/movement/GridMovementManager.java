@@ -1,19 +1,26 @@
 package com.example.dnd.movement;
 
 import com.example.dnd.DndPlugin;
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.character.CharacterSheet;
 import com.example.dnd.combat.CombatState;
 import com.example.dnd.combat.TurnManager;
 import com.example.dnd.combat.TurnPhase;
+import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
-import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -21,28 +28,53 @@ import java.util.concurrent.ConcurrentHashMap;
  * Central manager for D&D grid-based movement during combat.
  *
  * Coordinates:
- * - Click-to-move destination selection
- * - A* pathfinding around obstacles
+ * - Click-to-move destination selection, with a live preview under the cursor
+ * - Per-encounter terrain snapshot shared by all grid queries
+ * - Per-turn reachable area (one flood fill, then O(1) lookups per click),
+ *   repaired incrementally when blocks change
+ * - A* pathfinding around obstacles (long previews run off the world thread)
+ * - Difficult terrain and GM-painted movement cost zones
+ * - Hierarchical sector graph for paths longer than one search can cover
+ * - LRU cache of long paths, so repeated previews skip the search
+ * - Group moves for GM-controlled NPCs (one distance field per group)
+ * - Occupancy of every combatant: paths pass allies but not enemies, and
+ *   never end on another creature
+ * - Spatial queries over combatants (in a box, within a radius, nearest enemy)
  * - Path visualization with particles
- * - Movement execution (teleport to destination)
+ * - Movement execution (walking the path, one shared tick per world)
  * - Movement tracking per turn
- *
- * TODO: Movement execution requires ECS integration for component access.
- * The player.getComponent() pattern doesn't exist - need Store/Ref/ComponentAccessor.
  */
 public class GridMovementManager {
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
     private static GridMovementManager instance;
 
+    // Budget and box margin for the path preview shown when a target is out of reach.
+    // The margin is a full sector so the planner can cache the sectors along the way.
+    private static final int PREVIEW_MAX_DISTANCE = 100;
+    private static final int PREVIEW_MARGIN = 16;
+    private static final int PATH_CACHE_SIZE = 256;
+
     private final Map<UUID, MovementState> playerStates = new ConcurrentHashMap<>();
+    private final Map<UUID, ArenaSnapshot> arenas = new ConcurrentHashMap<>();  // world UUID -> snapshot
+    private final Map<UUID, LongRangePlanner> planners = new ConcurrentHashMap<>();  // world UUID -> sector graph
+    private final Map<UUID, PathCache> pathCaches = new ConcurrentHashMap<>();  // world UUID -> found paths
+    private final Map<UUID, OccupancyGrid> occupancy = new ConcurrentHashMap<>();  // world UUID -> combatants
     private final GridPathfinder pathfinder;
+    private final PathfindingService searchService;
     private final PathRenderer renderer;
+    private final HoverPreview hoverPreview;
+    private final GroupMovePlanner groupPlanner;
+    private final MovementAnimator animator;
     private final MovementConfig config;
 
     private GridMovementManager() {
         this.config = MovementConfig.get();
         this.pathfinder = new GridPathfinder(config);
+        this.searchService = new PathfindingService(pathfinder, config.getPathfindingThreads());
         this.renderer = new PathRenderer();
+        this.hoverPreview = new HoverPreview(this, renderer);
+        this.groupPlanner = new GroupMovePlanner(pathfinder, config);
+        this.animator = new MovementAnimator(config);
     }
 
     public static GridMovementManager get() {
@@ -74,54 +106,122 @@ public class GridMovementManager {
             return;
         }
 
-        // Find path to target
-        List<Vector3i> path = pathfinder.findPath(world, currentPos, targetBlock, remainingMovement);
+        // Latest click wins: drop any preview still searching for an older click
+        searchService.cancel(playerId);
+
+        // Allies can be walked through, but nobody shares a cell
+        if (isOccupied(state, world, targetBlock)) {
+            player.getPlayerRef().sendMessage(Message.raw("[D&D] That space is occupied!"));
+            return;
+        }
+
+        // Look up the path in this turn's reachable area
+        ReachableArea area = getReachableArea(state, world);
+        List<Vector3i> path = area.getPath(targetBlock);
 
         if (path == null) {
             // No valid path found
-            PlayerRef playerRef = player.getPlayerRef();
-            playerRef.sendMessage(Message.raw("[D&D] Cannot reach that location!"));
+            player.getPlayerRef().sendMessage(Message.raw("[D&D] Cannot reach that location!"));
             LOGGER.atFine().log("No path found from %s to %s within %d blocks",
                 currentPos, targetBlock, remainingMovement);
 
             // Still show the target but as unreachable
-            // Try to find a path ignoring distance for visualization
-            List<Vector3i> unreachablePath = pathfinder.findPath(world, currentPos, targetBlock, 100);
-            if (unreachablePath != null) {
-                state.setPlannedDestination(targetBlock);
-                state.setPathWaypoints(unreachablePath);
-                renderer.renderPath(player, state, world);
-
-                int distance = unreachablePath.size() - 1;
-                playerRef.sendMessage(Message.raw(
-                    String.format("[D&D] Target is %d blocks away (you have %d remaining)",
-                        distance, remainingMovement)
-                ));
-            }
+            previewUnreachablePath(player, state, targetBlock, world);
             return;
         }
 
         // Valid path found - update state
         state.setPlannedDestination(targetBlock);
         state.setPathWaypoints(path);
+        state.setPlannedCost((int) Math.ceil(area.getCost(targetBlock)));
 
         // Render the path
         renderer.renderPath(player, state, world);
 
         // Notify player
-        int distance = path.size() - 1;
+        int distance = state.getPlannedDistance();
         player.getPlayerRef().sendMessage(Message.raw(
             String.format("[D&D] Path set: %d blocks. Right-click to move, or click elsewhere to change.",
                 distance)
         ));
 
         // Refresh HUD
-        TurnManager.get().refreshAllHuds(world);
+        TurnManager.get().refreshHuds(world, playerId);
 
         LOGGER.atFine().log("Player %s selected destination %s, path length: %d",
             playerId, targetBlock, distance);
     }
 
+    /**
+     * Called when the cursor moves over a block during the player's movement
+     * phase. Cheap enough to call for every mouse motion event; see
+     * {@link HoverPreview} for how updates are coalesced.
+     */
+    public void onBlockHovered(Player player, Vector3i targetBlock, World world) {
+        MovementState state = playerStates.get(player.getPlayerRef().getUuid());
+        if (state == null || !state.isPlanning()) {
+            return;
+        }
+        hoverPreview.onHover(player, state, targetBlock, world);
+    }
+
+    /**
+     * Find a path to an out-of-reach target, ignoring the turn budget, so the
+     * player can see how far it is. This is the only search a click can
+     * trigger; it runs on the search service against a frozen copy of the
+     * arena and reports back on the world thread. The target is beyond the
+     * turn budget by definition, so it goes through the long-range planner.
+     */
+    private void previewUnreachablePath(Player player, MovementState state, Vector3i targetBlock, World world) {
+        UUID playerId = player.getPlayerRef().getUuid();
+        Vector3i currentPos = state.getStartPosition();
+
+        // Re-clicks and repeated previews are usually answered from the cache
+        PathCache cache = getPathCache(world);
+        PathCache.Query query = cache.query(currentPos, targetBlock, PREVIEW_MAX_DISTANCE);
+        List<Vector3i> cached = cache.get(query);
+        if (cached != null) {
+            showUnreachablePath(player, state, targetBlock, cached, world);
+            return;
+        }
+
+        ArenaSnapshot arena = getArena(world);
+        arena.prefetch(currentPos, targetBlock, PREVIEW_MARGIN);
+        TerrainView terrain = arena.freeze();
+        LongRangePlanner planner = getPlanner(world);
+
+        searchService.submit(playerId, world,
+            () -> planner.findPath(terrain, currentPos, targetBlock, PREVIEW_MAX_DISTANCE),
+            path -> {
+                boolean current = cache.put(query, path);
+
+                // The player may have moved or ended the phase while we searched
+                if (path == null || !state.isPlanning() || !currentPos.equals(state.getStartPosition())) {
+                    return;
+                }
+                if (!current) {
+                    // A block changed along the way mid-search; the path may cross it
+                    previewUnreachablePath(player, state, targetBlock, world);
+                    return;
+                }
+                showUnreachablePath(player, state, targetBlock, path, world);
+            });
+    }
+
+    private void showUnreachablePath(Player player, MovementState state, Vector3i targetBlock,
+                                     List<Vector3i> path, World world) {
+        state.setPlannedDestination(targetBlock);
+        state.setPathWaypoints(path);
+        state.setPlannedCost((int) Math.ceil(pathfinder.getPathCost(getArena(world), path)));
+        renderer.renderPath(player, state, world);
+
+        int distance = state.getPlannedDistance();
+        player.getPlayerRef().sendMessage(Message.raw(
+            String.format("[D&D] Target is %d blocks away (you have %d remaining)",
+                distance, state.getRemainingMovement())
+        ));
+    }
+
     /**
      * Called when player confirms movement (right-click or command).
      * Executes the planned movement.
@@ -147,15 +247,23 @@ public class GridMovementManager {
             return;
         }
 
+        // Someone may have moved there since the path was planned
+        if (isOccupied(state, world, state.getPlannedDestination())) {
+            player.getPlayerRef().sendMessage(Message.raw("[D&D] That space is now occupied! Select another location."));
+            return;
+        }
+
         // Execute the movement
         executeMovement(player, state, world);
 
         // Update state
         int distanceMoved = state.getPlannedDistance();
         state.commitMovement();
+        placeCombatant(state.getWorldId(), playerId, state.getStartPosition(), Faction.PARTY, CreatureSize.MEDIUM);
 
         // Clear path visualization
         renderer.clearPath(playerId);
+        hoverPreview.clear(playerId);
 
         // Notify player
         int remaining = state.getRemainingMovement();
@@ -167,49 +275,36 @@ public class GridMovementManager {
         if (remaining <= 0) {
             state.setPlanning(false);
             advanceToActionPhase(player, world);
+        } else {
+            // Flood the remaining budget from the new position
+            getReachableArea(state, world);
         }
 
         // Refresh HUD
-        TurnManager.get().refreshAllHuds(world);
+        TurnManager.get().refreshHuds(world, playerId);
 
         LOGGER.atInfo().log("Player %s moved %d blocks, %d remaining",
             playerId, distanceMoved, remaining);
     }
 
     /**
-     * Execute the actual movement to the destination.
-     * Currently uses instant teleport; can be enhanced with animation later.
-     *
-     * TODO: Implement proper movement execution once ECS patterns are researched.
-     * The player.getComponent() pattern doesn't exist - need to access
-     * PlayerInput component via Store.getComponent(ref, type).
+     * Walk the player along the planned path, cell by cell. See
+     * {@link MovementAnimator}.
      */
-    @SuppressWarnings("unused")
     private void executeMovement(Player player, MovementState state, World world) {
-        Vector3i destination = state.getPlannedDestination();
-
-        // TODO: ECS movement disabled - needs API research
-        // The following patterns no longer work:
-        // - player.getComponent(PlayerInput.getComponentType())
-        //
-        // Needs investigation into correct patterns for:
-        // - Getting Store/Ref from Player component
-        // - Accessing PlayerInput component
-        // - Queueing AbsoluteMovement
-
-        // Destination coordinates for when this is implemented:
-        // double x = destination.x + 0.5;
-        // double y = destination.y;
-        // double z = destination.z + 0.5;
-
-        LOGGER.atInfo().log("Movement execution pending ECS implementation: target %s", destination);
+        Ref<EntityStore> ref = player.getReference();
+        if (ref == null || !ref.isValid()) {
+            LOGGER.atWarning().log("Cannot move player %s: no entity", state.getPlayerId());
+            return;
+        }
+        animator.walk(world, state.getPlayerId(), ref, state.getPathWaypoints(), CreatureSize.MEDIUM, null);
     }
 
     /**
      * Advance the turn to the action phase after movement is complete.
      */
     private void advanceToActionPhase(Player player, World world) {
-        CombatState combatState = TurnManager.get().getCombatState(world);
+        CombatState combatState = TurnManager.get().getCombatState(world, player.getPlayerRef().getUuid());
         combatState.setCurrentPhase(TurnPhase.ACTION);
 
         player.getPlayerRef().sendMessage(Message.raw(
@@ -228,33 +323,30 @@ public class GridMovementManager {
             return;
         }
 
+        searchService.cancel(playerId);
         state.clearPlannedPath();
         renderer.clearPath(playerId);
 
         player.getPlayerRef().sendMessage(Message.raw("[D&D] Movement cancelled."));
 
         // Refresh HUD
-        TurnManager.get().refreshAllHuds(world);
+        TurnManager.get().refreshHuds(world, playerId);
     }
 
     /**
      * Start the movement phase for a player.
      * Called when combat starts or when a turn begins.
-     *
-     * TODO: Getting player position requires ECS integration.
-     * Currently uses placeholder position.
      */
     @SuppressWarnings("deprecation")
     public void startMovementPhase(Player player, World world) {
         UUID playerId = player.getPlayerRef().getUuid();
 
-        // TODO: Get current position - needs ECS API research
-        // The following pattern doesn't work:
-        // - player.getComponent(TransformComponent.getComponentType())
-        //
-        // For now, use a placeholder position (0,64,0)
-        // This should be replaced with actual position retrieval
-        Vector3i position = new Vector3i(0, 64, 0);
+        // Walks start from the player's cell, so it has to be the real one
+        Vector3i position = getPlayerCell(player);
+        if (position == null) {
+            LOGGER.atWarning().log("Cannot start movement for player %s: no position", playerId);
+            return;
+        }
 
         // Get movement speed from character sheet
         int moveSpeed = getCharacterMoveSpeed(playerId);
@@ -262,13 +354,40 @@ public class GridMovementManager {
         // Create or reset movement state
         MovementState state = playerStates.computeIfAbsent(playerId, MovementState::new);
         state.resetForNewTurn(position, moveSpeed);
+        state.setWorldId(world.getWorldConfig().getUuid());
+        placeCombatant(state.getWorldId(), playerId, position, Faction.PARTY, CreatureSize.MEDIUM);
+        syncPlayerPositions(world);
+
+        // Copy the terrain in reach, then flood fill the turn's budget once;
+        // later clicks are table lookups
+        getArena(world).prefetch(position, moveSpeed);
+        ReachableArea area = getReachableArea(state, world);
 
         player.getPlayerRef().sendMessage(Message.raw(
             String.format("[D&D] Your turn! Movement: %d blocks. Click to select destination.", moveSpeed)
         ));
 
-        LOGGER.atInfo().log("Started movement phase for player %s at %s with %d blocks",
-            playerId, position, moveSpeed);
+        LOGGER.atInfo().log("Started movement phase for player %s at %s with %d blocks (%d cells reachable)",
+            playerId, position, moveSpeed, area.size());
+    }
+
+    /**
+     * Get the cell a player stands in, or null if their entity has no position.
+     */
+    public Vector3i getPlayerCell(Player player) {
+        Ref<EntityStore> ref = player.getReference();
+        if (ref == null || !ref.isValid()) {
+            return null;
+        }
+        TransformComponent transform = ref.getStore().getComponent(ref, TransformComponent.getComponentType());
+        return transform != null ? CreatureSize.MEDIUM.getCorner(transform.getPosition()) : null;
+    }
+
+    /**
+     * Drop a player's search and search count when they leave the server.
+     */
+    public void onPlayerDisconnect(PlayerDisconnectEvent event) {
+        searchService.forget(event.getPlayerRef().getUuid());
     }
 
     /**
@@ -277,13 +396,438 @@ public class GridMovementManager {
     public void endMovementPhase(Player player) {
         UUID playerId = player.getPlayerRef().getUuid();
         MovementState state = playerStates.get(playerId);
+        searchService.forget(playerId);
 
         if (state != null) {
             state.setPlanning(false);
+            state.setReachableArea(null);
             renderer.clearPath(playerId);
+            hoverPreview.clear(playerId);
         }
     }
 
+    /**
+     * Get the reachable area for a movement state, recomputing it only when
+     * the start position or remaining budget has changed since the last fill.
+     */
+    public ReachableArea getReachableArea(MovementState state, World world) {
+        Vector3i start = state.getStartPosition();
+        int remaining = state.getRemainingMovement();
+
+        ReachableArea area = state.getReachableArea();
+        if (area == null || !area.matches(start, remaining)) {
+            area = pathfinder.computeReachableArea(getMovementTerrain(state, world), start, remaining);
+            state.setReachableArea(area);
+        }
+        return area;
+    }
+
+    /**
+     * Check if another combatant stands in a cell, so a mover can pass
+     * through it but not stop there.
+     */
+    public boolean isOccupied(MovementState state, World world, Vector3i cell) {
+        return getMovementTerrain(state, world).isOccupied(cell.x, cell.y, cell.z);
+    }
+
+    /**
+     * Terrain a player moves through: the encounter snapshot with the other
+     * combatants in it.
+     */
+    private TerrainView getMovementTerrain(MovementState state, World world) {
+        OccupancyGrid grid = occupancy.get(world.getWorldConfig().getUuid());
+        if (grid == null) {
+            return getArena(world);
+        }
+        return OccupiedTerrain.of(getArena(world), grid, Faction.PARTY, CreatureSize.MEDIUM,
+            Set.of(state.getPlayerId()));
+    }
+
+    /**
+     * Put a combatant on a world's occupancy grid, or move it there. Called
+     * on every committed move and spawn. Reachable areas in the world are
+     * flooded again on next use, since they may pass or end in the cells.
+     *
+     * @param corner The cell of the combatant, or the corner (lowest x and z)
+     *               of its footprint if it is bigger than one block
+     */
+    public void placeCombatant(UUID worldId, UUID combatantId, Vector3i corner, Faction faction, CreatureSize size) {
+        OccupancyGrid grid = occupancy.computeIfAbsent(worldId, k -> new OccupancyGrid());
+        if (grid.place(combatantId, faction, size, corner)) {
+            onOccupancyChanged(worldId);
+        }
+    }
+
+    /**
+     * Take a combatant off the grid of whichever world it is in (death,
+     * despawn).
+     */
+    public void removeCombatant(UUID combatantId) {
+        for (Map.Entry<UUID, OccupancyGrid> entry : occupancy.entrySet()) {
+            if (entry.getValue().remove(combatantId)) {
+                onOccupancyChanged(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Get a combatant of a world by ID, or null if it is not on the grid.
+     */
+    public Combatant getCombatant(World world, UUID combatantId) {
+        OccupancyGrid grid = occupancy.get(world.getWorldConfig().getUuid());
+        return grid != null ? grid.getOccupant(combatantId) : null;
+    }
+
+    /**
+     * Get every combatant of a world with a block of its body in a box
+     * (bounds included).
+     */
+    public List<Combatant> findCombatantsInBox(World world, Vector3i min, Vector3i max) {
+        syncPlayerPositions(world);
+        OccupancyGrid grid = occupancy.get(world.getWorldConfig().getUuid());
+        if (grid == null) {
+            return List.of();
+        }
+        return grid.findInBox(min.x, min.y, min.z, max.x, max.y, max.z);
+    }
+
+    /**
+     * Get every combatant of a world with a block of its body within a
+     * distance in blocks of a cell.
+     */
+    public List<Combatant> findCombatantsInRadius(World world, Vector3i center, int radius) {
+        syncPlayerPositions(world);
+        OccupancyGrid grid = occupancy.get(world.getWorldConfig().getUuid());
+        if (grid == null) {
+            return List.of();
+        }
+        return grid.findInRadius(center.x, center.y, center.z, radius);
+    }
+
+    /**
+     * Find the nearest enemy of a faction to a cell.
+     *
+     * @return The nearest enemy within maxRadius blocks, or null
+     */
+    public Combatant findNearestEnemy(World world, Vector3i from, Faction faction, int maxRadius) {
+        syncPlayerPositions(world);
+        OccupancyGrid grid = occupancy.get(world.getWorldConfig().getUuid());
+        if (grid == null) {
+            return null;
+        }
+        return grid.findNearest(from.x, from.y, from.z, maxRadius,
+            combatant -> faction.isEnemyOf(combatant.faction()));
+    }
+
+    /**
+     * Move the players on a world's occupancy grid to the cells they stand
+     * in now. Players only go through the grid on a committed move, and walk
+     * freely between turns, so this runs before anything reads the grid for
+     * them. Players being walked along a path keep their destination.
+     */
+    private void syncPlayerPositions(World world) {
+        UUID worldId = world.getWorldConfig().getUuid();
+        OccupancyGrid grid = occupancy.get(worldId);
+        if (grid == null) {
+            return;
+        }
+
+        for (Combatant occupant : grid.getOccupants(Faction.PARTY)) {
+            if (animator.isWalking(occupant.id())) continue;
+
+            Player player = PlayerRegistry.get().getPlayer(world, occupant.id());
+            Vector3i cell = player != null ? getPlayerCell(player) : null;
+            if (cell != null) {
+                placeCombatant(worldId, occupant.id(), cell, Faction.PARTY, CreatureSize.MEDIUM);
+            }
+        }
+    }
+
+    private void onOccupancyChanged(UUID worldId) {
+        for (MovementState state : playerStates.values()) {
+            if (state.getWorldId() == null || state.getWorldId().equals(worldId)) {
+                state.setReachableArea(null);
+            }
+        }
+    }
+
+    /**
+     * Start a new encounter in a world with a fresh terrain snapshot, and put
+     * its players on the occupancy grid where they stand. Called when combat
+     * starts. If another encounter in the world is already fighting, both
+     * share its snapshot.
+     *
+     * @param participants Everyone in the encounter's initiative
+     */
+    public void beginEncounter(World world, Collection<UUID> participants) {
+        UUID worldId = world.getWorldConfig().getUuid();
+        if (TurnManager.get().getActiveEncounterCount(world) <= 1 || !arenas.containsKey(worldId)) {
+            arenas.put(worldId, new ArenaSnapshot(world));
+            planners.put(worldId, new LongRangePlanner(pathfinder, config));
+            pathCaches.put(worldId, new PathCache(config, PATH_CACHE_SIZE));
+        }
+
+        for (UUID combatantId : participants) {
+            placePlayer(world, combatantId);
+        }
+    }
+
+    /**
+     * Put a player on a world's occupancy grid at the cell they stand in.
+     * Called for each player when combat starts and for a player who joins
+     * initiative mid-combat. Does nothing for NPCs, which are placed when
+     * spawned, or for players who are not online in the world.
+     */
+    public void placePlayer(World world, UUID playerId) {
+        Player player = PlayerRegistry.get().getPlayer(world, playerId);
+        Vector3i cell = player != null ? getPlayerCell(player) : null;
+        if (cell != null) {
+            placeCombatant(world.getWorldConfig().getUuid(), playerId, cell, Faction.PARTY, CreatureSize.MEDIUM);
+        }
+    }
+
+    /**
+     * Drop an encounter's per-turn movement data, and the world's terrain
+     * snapshot once no encounter in it is fighting. Called when combat ends.
+     *
+     * @param participants Everyone who was in the encounter's initiative
+     */
+    public void endEncounter(World world, Collection<UUID> participants) {
+        UUID worldId = world.getWorldConfig().getUuid();
+        if (TurnManager.get().getActiveEncounterCount(world) == 0) {
+            arenas.remove(worldId);
+            planners.remove(worldId);
+            pathCaches.remove(worldId);
+        }
+
+        // Players roam freely out of combat; NPCs stay where the GM left them
+        OccupancyGrid grid = occupancy.get(worldId);
+        boolean changed = false;
+        for (UUID combatantId : participants) {
+            MovementState state = playerStates.get(combatantId);
+            if (state != null) {
+                state.setReachableArea(null);
+            }
+
+            // Players are placed at combat start whether or not they had a turn
+            Combatant occupant = grid != null ? grid.getOccupant(combatantId) : null;
+            if (occupant != null && occupant.faction() == Faction.PARTY) {
+                grid.remove(combatantId);
+                changed = true;
+            }
+        }
+        if (changed) {
+            onOccupancyChanged(worldId);
+        }
+    }
+
+    /**
+     * Get the terrain snapshot for a world's encounter, creating one if
+     * movement is used outside a started encounter.
+     */
+    public ArenaSnapshot getArena(World world) {
+        return arenas.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new ArenaSnapshot(world));
+    }
+
+    /**
+     * Get the sector graph for a world's encounter (for long previews and GM
+     * moves across the map), creating one if needed.
+     */
+    public LongRangePlanner getPlanner(World world) {
+        return planners.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new LongRangePlanner(pathfinder, config));
+    }
+
+    /**
+     * Get the path cache for a world's encounter, creating one if needed.
+     */
+    public PathCache getPathCache(World world) {
+        return pathCaches.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new PathCache(config, PATH_CACHE_SIZE));
+    }
+
+    /**
+     * Plan a move for a group of agents (e.g. the GM's NPCs) toward one goal
+     * in a single pass. See {@link GroupMovePlanner}.
+     *
+     * @return One path per start, in the same order
+     */
+    public List<List<Vector3i>> planGroupMove(World world, List<Vector3i> starts, Vector3i goal, int maxDistance) {
+        return planGroupMove(world, List.of(), starts, goal, maxDistance, CreatureSize.MEDIUM, Faction.HOSTILE);
+    }
+
+    /**
+     * Plan a move for a group of combatants of one size and faction toward
+     * one goal. Starts and path cells are the corners (lowest x and z) of
+     * their footprints. Other combatants on the occupancy grid are passed
+     * (allies) or avoided (enemies), and no path ends on one.
+     *
+     * @param movers Ids of the moving combatants, in the same order as starts
+     * @return One path per start, in the same order
+     */
+    public List<List<Vector3i>> planGroupMove(World world, List<UUID> movers, List<Vector3i> starts, Vector3i goal,
+                                              int maxDistance, CreatureSize size, Faction faction) {
+        // Copy the terrain around the whole group in one go
+        Vector3i min = new Vector3i(goal.x, goal.y, goal.z);
+        Vector3i max = new Vector3i(goal.x, goal.y, goal.z);
+        for (Vector3i start : starts) {
+            min = new Vector3i(Math.min(min.x, start.x), Math.min(min.y, start.y), Math.min(min.z, start.z));
+            max = new Vector3i(Math.max(max.x, start.x), Math.max(max.y, start.y), Math.max(max.z, start.z));
+        }
+        ArenaSnapshot arena = getArena(world);
+        arena.prefetch(min, max, maxDistance + size.getFootprint());
+
+        TerrainView terrain = SizedTerrain.of(arena, size);
+        syncPlayerPositions(world);
+        OccupancyGrid grid = occupancy.get(world.getWorldConfig().getUuid());
+        if (grid != null) {
+            terrain = OccupiedTerrain.of(terrain, grid, faction, size, new HashSet<>(movers));
+        }
+        return groupPlanner.plan(terrain, starts, goal, maxDistance);
+    }
+
+    /**
+     * Set the movement multiplier of a box of cells in a world's encounter
+     * (a GM hazard zone or spell area; 1 clears it). Only the cells in the
+     * box are written; caches and reachable areas that may cross it are
+     * dropped.
+     *
+     * @param multiplier 1 to {@value CostField#MAX_MULTIPLIER}
+     * @return The number of cells whose multiplier changed
+     */
+    public int paintMoveCost(World world, Vector3i a, Vector3i b, int multiplier) {
+        UUID worldId = world.getWorldConfig().getUuid();
+        ArenaSnapshot arena = getArena(world);
+        int changed = arena.paintMoveCost(a, b, multiplier);
+        if (changed == 0) {
+            return 0;
+        }
+
+        Vector3i min = new Vector3i(Math.min(a.x, b.x), Math.min(a.y, b.y), Math.min(a.z, b.z));
+        Vector3i max = new Vector3i(Math.max(a.x, b.x), Math.max(a.y, b.y), Math.max(a.z, b.z));
+        PathCache cache = pathCaches.get(worldId);
+        if (cache != null) {
+            cache.onRegionChanged(min, max);
+        }
+        LongRangePlanner planner = planners.get(worldId);
+        if (planner != null) {
+            planner.onRegionChanged(min, max);
+        }
+
+        // A zone can change the cost of many cells at once; flood again on next
+        // use, and re-price any path already planned through it
+        for (MovementState state : playerStates.values()) {
+            if (state.getWorldId() != null && !state.getWorldId().equals(worldId)) {
+                continue;
+            }
+            state.setReachableArea(null);
+            if (state.getPlannedDestination() != null) {
+                state.setPlannedCost((int) Math.ceil(pathfinder.getPathCost(arena, state.getPathWaypoints())));
+            }
+        }
+
+        LOGGER.atFine().log("Painted x%d movement cost on %d cells between %s and %s", multiplier, changed, min, max);
+        return changed;
+    }
+
+    /**
+     * Patch the encounter snapshot after a block changed in the world.
+     * Called on the world thread by {@link BlockChangeSystem} for every block
+     * broken or placed.
+     */
+    public void onBlockChanged(World world, int x, int y, int z) {
+        UUID worldId = world.getWorldConfig().getUuid();
+        PathCache cache = pathCaches.get(worldId);
+        if (cache != null) {
+            cache.onBlockChanged(x, y, z);
+        }
+
+        ArenaSnapshot arena = arenas.get(worldId);
+        if (arena == null) {
+            return;
+        }
+
+        arena.onBlockChanged(x, y, z);
+
+        LongRangePlanner planner = planners.get(worldId);
+        if (planner != null) {
+            planner.onBlockChanged(x, y, z);
+        }
+
+        // Repair the reachable areas of turns in this world around the change
+        // instead of flooding them again
+        for (MovementState state : playerStates.values()) {
+            ReachableArea area = state.getReachableArea();
+            if (area == null) {
+                continue;
+            }
+            if (state.getWorldId() == null) {
+                state.setReachableArea(null);  // Unknown world: flood again on next use
+                continue;
+            }
+            if (!state.getWorldId().equals(worldId)) {
+                continue;
+            }
+
+            IncrementalReachability repair = state.getReachabilityRepair();
+            if (repair == null) {
+                repair = new IncrementalReachability(pathfinder, config, area);
+                state.setReachabilityRepair(repair);
+            }
+            if (repair.onBlockChanged(getMovementTerrain(state, world), x, y, z)) {
+                replanAfterBlockChange(state, world, x, y, z);
+            }
+        }
+    }
+
+    /**
+     * Bring a player's chosen path in line with their repaired reachable
+     * area, so a wall built across it is walked around rather than through.
+     * A destination that went out of reach, or an out-of-reach preview
+     * passing the changed block, is dropped.
+     */
+    private void replanAfterBlockChange(MovementState state, World world, int x, int y, int z) {
+        Vector3i destination = state.getPlannedDestination();
+        if (destination == null || !state.isPlanning()) {
+            return;
+        }
+
+        UUID playerId = state.getPlayerId();
+        ReachableArea area = state.getReachableArea();
+        List<Vector3i> path = state.canReachDestination() ? area.getPath(destination) : null;
+        if (path != null && path.equals(state.getPathWaypoints())) {
+            return;  // The best path did not change
+        }
+        if (path == null && !state.canReachDestination() && !passesNear(state.getPathWaypoints(), x, y, z)) {
+            return;  // Preview beyond reach, nowhere near the change
+        }
+
+        Player player = PlayerRegistry.get().getPlayer(world, playerId);
+        if (path != null) {
+            state.setPathWaypoints(path);
+            state.setPlannedCost((int) Math.ceil(area.getCost(destination)));
+            if (player != null) {
+                renderer.renderPath(player, state, world);
+            }
+        } else {
+            state.clearPlannedPath();
+            renderer.clearPath(playerId);
+            if (player != null) {
+                player.getPlayerRef().sendMessage(Message.raw(
+                    "[D&D] The terrain changed and your path is blocked. Select a new destination."));
+            }
+        }
+        TurnManager.get().refreshHuds(world, playerId);
+    }
+
+    private static boolean passesNear(List<Vector3i> path, int x, int y, int z) {
+        for (Vector3i cell : path) {
+            // Floor below, headroom above, corners beside diagonal steps
+            if (Math.abs(cell.x - x) <= 1 && Math.abs(cell.z - z) <= 1 && y >= cell.y - 1 && y <= cell.y + 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Get the movement speed for a character.
      * Defaults to 6 blocks (30ft) if no character sheet exists.
@@ -319,6 +863,27 @@ public class GridMovementManager {
         return pathfinder;
     }
 
+    /**
+     * Get the off-thread search service (e.g. for its metrics).
+     */
+    public PathfindingService getSearchService() {
+        return searchService;
+    }
+
+    /**
+     * Stop background pathfinding. Called when the plugin shuts down.
+     */
+    public void shutdown() {
+        searchService.shutdown();
+    }
+
+    /**
+     * Get the path walker (e.g. for GM moves).
+     */
+    public MovementAnimator getAnimator() {
+        return animator;
+    }
+
     /**
      * Get the path renderer for external use.
      */
@@ -8,16 +8,41 @@ import java.util.*;
 /**
  * A* pathfinding on the Hytale block grid.
  * Finds paths around obstacles while respecting movement distance limits.
+ *
+ * The search runs on packed long coordinates with primitive node storage and
+ * an indexed heap, so expanding a cell allocates nothing. Buffers are kept per
+ * thread (each world ticks on its own thread) and reused between searches.
+ *
+ * With {@link PathSearchMode#JUMP_POINT} and uniform step costs, findPath
+ * runs Jump Point Search on flat ground: runs of cells with only one optimal
+ * way through are skipped in a single jump. Cells next to a vertical step
+ * stop a jump and are expanded normally, so paths cost the same as plain A*.
+ * Terrain with movement multipliers (difficult terrain, painted hazards)
+ * breaks the uniform-cost assumption, so it is always searched with plain A*.
+ *
+ * With 5e alternating diagonals, a node is a cell plus the parity of the
+ * diagonals taken to reach it (packed into the key, see {@link GridKey}), so
+ * each step is priced exactly; a cell has at most two nodes.
+ *
+ * Creatures bigger than 1x1 search a {@link SizedTerrain} view, where a cell
+ * is the corner of the creature's footprint.
+ *
+ * A search gives up early, returning null, when its thread is interrupted;
+ * {@link PathfindingService} relies on this to cancel superseded searches.
  */
 public class GridPathfinder {
+    private static final int INTERRUPT_CHECK_MASK = 0xFF;  // Poll for cancellation every 256 expansions
+
     private final MovementConfig config;
+    private final ThreadLocal<SearchBuffers> buffers = ThreadLocal.withInitial(SearchBuffers::new);
 
     public GridPathfinder(MovementConfig config) {
         this.config = config;
     }
 
     /**
-     * Find a path from start to end position within the given movement budget.
+     * Find a path from start to end position within the given movement budget,
+     * reading blocks from the live world.
      *
      * @param world The world to pathfind in
      * @param start Starting position
@@ -26,6 +51,31 @@ public class GridPathfinder {
      * @return List of positions forming the path, or null if no path found
      */
     public List<Vector3i> findPath(World world, Vector3i start, Vector3i end, int maxDistance) {
+        return findPath(new WorldTerrain(world), start, end, maxDistance);
+    }
+
+    /**
+     * Find a path from start to end position within the given movement budget.
+     *
+     * @param terrain The terrain to pathfind in (usually the encounter's {@link ArenaSnapshot})
+     * @param start Starting position
+     * @param end Target position
+     * @param maxDistance Maximum movement distance in blocks
+     * @return List of positions forming the path, or null if no path found
+     */
+    public List<Vector3i> findPath(TerrainView terrain, Vector3i start, Vector3i end, int maxDistance) {
+        return findPath(terrain, start, end, maxDistance, config.getMaxPathLength());
+    }
+
+    /**
+     * Find a path from start to end position within the given movement budget
+     * and number of steps, for callers that need longer paths than
+     * {@link MovementConfig#getMaxPathLength()} allows.
+     *
+     * @param maxDepth Maximum number of steps in the path
+     * @return List of positions forming the path, or null if no path found
+     */
+    public List<Vector3i> findPath(TerrainView terrain, Vector3i start, Vector3i end, int maxDistance, int maxDepth) {
         // Quick validation
         if (start.equals(end)) {
             return Collections.singletonList(start);
@@ -37,215 +87,480 @@ public class GridPathfinder {
             return null;
         }
 
-        // A* implementation
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingDouble(n -> n.fScore));
-        Map<Vector3i, Node> allNodes = new HashMap<>();
-        Set<Vector3i> closedSet = new HashSet<>();
+        SearchBuffers search = buffers.get();
+        SearchNodes nodes = search.nodes;
+        NodeHeap openSet = search.openSet;
+        nodes.reset();
+        openSet.clear();
 
-        Node startNode = new Node(start, 0, config.getHeuristic(start, end));
-        openSet.add(startNode);
-        allNodes.put(start, startNode);
+        long goalKey = GridKey.pack(end);
+        int startNode = nodes.add(GridKey.pack(start), directDistance);
+        nodes.relax(startNode, 0, SearchNodes.NONE);
+        openSet.pushOrDecrease(startNode);
 
         int iterations = 0;
-        int maxIterations = config.getMaxPathLength() * 100; // Prevent infinite loops
+        int maxIterations = maxDepth * 100; // Prevent infinite loops
+        boolean jumpPoints = config.isJumpPointSearchActive() && !terrain.hasMoveMultipliers();
 
         while (!openSet.isEmpty() && iterations < maxIterations) {
             iterations++;
 
-            Node current = openSet.poll();
-
-            // Check if we reached the goal
-            if (current.pos.equals(end)) {
-                return reconstructPath(current);
+            if ((iterations & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                return null;
             }
 
-            closedSet.add(current.pos);
+            int current = openSet.poll();
+            long currentKey = nodes.key(current);
 
-            // Explore neighbors
-            for (Vector3i neighbor : getNeighbors(current.pos, world)) {
-                if (closedSet.contains(neighbor)) {
-                    continue;
-                }
+            // Check if we reached the goal, with either diagonal parity
+            if (GridKey.cell(currentKey) == goalKey) {
+                return reconstructPath(nodes, current);
+            }
 
-                double moveCost = config.getMoveCost(current.pos, neighbor);
-                double tentativeG = current.gScore + moveCost;
+            nodes.close(current);
 
-                // Check max distance constraint
-                if (tentativeG > maxDistance) {
-                    continue;
-                }
+            // Depth is stored on the node, so the path length cap is O(1)
+            if (nodes.depth(current) >= maxDepth) {
+                continue;
+            }
 
-                // Check if path length exceeds maximum
-                if (getPathLength(current) >= config.getMaxPathLength()) {
-                    continue;
-                }
+            if (jumpPoints) {
+                expandJumpPoints(terrain, search, current, end, maxDistance, maxDepth);
+            } else {
+                expandNeighbors(terrain, search, current, end, maxDistance);
+            }
+        }
 
-                Node neighborNode = allNodes.get(neighbor);
-                if (neighborNode == null) {
-                    neighborNode = new Node(neighbor, Double.MAX_VALUE, config.getHeuristic(neighbor, end));
-                    allNodes.put(neighbor, neighborNode);
-                }
+        // No path found within constraints
+        return null;
+    }
 
-                if (tentativeG < neighborNode.gScore) {
-                    neighborNode.parent = current;
-                    neighborNode.gScore = tentativeG;
-                    neighborNode.fScore = tentativeG + neighborNode.hScore;
+    /**
+     * Compute every cell reachable from start within the movement budget.
+     * Runs a single Dijkstra flood fill; the result answers any number of
+     * destination queries without searching again.
+     *
+     * @param terrain The terrain to pathfind in (usually the encounter's {@link ArenaSnapshot})
+     * @param start Starting position
+     * @param maxDistance Maximum movement distance in blocks
+     * @return The reachable area, always containing at least the start
+     */
+    public ReachableArea computeReachableArea(TerrainView terrain, Vector3i start, int maxDistance) {
+        return computeReachableArea(terrain, start, maxDistance, config.getMaxPathLength());
+    }
 
-                    // Add to open set if not already there
-                    openSet.remove(neighborNode);
-                    openSet.add(neighborNode);
-                }
+    /**
+     * Compute every cell reachable from start within the movement budget and
+     * number of steps, for callers that flood further than
+     * {@link MovementConfig#getMaxPathLength()} allows.
+     *
+     * @param maxDepth Maximum number of steps to any cell
+     */
+    public ReachableArea computeReachableArea(TerrainView terrain, Vector3i start, int maxDistance, int maxDepth) {
+        SearchBuffers search = buffers.get();
+        SearchNodes nodes = search.nodes;
+        NodeHeap openSet = search.openSet;
+        nodes.reset();
+        openSet.clear();
+
+        int startNode = nodes.add(GridKey.pack(start), 0);
+        nodes.relax(startNode, 0, SearchNodes.NONE);
+        openSet.pushOrDecrease(startNode);
+
+        // No goal and no heuristic: expand until the budget runs out
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            nodes.close(current);
+
+            if (nodes.depth(current) >= maxDepth) {
+                continue;
             }
+
+            expandNeighbors(terrain, search, current, null, maxDistance);
         }
 
-        // No path found within constraints
-        return null;
+        return ReachableArea.of(start, maxDistance, nodes);
     }
 
     /**
-     * Get valid neighboring positions from the current position.
-     * Supports 8-directional movement (orthogonal + diagonal) plus vertical.
+     * Relax the edges to every walkable neighbor of a node.
+     *
+     * @param end The goal for the heuristic, or null for a plain Dijkstra expansion
      */
-    private List<Vector3i> getNeighbors(Vector3i pos, World world) {
-        List<Vector3i> neighbors = new ArrayList<>();
+    private void expandNeighbors(TerrainView terrain, SearchBuffers search, int current,
+                                 Vector3i end, int maxDistance) {
+        long currentKey = search.nodes.key(current);
+        int cx = GridKey.x(currentKey);
+        int cy = GridKey.y(currentKey);
+        int cz = GridKey.z(currentKey);
+
+        int parity = GridKey.parity(currentKey);
+
+        long[] neighbors = search.neighbors;
+        int count = collectNeighbors(terrain, cx, cy, cz, neighbors);
+        for (int i = 0; i < count; i++) {
+            int nx = GridKey.x(neighbors[i]);
+            int ny = GridKey.y(neighbors[i]);
+            int nz = GridKey.z(neighbors[i]);
+            long key = GridKey.withParity(neighbors[i], config.getNextParity(nx - cx, nz - cz, parity));
+            visitNeighbor(search.nodes, search.openSet, current, key, end, maxDistance,
+                config.getMoveCost(nx - cx, ny - cy, nz - cz, parity) * terrain.getMoveMultiplier(nx, ny, nz), 1);
+        }
+    }
 
-        // 8-directional movement on the XZ plane
-        int[] dxz = {-1, 0, 1};
+    /**
+     * Cost of one step between neighboring cells, including the movement
+     * multiplier of the cell stepped into.
+     *
+     * @param from The cell stepped from, carrying the diagonal parity so far
+     */
+    double getStepCost(TerrainView terrain, long from, long to) {
+        int tx = GridKey.x(to);
+        int ty = GridKey.y(to);
+        int tz = GridKey.z(to);
+        return config.getMoveCost(tx - GridKey.x(from), ty - GridKey.y(from), tz - GridKey.z(from), GridKey.parity(from))
+            * terrain.getMoveMultiplier(tx, ty, tz);
+    }
 
-        for (int dx : dxz) {
-            for (int dz : dxz) {
+    /**
+     * Key of a cell stepped into, carrying the diagonal parity after the step.
+     */
+    long getNextState(long from, long to) {
+        return GridKey.withParity(to, config.getNextParity(GridKey.x(to) - GridKey.x(from),
+            GridKey.z(to) - GridKey.z(from), GridKey.parity(from)));
+    }
+
+    /**
+     * Total movement cost of walking a path, including movement multipliers
+     * and alternating diagonals.
+     *
+     * @param path Neighboring cells from start to end
+     */
+    public double getPathCost(TerrainView terrain, List<Vector3i> path) {
+        double cost = 0;
+        long state = path.isEmpty() ? 0 : GridKey.pack(path.get(0));
+        for (int i = 1; i < path.size(); i++) {
+            long next = GridKey.pack(path.get(i));
+            cost += getStepCost(terrain, state, next);
+            state = getNextState(state, next);
+        }
+        return cost;
+    }
+
+    /**
+     * Collect every cell one step away from a cell.
+     * Supports 8-directional movement (orthogonal + diagonal) plus vertical.
+     * Each neighboring column's floors within step height come from one
+     * {@link TerrainView#getStandableLevels} lookup.
+     *
+     * @param out Receives the neighbors as packed keys; needs room for 8
+     * @return The number of neighbors written
+     */
+    int collectNeighbors(TerrainView terrain, int cx, int cy, int cz, long[] out) {
+        int maxStepHeight = getStepHeight();
+        long sameLevel = 1L << maxStepHeight;
+        int count = 0;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
                 if (dx == 0 && dz == 0) continue;
 
-                // Check same level first
-                Vector3i neighbor = new Vector3i(pos.x + dx, pos.y, pos.z + dz);
-                if (isWalkable(world, neighbor, pos)) {
-                    neighbors.add(neighbor);
-                    continue;
-                }
+                int nx = cx + dx;
+                int nz = cz + dz;
 
-                // Check stepping up or down if enabled
-                if (config.isAllowVerticalMovement()) {
-                    for (int dy = -config.getMaxStepHeight(); dy <= config.getMaxStepHeight(); dy++) {
-                        if (dy == 0) continue;
-                        neighbor = new Vector3i(pos.x + dx, pos.y + dy, pos.z + dz);
-                        if (isWalkable(world, neighbor, pos)) {
-                            neighbors.add(neighbor);
-                            break; // Only add first valid vertical option
-                        }
-                    }
-                }
+                // Every level of the column within step height, in one lookup
+                long levels = terrain.getStandableLevels(nx, cy - maxStepHeight, nz, 2 * maxStepHeight + 1);
+                if (levels == 0 || !canCrossDiagonal(terrain, dx, dz, cx, cy, cz)) continue;
+
+                // Same level first, then the lowest vertical option
+                int ny = (levels & sameLevel) != 0
+                    ? cy
+                    : cy - maxStepHeight + Long.numberOfTrailingZeros(levels);
+
+                out[count++] = GridKey.pack(nx, ny, nz);
             }
         }
+        return count;
+    }
 
-        return neighbors;
+    /**
+     * Step height in use, capped so a column's levels fit in one mask.
+     */
+    private int getStepHeight() {
+        return config.isAllowVerticalMovement() ? Math.min(config.getMaxStepHeight(), 31) : 0;
     }
 
     /**
-     * Check if a position is walkable (can stand there).
+     * Jump point expansion of a node.
      *
-     * @param world The world
-     * @param pos The position to check
-     * @param from The position we're coming from
-     * @return true if the position is walkable
+     * Cells next to a vertical step fall back to {@link #expandNeighbors}.
+     * Otherwise only the natural and forced directions away from the parent
+     * are followed (all eight from the start or after a level change), and
+     * each is followed until it reaches a jump point.
      */
-    private boolean isWalkable(World world, Vector3i pos, Vector3i from) {
-        // Check that we can stand at this position:
-        // - The block at pos should be air (or passable)
-        // - The block at pos+1 (head height) should be air (for player height)
-        // - The block below pos should be solid (ground)
+    private void expandJumpPoints(TerrainView terrain, SearchBuffers search, int current,
+                                  Vector3i end, int maxDistance, int maxDepth) {
+        SearchNodes nodes = search.nodes;
+        NodeHeap openSet = search.openSet;
+        long currentKey = nodes.key(current);
+        int cx = GridKey.x(currentKey);
+        int cy = GridKey.y(currentKey);
+        int cz = GridKey.z(currentKey);
+
+        if (!isFlat(terrain, cx, cy, cz)) {
+            expandNeighbors(terrain, search, current, end, maxDistance);
+            return;
+        }
 
-        int blockAtFeet = world.getBlock(pos.x, pos.y, pos.z);
-        int blockAtHead = world.getBlock(pos.x, pos.y + 1, pos.z);
-        int blockBelow = world.getBlock(pos.x, pos.y - 1, pos.z);
+        int parent = nodes.parent(current);
+        if (parent == SearchNodes.NONE || GridKey.y(nodes.key(parent)) != cy) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx == 0 && dz == 0) continue;
+                    jumpFrom(terrain, nodes, openSet, current, dx, dz, end, maxDistance, maxDepth);
+                }
+            }
+            return;
+        }
 
-        // Block ID 0 is typically air
-        boolean feetClear = blockAtFeet == 0;
-        boolean headClear = blockAtHead == 0;
-        boolean groundSolid = blockBelow != 0;
+        long parentKey = nodes.key(parent);
+        int dx = Integer.signum(cx - GridKey.x(parentKey));
+        int dz = Integer.signum(cz - GridKey.z(parentKey));
 
-        if (!feetClear || !headClear || !groundSolid) {
-            return false;
+        if (dx != 0 && dz != 0) {
+            // Diagonal: both components and the diagonal itself are natural
+            jumpFrom(terrain, nodes, openSet, current, dx, 0, end, maxDistance, maxDepth);
+            jumpFrom(terrain, nodes, openSet, current, 0, dz, end, maxDistance, maxDepth);
+            jumpFrom(terrain, nodes, openSet, current, dx, dz, end, maxDistance, maxDepth);
+            if (!terrain.isStandable(cx - dx, cy, cz)) {
+                jumpFrom(terrain, nodes, openSet, current, -dx, dz, end, maxDistance, maxDepth);
+            }
+            if (!terrain.isStandable(cx, cy, cz - dz)) {
+                jumpFrom(terrain, nodes, openSet, current, dx, -dz, end, maxDistance, maxDepth);
+            }
+        } else if (dx != 0) {
+            jumpFrom(terrain, nodes, openSet, current, dx, 0, end, maxDistance, maxDepth);
+            if (!terrain.isStandable(cx, cy, cz + 1)) {
+                jumpFrom(terrain, nodes, openSet, current, dx, 1, end, maxDistance, maxDepth);
+            }
+            if (!terrain.isStandable(cx, cy, cz - 1)) {
+                jumpFrom(terrain, nodes, openSet, current, dx, -1, end, maxDistance, maxDepth);
+            }
+        } else {
+            jumpFrom(terrain, nodes, openSet, current, 0, dz, end, maxDistance, maxDepth);
+            if (!terrain.isStandable(cx + 1, cy, cz)) {
+                jumpFrom(terrain, nodes, openSet, current, 1, dz, end, maxDistance, maxDepth);
+            }
+            if (!terrain.isStandable(cx - 1, cy, cz)) {
+                jumpFrom(terrain, nodes, openSet, current, -1, dz, end, maxDistance, maxDepth);
+            }
         }
+    }
 
-        // For diagonal movement, check that we can actually pass through
-        // (no walls blocking the diagonal)
-        int dx = pos.x - from.x;
-        int dz = pos.z - from.z;
+    /**
+     * Follow one direction from a node and link the jump point it reaches, if any.
+     */
+    private void jumpFrom(TerrainView terrain, SearchNodes nodes, NodeHeap openSet, int current,
+                          int dx, int dz, Vector3i end, int maxDistance, int maxDepth) {
+        long currentKey = nodes.key(current);
+        int cx = GridKey.x(currentKey);
+        int cy = GridKey.y(currentKey);
+        int cz = GridKey.z(currentKey);
+        double stepCost = config.getMoveCost(dx, 0, dz);
+
+        int steps = jump(terrain, cx, cy, cz, dx, dz, end, stepCost,
+            maxDistance - nodes.g(current), maxDepth - nodes.depth(current));
+        if (steps > 0) {
+            visitNeighbor(nodes, openSet, current, GridKey.pack(cx + dx * steps, cy, cz + dz * steps), end, maxDistance,
+                stepCost * steps, steps);
+        }
+    }
 
-        if (dx != 0 && dz != 0) {
-            // Diagonal movement - check both intermediate positions
-            int block1 = world.getBlock(from.x + dx, from.y, from.z);
-            int block2 = world.getBlock(from.x, from.y, from.z + dz);
-            int block1Head = world.getBlock(from.x + dx, from.y + 1, from.z);
-            int block2Head = world.getBlock(from.x, from.y + 1, from.z + dz);
+    /**
+     * Walk from a cell in one direction on its level until reaching the goal,
+     * a cell with a forced neighbor, or a cell next to a vertical step.
+     *
+     * @param budget Movement left for the walk
+     * @param maxSteps Path length left for the walk
+     * @return Steps to the jump point, or 0 if the walk hits a wall or runs out first
+     */
+    private int jump(TerrainView terrain, int x, int y, int z, int dx, int dz, Vector3i end,
+                     double stepCost, double budget, int maxSteps) {
+        for (int steps = 1; steps <= maxSteps && stepCost * steps <= budget; steps++) {
+            int fromX = x;
+            int fromZ = z;
+            x += dx;
+            z += dz;
+
+            if (!isWalkable(terrain, x, y, z, fromX, y, fromZ)) {
+                return 0;
+            }
+            if (end != null && x == end.x && y == end.y && z == end.z) {
+                return steps;
+            }
+            if (!isFlat(terrain, x, y, z)) {
+                return steps;
+            }
+
+            if (dx != 0 && dz != 0) {
+                if (hasForcedNeighbor(terrain, x, y, z, -dx, 0, -dx, dz)
+                    || hasForcedNeighbor(terrain, x, y, z, 0, -dz, dx, -dz)) {
+                    return steps;
+                }
+                // A diagonal stops wherever one of its straight components would
+                double spent = stepCost * steps;
+                if (jump(terrain, x, y, z, dx, 0, end, config.getMoveCost(dx, 0, 0),
+                        budget - spent, maxSteps - steps) > 0
+                    || jump(terrain, x, y, z, 0, dz, end, config.getMoveCost(0, 0, dz),
+                        budget - spent, maxSteps - steps) > 0) {
+                    return steps;
+                }
+            } else if (dx != 0) {
+                if (hasForcedNeighbor(terrain, x, y, z, 0, 1, dx, 1)
+                    || hasForcedNeighbor(terrain, x, y, z, 0, -1, dx, -1)) {
+                    return steps;
+                }
+            } else {
+                if (hasForcedNeighbor(terrain, x, y, z, 1, 0, 1, dz)
+                    || hasForcedNeighbor(terrain, x, y, z, -1, 0, -1, dz)) {
+                    return steps;
+                }
+            }
+        }
+        return 0;
+    }
 
-            // At least one path must be clear for diagonal movement
-            boolean path1Clear = (block1 == 0) && (block1Head == 0);
-            boolean path2Clear = (block2 == 0) && (block2Head == 0);
+    /**
+     * Check for a forced neighbor: a side cell that cannot be stood on, and
+     * past it a cell that is only reachable optimally through this one.
+     */
+    private boolean hasForcedNeighbor(TerrainView terrain, int x, int y, int z,
+                                      int sideX, int sideZ, int forcedX, int forcedZ) {
+        return !terrain.isStandable(x + sideX, y, z + sideZ)
+            && isWalkable(terrain, x + forcedX, y, z + forcedZ, x, y, z);
+    }
 
-            return path1Clear || path2Clear;
+    /**
+     * Check that no neighbor of a cell needs a vertical step to reach, so
+     * the cell behaves like a plain 2D grid cell.
+     */
+    private boolean isFlat(TerrainView terrain, int x, int y, int z) {
+        int maxStepHeight = getStepHeight();
+        if (maxStepHeight == 0) {
+            return true;
         }
 
+        long sameLevel = 1L << maxStepHeight;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (dx == 0 && dz == 0) continue;
+
+                long levels = terrain.getStandableLevels(x + dx, y - maxStepHeight, z + dz, 2 * maxStepHeight + 1);
+                if ((levels & sameLevel) == 0 && levels != 0) {
+                    return false;
+                }
+            }
+        }
         return true;
     }
 
     /**
-     * Reconstruct the path from start to the given node.
+     * Relax the edge from the current node to a walkable neighbor.
+     *
+     * @param key The neighbor's node key, including its diagonal parity
+     * @param steps Cells between the two nodes (more than 1 only for jumps)
      */
-    private List<Vector3i> reconstructPath(Node node) {
-        List<Vector3i> path = new ArrayList<>();
-        Node current = node;
+    private void visitNeighbor(SearchNodes nodes, NodeHeap openSet, int current,
+                               long key, Vector3i end, int maxDistance, double moveCost, int steps) {
+        int neighbor = nodes.find(key);
+        if (neighbor != SearchNodes.NONE && nodes.isClosed(neighbor)) {
+            return;
+        }
+
+        double tentativeG = nodes.g(current) + moveCost;
+
+        // Check max distance constraint
+        if (tentativeG > maxDistance) {
+            return;
+        }
 
-        while (current != null) {
-            path.add(current.pos);
-            current = current.parent;
+        if (neighbor == SearchNodes.NONE) {
+            double heuristic = end != null ? config.getHeuristic(GridKey.x(key), GridKey.y(key), GridKey.z(key),
+                end.x, end.y, end.z, GridKey.parity(key)) : 0;
+            neighbor = nodes.add(key, heuristic);
         }
 
-        Collections.reverse(path);
-        return path;
+        if (tentativeG < nodes.g(neighbor)) {
+            nodes.relax(neighbor, tentativeG, current, steps);
+            openSet.pushOrDecrease(neighbor);
+        }
     }
 
     /**
-     * Get the length of the path to a node.
+     * Check if a position is walkable (can stand there).
+     *
+     * @param terrain The terrain
+     * @param x, y, z The position to check
+     * @param fromX, fromY, fromZ The position we're coming from
+     * @return true if the position is walkable
      */
-    private int getPathLength(Node node) {
-        int length = 0;
-        Node current = node;
-        while (current.parent != null) {
-            length++;
-            current = current.parent;
+    private boolean isWalkable(TerrainView terrain, int x, int y, int z, int fromX, int fromY, int fromZ) {
+        // Check that we can stand at this position:
+        // - The block at pos should be air (or passable)
+        // - The block at pos+1 (head height) should be air (for player height)
+        // - The block below pos should be solid (ground)
+        if (!terrain.isStandable(x, y, z)) {
+            return false;
         }
-        return length;
+
+        return canCrossDiagonal(terrain, x - fromX, z - fromZ, fromX, fromY, fromZ);
     }
 
     /**
-     * Internal node class for A* algorithm.
+     * Check that no walls block a step in a direction (only diagonals can
+     * be blocked). Does not depend on the level stepped to.
      */
-    private static class Node {
-        final Vector3i pos;
-        Node parent;
-        double gScore;  // Cost from start to this node
-        double hScore;  // Heuristic cost from this node to goal
-        double fScore;  // gScore + hScore
-
-        Node(Vector3i pos, double gScore, double hScore) {
-            this.pos = pos;
-            this.gScore = gScore;
-            this.hScore = hScore;
-            this.fScore = gScore + hScore;
+    private boolean canCrossDiagonal(TerrainView terrain, int dx, int dz, int fromX, int fromY, int fromZ) {
+        if (dx != 0 && dz != 0) {
+            // Diagonal movement - at least one intermediate position must be clear
+            return terrain.hasRoom(fromX + dx, fromY, fromZ) || terrain.hasRoom(fromX, fromY, fromZ + dz);
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Node node = (Node) o;
-            return pos.equals(node.pos);
-        }
+        return true;
+    }
 
-        @Override
-        public int hashCode() {
-            return pos.hashCode();
+    /**
+     * Reconstruct the path from start to the given node, filling in the
+     * cells skipped by jumps.
+     */
+    private List<Vector3i> reconstructPath(SearchNodes nodes, int node) {
+        Vector3i[] path = new Vector3i[nodes.depth(node) + 1];
+        for (int current = node; current != SearchNodes.NONE; current = nodes.parent(current)) {
+            long key = nodes.key(current);
+            path[nodes.depth(current)] = GridKey.toVector(key);
+
+            int parent = nodes.parent(current);
+            if (parent == SearchNodes.NONE) continue;
+
+            long parentKey = nodes.key(parent);
+            int px = GridKey.x(parentKey);
+            int pz = GridKey.z(parentKey);
+            int dx = Integer.signum(GridKey.x(key) - px);
+            int dz = Integer.signum(GridKey.z(key) - pz);
+            int base = nodes.depth(parent);
+            for (int i = 1; i < nodes.depth(current) - base; i++) {
+                path[base + i] = new Vector3i(px + dx * i, GridKey.y(key), pz + dz * i);
+            }
         }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    /**
+     * Per-thread search scratch space, reused across calls.
+     */
+    private static final class SearchBuffers {
+        final SearchNodes nodes = new SearchNodes();
+        final NodeHeap openSet = new NodeHeap(nodes);
+        final long[] neighbors = new long[8];
     }
 }
@@ -0,0 +1,305 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Plans one move for a whole group of agents heading to the same goal (e.g.
+ * a GM sending a pack of NPCs toward the party).
+ *
+ * Instead of one search per agent, a single flood from the goal gives every
+ * cell its distance to the goal. Each agent then walks downhill on that field
+ * until its budget runs out, which costs only the length of its path.
+ *
+ * The flood runs over reversed edges and charges each step the way the agent
+ * walks it: the cost of entering the cell nearer the goal, with the diagonal
+ * parity the agent will have there. Walking downhill therefore costs exactly
+ * what the field promised. The flood stops once every agent's start is
+ * settled, so its size follows the farthest agent rather than a fixed cap.
+ * It is still bounded by cost, to twice the farthest agent's distance plus
+ * the budget and never more than the long-range search budget. Only an
+ * agent it does not reach (walled off, or behind a longer detour) gets a
+ * path from a {@link LongRangePlanner}, cut to its budget.
+ *
+ * Agents nearest the goal move first. Every agent's final cell is reserved,
+ * as are the goal itself and the start cells of agents that have not moved
+ * yet, so no two agents end up in the same cell. Agents may pass through
+ * reserved cells, just not stop in them; when choosing between downhill
+ * steps a free cell is preferred, which spreads the group around the goal.
+ * Cells the terrain reports as {@link TerrainView#isOccupied occupied} by
+ * other combatants are treated the same way.
+ *
+ * Not thread-safe: use from the world thread.
+ */
+public class GroupMovePlanner {
+    private static final int LONG_RANGE_DISTANCE = 256;  // Search budget of the long-range fallback
+
+    private final GridPathfinder pathfinder;
+    private final MovementConfig config;
+    private final long[] neighbors = new long[8];
+
+    public GroupMovePlanner(GridPathfinder pathfinder, MovementConfig config) {
+        this.pathfinder = pathfinder;
+        this.config = config;
+    }
+
+    /**
+     * Plan a move for every agent toward a shared goal.
+     *
+     * @param terrain The terrain to pathfind in (usually the encounter's {@link ArenaSnapshot})
+     * @param starts Each agent's position
+     * @param goal Where the group is heading; no agent will stop on it
+     * @param maxDistance Movement budget of each agent in blocks
+     * @return One path per start, in the same order. A path of just the start
+     *         means that agent stays put (blocked, or no route to the goal).
+     */
+    public List<List<Vector3i>> plan(TerrainView terrain, List<Vector3i> starts, Vector3i goal, int maxDistance) {
+        // Distance field out to the farthest agent, with room for detours;
+        // agents it still misses go long-range
+        int farthest = 0;
+        Set<Long> startKeys = new HashSet<>();
+        for (Vector3i start : starts) {
+            farthest = Math.max(farthest, (int) Math.ceil(config.getHeuristic(start, goal)));
+            startKeys.add(GridKey.pack(start));
+        }
+        int maxCost = (int) Math.min(2L * farthest + maxDistance, LONG_RANGE_DISTANCE);
+        Map<Long, Double> field = computeField(terrain, goal, startKeys, maxCost);
+
+        Set<Long> reserved = new HashSet<>();
+        reserved.add(GridKey.pack(goal));
+        for (Vector3i start : starts) {
+            reserved.add(GridKey.pack(start));
+        }
+
+        // Nearest first, so the front of the group claims the cells by the goal
+        Integer[] order = new Integer[starts.size()];
+        double[] startCosts = new double[starts.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            startCosts[i] = field.getOrDefault(GridKey.pack(starts.get(i)), Double.MAX_VALUE);
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(startCosts[a], startCosts[b]));
+
+        // Only built if some agent is out of the field's reach
+        LongRangePlanner longRange = null;
+
+        List<List<Vector3i>> paths = new ArrayList<>(Collections.nCopies(starts.size(), null));
+        for (int agent : order) {
+            Vector3i start = starts.get(agent);
+            reserved.remove(GridKey.pack(start));
+
+            List<Vector3i> path;
+            if (field.containsKey(GridKey.pack(start))) {
+                path = descend(terrain, field, start, maxDistance, reserved);
+            } else {
+                if (longRange == null) {
+                    longRange = new LongRangePlanner(pathfinder, config);
+                }
+                path = followLongRange(terrain, longRange, start, goal, maxDistance, reserved);
+            }
+            reserved.add(GridKey.pack(path.get(path.size() - 1)));
+            paths.set(agent, path);
+        }
+        return paths;
+    }
+
+    /**
+     * Flood backwards from the goal, giving each search node (a cell plus
+     * the agent's diagonal parity there) the cost of walking from it to the
+     * goal. Stops once every start is settled: any node cheaper than a start
+     * is settled by then, which is all a walk downhill from it reads.
+     *
+     * @param startKeys The agents' starts; emptied as they are settled
+     */
+    private Map<Long, Double> computeField(TerrainView terrain, Vector3i goal, Set<Long> startKeys, int maxCost) {
+        int maxStepHeight = config.isAllowVerticalMovement() ? Math.min(config.getMaxStepHeight(), 31) : 0;
+        int parities = config.isAlternatingDiagonals() ? 2 : 1;
+
+        Map<Long, Double> field = new HashMap<>();
+        PriorityQueue<FieldEntry> queue = new PriorityQueue<>((a, b) -> Double.compare(a.cost(), b.cost()));
+        for (int parity = 0; parity < parities; parity++) {
+            long key = GridKey.withParity(GridKey.pack(goal), parity);
+            field.put(key, 0.0);
+            queue.add(new FieldEntry(key, 0));
+        }
+
+        while (!queue.isEmpty()) {
+            FieldEntry entry = queue.poll();
+            long to = entry.key();
+            if (entry.cost() > field.get(to)) {
+                continue;  // Stale entry
+            }
+            if (startKeys.remove(to) && startKeys.isEmpty()) {
+                break;
+            }
+
+            int tx = GridKey.x(to);
+            int ty = GridKey.y(to);
+            int tz = GridKey.z(to);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx == 0 && dz == 0) continue;
+
+                    // Every floor of the column behind that could step here
+                    int fx = tx - dx;
+                    int fz = tz - dz;
+                    long levels = terrain.getStandableLevels(fx, ty - maxStepHeight, fz, 2 * maxStepHeight + 1);
+                    while (levels != 0) {
+                        int fy = ty - maxStepHeight + Long.numberOfTrailingZeros(levels);
+                        levels &= levels - 1;
+                        if (!hasEdge(terrain, fx, fy, fz, to)) continue;
+
+                        for (int parity = 0; parity < parities; parity++) {
+                            if (config.getNextParity(dx, dz, parity) != GridKey.parity(to)) continue;
+
+                            long from = GridKey.withParity(GridKey.pack(fx, fy, fz), parity);
+                            double cost = entry.cost() + pathfinder.getStepCost(terrain, from, to);
+                            if (cost <= maxCost && cost < field.getOrDefault(from, Double.MAX_VALUE)) {
+                                field.put(from, cost);
+                                queue.add(new FieldEntry(from, cost));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Check if a mover at a cell would step into another, as the pathfinder
+     * picks one floor per neighboring column.
+     */
+    private boolean hasEdge(TerrainView terrain, int x, int y, int z, long to) {
+        int count = pathfinder.collectNeighbors(terrain, x, y, z, neighbors);
+        for (int i = 0; i < count; i++) {
+            if (neighbors[i] == GridKey.cell(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walk downhill on the distance field from a start until the goal or the
+     * end of the budget, then back off to the last cell nobody has reserved.
+     */
+    private List<Vector3i> descend(TerrainView terrain, Map<Long, Double> field, Vector3i start,
+                                   int maxDistance, Set<Long> reserved) {
+        List<Vector3i> path = new ArrayList<>();
+        path.add(start);
+
+        long current = GridKey.pack(start);  // Carries the diagonal parity as the agent walks
+        double currentCost = field.get(current);
+        double spent = 0;
+
+        while (currentCost > 0) {
+            int cx = GridKey.x(current);
+            int cy = GridKey.y(current);
+            int cz = GridKey.z(current);
+            int count = pathfinder.collectNeighbors(terrain, cx, cy, cz, neighbors);
+
+            // Downhill steps ranked by the cost to the goal through them
+            long best = 0;
+            double bestCost = currentCost;
+            double bestTotal = Double.MAX_VALUE;
+            double bestStep = 0;
+            long bestFree = 0;
+            double bestFreeCost = currentCost;
+            double bestFreeTotal = Double.MAX_VALUE;
+            double bestFreeStep = 0;
+
+            for (int i = 0; i < count; i++) {
+                long next = pathfinder.getNextState(current, neighbors[i]);
+                Double cost = field.get(next);
+                if (cost == null || cost >= currentCost) continue;
+
+                double step = pathfinder.getStepCost(terrain, current, neighbors[i]);
+                if (spent + step > maxDistance) continue;
+
+                double total = step + cost;
+                if (total < bestTotal) {
+                    best = next;
+                    bestCost = cost;
+                    bestTotal = total;
+                    bestStep = step;
+                }
+                if (total < bestFreeTotal && !isTaken(terrain, next, reserved)) {
+                    bestFree = next;
+                    bestFreeCost = cost;
+                    bestFreeTotal = total;
+                    bestFreeStep = step;
+                }
+            }
+
+            if (bestFreeCost < currentCost) {
+                current = bestFree;
+                currentCost = bestFreeCost;
+                spent += bestFreeStep;
+            } else if (bestCost < currentCost) {
+                current = best;  // Only occupied cells downhill: pass through
+                currentCost = bestCost;
+                spent += bestStep;
+            } else {
+                break;  // Budget spent, or nothing downhill
+            }
+            path.add(GridKey.toVector(current));
+        }
+
+        backOff(terrain, path, reserved);
+        return path;
+    }
+
+    /**
+     * Follow a long-range path toward the goal as far as the budget goes,
+     * then back off to the last cell nobody has reserved.
+     */
+    private List<Vector3i> followLongRange(TerrainView terrain, LongRangePlanner longRange, Vector3i start,
+                                           Vector3i goal, int maxDistance, Set<Long> reserved) {
+        List<Vector3i> path = new ArrayList<>();
+        path.add(start);
+
+        List<Vector3i> route = longRange.findPath(terrain, start, goal, LONG_RANGE_DISTANCE);
+        if (route != null) {
+            long current = GridKey.pack(start);
+            double spent = 0;
+            for (int i = 1; i < route.size(); i++) {
+                long next = GridKey.pack(route.get(i));
+                spent += pathfinder.getStepCost(terrain, current, next);
+                if (spent > maxDistance) break;
+
+                current = pathfinder.getNextState(current, next);
+                path.add(route.get(i));
+            }
+        }
+
+        backOff(terrain, path, reserved);
+        return path;
+    }
+
+    /**
+     * Can't stop in someone else's cell: drop the end of a path until it
+     * ends on a free cell or the start.
+     */
+    private static void backOff(TerrainView terrain, List<Vector3i> path, Set<Long> reserved) {
+        while (path.size() > 1 && isTaken(terrain, GridKey.pack(path.get(path.size() - 1)), reserved)) {
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static boolean isTaken(TerrainView terrain, long cell, Set<Long> reserved) {
+        return reserved.contains(GridKey.cell(cell))
+            || terrain.isOccupied(GridKey.x(cell), GridKey.y(cell), GridKey.z(cell));
+    }
+
+    private record FieldEntry(long key, double cost) {}
+}
@@ -0,0 +1,79 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live path preview under the cursor during a player's movement phase.
+ *
+ * Mouse motion arrives many times per tick, so each event only records the
+ * hovered cell. The first event in a tick schedules one update on the world
+ * thread, which previews whatever cell was hovered last. Hovering the cell
+ * already shown does nothing, and a stationary cursor sends no events at
+ * all. Previews are reachable-area lookups only: hovering never searches,
+ * and cells out of reach just clear the preview.
+ */
+class HoverPreview {
+    private final GridMovementManager manager;
+    private final PathRenderer renderer;
+
+    private final Map<UUID, Vector3i> pending = new ConcurrentHashMap<>();  // Hovered cell waiting for the next update
+    private final Map<UUID, Vector3i> shown = new ConcurrentHashMap<>();    // Cell the preview currently shows
+
+    HoverPreview(GridMovementManager manager, PathRenderer renderer) {
+        this.manager = manager;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Record the cell under a player's cursor.
+     */
+    void onHover(Player player, MovementState state, Vector3i cell, World world) {
+        UUID playerId = state.getPlayerId();
+
+        if (cell.equals(shown.get(playerId))) {
+            pending.remove(playerId);  // Back where we started; drop any newer cell
+            return;
+        }
+
+        // Only the first hover since the last update schedules one
+        if (pending.put(playerId, cell) == null) {
+            world.execute(() -> update(player, state, world));
+        }
+    }
+
+    /**
+     * Drop a player's preview (e.g. when their movement phase ends).
+     */
+    void clear(UUID playerId) {
+        pending.remove(playerId);
+        shown.remove(playerId);
+        renderer.clearPreview(playerId);
+    }
+
+    private void update(Player player, MovementState state, World world) {
+        UUID playerId = state.getPlayerId();
+        Vector3i cell = pending.remove(playerId);
+        if (cell == null) {
+            return;
+        }
+        if (!state.isPlanning()) {
+            clear(playerId);
+            return;
+        }
+
+        shown.put(playerId, cell);
+        List<Vector3i> path = manager.getReachableArea(state, world).getPath(cell);
+        if (path == null || manager.isOccupied(state, world, cell)) {
+            renderer.clearPreview(playerId);
+        } else {
+            renderer.renderPreview(player, path, world);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps a turn's {@link ReachableArea} up to date as blocks change, without
+ * flooding the whole budget again.
+ *
+ * This is Lifelong Planning A* with a fixed start and no heuristic: every
+ * cell keeps its cost (g) and the best cost offered by its predecessors
+ * (rhs). A block change only touches the edges near it, so only the cells
+ * around it are re-evaluated; the queue then carries the difference outward
+ * until every cell within the budget is consistent again. The work is
+ * proportional to the cells whose cost actually changed.
+ *
+ * Seeded from an existing area, so the first flood of a turn still uses the
+ * pathfinder's plain Dijkstra. Only valid for the origin and budget it was
+ * seeded with; a committed move needs a fresh flood. Unlike the flood it
+ * ignores the max path length cap, which a turn's budget never reaches.
+ *
+ * With alternating diagonals the tracked states are the flood's nodes, a
+ * cell plus its diagonal parity, so every step keeps its exact cost.
+ */
+final class IncrementalReachability {
+    private static final double UNREACHED = Double.POSITIVE_INFINITY;
+
+    private final GridPathfinder pathfinder;
+    private final MovementConfig config;
+    private final Vector3i origin;
+    private final long originKey;
+    private final int budget;
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final PriorityQueue<QueueEntry> queue =
+        new PriorityQueue<>((a, b) -> Double.compare(a.priority(), b.priority()));
+    private final long[] successors = new long[8];
+    private final long[] neighbors = new long[8];
+
+    // Area matching the current costs (null after a change until rebuilt)
+    private ReachableArea area;
+
+    IncrementalReachability(GridPathfinder pathfinder, MovementConfig config, ReachableArea seed) {
+        this.pathfinder = pathfinder;
+        this.config = config;
+        this.origin = seed.getOrigin();
+        this.originKey = GridKey.pack(origin);
+        this.budget = seed.getBudget();
+        this.area = seed;
+
+        // A finished flood is already consistent: g == rhs everywhere
+        for (int i = 0; i < seed.nodeCount(); i++) {
+            int predecessor = seed.predecessor(i);
+            Cell cell = new Cell(seed.cost(i), predecessor == SearchNodes.NONE ? originKey : seed.key(predecessor));
+            cells.put(seed.key(i), cell);
+        }
+    }
+
+    /**
+     * Re-evaluate the cells whose incoming edges a changed block can affect,
+     * then propagate the cost changes.
+     *
+     * @param terrain The terrain, already patched with the change
+     * @return false if the block is too far away to matter (nothing was done)
+     */
+    boolean onBlockChanged(TerrainView terrain, int x, int y, int z) {
+        int maxStepHeight = config.isAllowVerticalMovement() ? config.getMaxStepHeight() : 0;
+
+        // A block changes the standability of the cells just above and below
+        // it, and each cell's neighbor scan looks one column out and a step up
+        // or down. Edges into cells outside this box are untouched.
+        int reachXZ = 2;
+        int reachY = 1 + 2 * maxStepHeight;
+        if (Math.abs(x - origin.x) > budget + reachXZ || Math.abs(z - origin.z) > budget + reachXZ
+                || Math.abs(y - origin.y) > budget * Math.max(1, maxStepHeight) + reachY) {
+            return false;
+        }
+
+        int parities = config.isAlternatingDiagonals() ? 2 : 1;
+        for (int bx = x - reachXZ; bx <= x + reachXZ; bx++) {
+            for (int bz = z - reachXZ; bz <= z + reachXZ; bz++) {
+                for (int by = y - reachY; by <= y + reachY; by++) {
+                    for (int parity = 0; parity < parities; parity++) {
+                        updateCell(terrain, GridKey.withParity(GridKey.pack(bx, by, bz), parity));
+                    }
+                }
+            }
+        }
+
+        propagate(terrain);
+        area = null;
+        return true;
+    }
+
+    /**
+     * Get the area for the current costs, rebuilding it after a change.
+     */
+    ReachableArea getArea() {
+        if (area == null) {
+            area = buildArea();
+        }
+        return area;
+    }
+
+    // ==========
+    // LPA* core
+    // ==========
+
+    /**
+     * Recompute a cell's rhs from its predecessors and queue it if that left
+     * it inconsistent.
+     */
+    private void updateCell(TerrainView terrain, long key) {
+        if (key == originKey) {
+            return;  // The origin's cost is 0 whatever the terrain does
+        }
+
+        Cell cell = cells.get(key);
+        double best = UNREACHED;
+        long bestParent = originKey;
+
+        int vx = GridKey.x(key);
+        int vy = GridKey.y(key);
+        int vz = GridKey.z(key);
+        int parity = GridKey.parity(key);
+        if (terrain.isStandable(vx, vy, vz)) {
+            int maxStepHeight = config.isAllowVerticalMovement() ? config.getMaxStepHeight() : 0;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx == 0 && dz == 0) continue;
+                    // A diagonal flips the parity, so it came from the other one
+                    int fromParity = config.getNextParity(dx, dz, parity);
+                    for (int dy = -maxStepHeight; dy <= maxStepHeight; dy++) {
+                        long from = GridKey.withParity(GridKey.pack(vx - dx, vy - dy, vz - dz), fromParity);
+                        Cell predecessor = cells.get(from);
+                        if (predecessor == null || predecessor.g > budget) continue;
+
+                        double cost = predecessor.g + config.getMoveCost(dx, dy, dz, fromParity)
+                            * terrain.getMoveMultiplier(vx, vy, vz);
+                        if (cost < best && hasEdge(terrain, from, key)) {
+                            best = cost;
+                            bestParent = from;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (cell == null) {
+            if (best == UNREACHED) {
+                return;  // Never reached and still unreachable
+            }
+            cell = new Cell(UNREACHED, bestParent);
+            cells.put(key, cell);
+        }
+        cell.rhs = best;
+        cell.parent = bestParent;
+
+        if (cell.g != cell.rhs) {
+            queue.add(new QueueEntry(key, Math.min(cell.g, cell.rhs)));
+        }
+    }
+
+    /**
+     * Settle every inconsistent cell whose cost is within the budget. Cells
+     * beyond it stay queued in case a later change brings them into range.
+     */
+    private void propagate(TerrainView terrain) {
+        while (!queue.isEmpty() && queue.peek().priority() <= budget) {
+            QueueEntry entry = queue.poll();
+            Cell cell = cells.get(entry.key());
+            if (cell.g == cell.rhs || entry.priority() != Math.min(cell.g, cell.rhs)) {
+                continue;  // Stale entry
+            }
+
+            long key = entry.key();
+            if (cell.g > cell.rhs) {
+                cell.g = cell.rhs;  // Got cheaper: settle it
+            } else {
+                cell.g = UNREACHED;  // Got dearer: unsettle it and look again
+                updateCell(terrain, key);
+            }
+
+            int count = pathfinder.collectNeighbors(terrain, GridKey.x(key), GridKey.y(key), GridKey.z(key), successors);
+            for (int i = 0; i < count; i++) {
+                updateCell(terrain, pathfinder.getNextState(key, successors[i]));
+            }
+        }
+    }
+
+    private boolean hasEdge(TerrainView terrain, long from, long to) {
+        int count = pathfinder.collectNeighbors(terrain, GridKey.x(from), GridKey.y(from), GridKey.z(from), neighbors);
+        for (int i = 0; i < count; i++) {
+            if (neighbors[i] == GridKey.cell(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ReachableArea buildArea() {
+        // Cell 0 must be the origin
+        List<Long> reached = new ArrayList<>();
+        Map<Long, Integer> index = new HashMap<>();
+        reached.add(originKey);
+        index.put(originKey, 0);
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            if (entry.getKey() != originKey && entry.getValue().g <= budget) {
+                index.put(entry.getKey(), reached.size());
+                reached.add(entry.getKey());
+            }
+        }
+
+        int count = reached.size();
+        long[] keys = new long[count];
+        double[] costs = new double[count];
+        int[] predecessors = new int[count];
+        int[] depths = new int[count];
+        for (int i = 0; i < count; i++) {
+            Cell cell = cells.get(reached.get(i));
+            keys[i] = reached.get(i);
+            costs[i] = cell.g;
+            predecessors[i] = i == 0 ? SearchNodes.NONE : index.get(cell.parent);
+            depths[i] = -1;
+        }
+
+        // Depths by walking up to the nearest cell that already has one
+        depths[0] = 0;
+        int[] chain = new int[count];
+        for (int i = 1; i < count; i++) {
+            int length = 0;
+            int current = i;
+            while (depths[current] < 0) {
+                chain[length++] = current;
+                current = predecessors[current];
+            }
+            int depth = depths[current];
+            while (length > 0) {
+                depths[chain[--length]] = ++depth;
+            }
+        }
+
+        return new ReachableArea(origin, budget, keys, costs, predecessors, depths);
+    }
+
+    /**
+     * Cost bookkeeping for one cell.
+     */
+    private static final class Cell {
+        double g;
+        double rhs;
+        long parent;
+
+        Cell(double g, long parent) {
+            this.g = g;
+            this.rhs = g;
+            this.parent = parent;
+        }
+    }
+
+    private record QueueEntry(long key, double priority) {}
+}
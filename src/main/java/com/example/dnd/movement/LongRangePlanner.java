@@ -0,0 +1,518 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hierarchical (HPA*-style) pathfinding for distances too long for a single
+ * grid search.
+ *
+ * The arena is split into sectors the size of an {@link ArenaSnapshot}
+ * section. Every border between two sectors is scanned for steps that cross
+ * it, and each contiguous run of crossings becomes one entrance, represented
+ * by the crossing in the middle of the run. A sector caches its entrance
+ * cells and the cost between every pair of them, so a long search runs over
+ * entrances instead of cells. The result is then refined into cells one
+ * sector-sized leg at a time. Sector floods and leg searches pass their own
+ * step limits, so neither is cut short by
+ * {@link MovementConfig#getMaxPathLength()}.
+ *
+ * Sectors are built lazily and dropped when a block near them changes or
+ * their movement costs are repainted, so an edit only rebuilds the part of
+ * the graph it touches. Sectors built from a
+ * frozen view that is missing some of their sections are used for one search
+ * and not cached.
+ *
+ * Thread-safe: searches are serialized on the planner. Block changes are
+ * queued and applied when the next search starts, so the world thread never
+ * waits on a running search.
+ */
+public class LongRangePlanner {
+    private static final int SECTOR_SHIFT = ArenaSnapshot.SECTION_SHIFT;
+    private static final int SECTOR_SIZE = ArenaSnapshot.SECTION_SIZE;
+    private static final int SECTOR_CELLS = SECTOR_SIZE * SECTOR_SIZE * SECTOR_SIZE;  // Longest walk inside a sector
+    private static final double UNREACHABLE = Double.MAX_VALUE;
+
+    private final GridPathfinder pathfinder;
+    private final MovementConfig config;
+    private final Map<Long, Sector> sectors = new HashMap<>();  // sector key -> cached sector
+    private final Queue<long[]> changedRegions = new ConcurrentLinkedQueue<>();  // packed {min, max} block keys
+
+    public LongRangePlanner(GridPathfinder pathfinder, MovementConfig config) {
+        this.pathfinder = pathfinder;
+        this.config = config;
+    }
+
+    /**
+     * Find a path of any length within the movement budget.
+     * Nearby targets use one ordinary search; anything further, or anything
+     * that search fails to reach, goes through the sector graph.
+     *
+     * @param terrain The terrain to pathfind in; may be read from a worker thread
+     * @param start Starting position
+     * @param end Target position
+     * @param maxDistance Maximum movement distance in blocks
+     * @return List of positions forming the path, or null if no path found
+     */
+    public synchronized List<Vector3i> findPath(TerrainView terrain, Vector3i start, Vector3i end, int maxDistance) {
+        applyBlockChanges();
+
+        if (start.equals(end)) {
+            return Collections.singletonList(start);
+        }
+        if (config.getHeuristic(start, end) > maxDistance) {
+            return null;
+        }
+
+        if (config.getHeuristic(start, end) <= 2 * SECTOR_SIZE) {
+            List<Vector3i> direct = pathfinder.findPath(terrain, start, end, maxDistance, maxDistance);
+            if (direct != null) {
+                return direct;
+            }
+        }
+
+        List<Long> waypoints = searchSectors(terrain, start, end, maxDistance);
+        return waypoints != null ? refine(terrain, waypoints, maxDistance) : null;
+    }
+
+    /**
+     * Record that a block changed. The sectors whose entrances or inner costs
+     * may depend on it are dropped before the next search.
+     */
+    public void onBlockChanged(int x, int y, int z) {
+        long key = GridKey.pack(x, y, z);
+        changedRegions.add(new long[] { key, key });
+    }
+
+    /**
+     * Record that the movement costs of a box of cells changed (e.g. a GM
+     * painted a hazard zone).
+     */
+    public void onRegionChanged(Vector3i min, Vector3i max) {
+        changedRegions.add(new long[] { GridKey.pack(min), GridKey.pack(max) });
+    }
+
+    /**
+     * Drop every cached sector.
+     */
+    public synchronized void clear() {
+        changedRegions.clear();
+        sectors.clear();
+    }
+
+    /**
+     * Number of sectors currently cached.
+     */
+    public synchronized int getSectorCount() {
+        applyBlockChanges();
+        return sectors.size();
+    }
+
+    private void applyBlockChanges() {
+        int reach = 2 + Math.max(1, config.getMaxStepHeight());
+        long[] region;
+        while ((region = changedRegions.poll()) != null) {
+            long min = region[0];
+            long max = region[1];
+            for (int sx = (GridKey.x(min) - reach) >> SECTOR_SHIFT; sx <= (GridKey.x(max) + reach) >> SECTOR_SHIFT; sx++) {
+                for (int sy = (GridKey.y(min) - reach) >> SECTOR_SHIFT; sy <= (GridKey.y(max) + reach) >> SECTOR_SHIFT; sy++) {
+                    for (int sz = (GridKey.z(min) - reach) >> SECTOR_SHIFT; sz <= (GridKey.z(max) + reach) >> SECTOR_SHIFT; sz++) {
+                        sectors.remove(GridKey.pack(sx, sy, sz));
+                    }
+                }
+            }
+        }
+    }
+
+    // ========== Abstract search ==========
+
+    /**
+     * A* over the entrance graph.
+     *
+     * @return The start, the entrances passed through, and the goal, or null if unreachable
+     */
+    private List<Long> searchSectors(TerrainView terrain, Vector3i start, Vector3i end, int maxDistance) {
+        Map<Long, Sector> scratch = new HashMap<>();
+        long startKey = GridKey.pack(start);
+        long goalKey = GridKey.pack(end);
+        long startSectorKey = sectorOf(startKey);
+        long goalSectorKey = sectorOf(goalKey);
+
+        ReachableArea fromStart = floodSector(terrain, start, startSectorKey);
+        ReachableArea toGoal = floodSector(terrain, end, goalSectorKey);
+
+        Map<Long, Double> g = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        Set<Long> closed = new HashSet<>();
+        PriorityQueue<OpenEntry> open = new PriorityQueue<>();
+
+        g.put(startKey, 0.0);
+        open.add(new OpenEntry(startKey, config.getHeuristic(start, end)));
+
+        while (!open.isEmpty()) {
+            long key = open.poll().key();
+            if (!closed.add(key)) {
+                continue;  // Stale entry for a node already settled
+            }
+            if (key == goalKey) {
+                return walkParents(parents, goalKey);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+
+            double gKey = g.get(key);
+            Sector sector = sector(terrain, sectorOf(key), scratch);
+
+            if (key == startKey) {
+                for (long entrance : sector.entrances) {
+                    double cost = fromStart.getCost(entrance);
+                    if (cost >= 0) {
+                        relax(g, parents, open, key, entrance, cost, end, maxDistance);
+                    }
+                }
+                double direct = fromStart.getCost(goalKey);
+                if (direct >= 0) {
+                    relax(g, parents, open, key, goalKey, direct, end, maxDistance);
+                }
+            }
+
+            int index = sector.indexOf(key);
+            if (index < 0) {
+                continue;
+            }
+
+            for (int other = 0; other < sector.entrances.length; other++) {
+                if (other != index && sector.costs[index][other] != UNREACHABLE) {
+                    relax(g, parents, open, key, sector.entrances[other], gKey + sector.costs[index][other],
+                        end, maxDistance);
+                }
+            }
+            for (long link : sector.links[index]) {
+                relax(g, parents, open, key, link, gKey + pathfinder.getStepCost(terrain, key, link), end, maxDistance);
+            }
+            if (sectorOf(key) == goalSectorKey) {
+                double cost = toGoal.getCost(key);
+                if (cost >= 0) {
+                    relax(g, parents, open, key, goalKey, gKey + cost, end, maxDistance);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void relax(Map<Long, Double> g, Map<Long, Long> parents, PriorityQueue<OpenEntry> open,
+                       long from, long to, double gScore, Vector3i end, int maxDistance) {
+        if (gScore > maxDistance || gScore >= g.getOrDefault(to, UNREACHABLE)) {
+            return;
+        }
+        g.put(to, gScore);
+        parents.put(to, from);
+        double h = config.getHeuristic(GridKey.x(to), GridKey.y(to), GridKey.z(to), end.x, end.y, end.z);
+        open.add(new OpenEntry(to, gScore + h));
+    }
+
+    private static List<Long> walkParents(Map<Long, Long> parents, long goalKey) {
+        List<Long> waypoints = new ArrayList<>();
+        for (Long key = goalKey; key != null; key = parents.get(key)) {
+            waypoints.add(key);
+        }
+        Collections.reverse(waypoints);
+        return waypoints;
+    }
+
+    /**
+     * Turn entrance waypoints into cells with one short grid search per leg.
+     */
+    private List<Vector3i> refine(TerrainView terrain, List<Long> waypoints, int maxDistance) {
+        List<Vector3i> path = new ArrayList<>();
+        path.add(GridKey.toVector(waypoints.get(0)));
+        long state = waypoints.get(0);  // Diagonal parity carries over from leg to leg
+        double spent = 0;
+
+        for (int i = 1; i < waypoints.size(); i++) {
+            Vector3i from = path.get(path.size() - 1);
+            Vector3i to = GridKey.toVector(waypoints.get(i));
+            int budget = (int) (maxDistance - spent);
+            List<Vector3i> leg = pathfinder.findPath(terrain, from, to, budget, budget);  // Every step costs at least 1
+            if (leg == null) {
+                return null;
+            }
+            for (int step = 1; step < leg.size(); step++) {
+                long next = GridKey.pack(leg.get(step));
+                spent += pathfinder.getStepCost(terrain, state, next);
+                state = pathfinder.getNextState(state, next);
+                path.add(leg.get(step));
+            }
+        }
+        return path;
+    }
+
+    // ========== Sectors ==========
+
+    private Sector sector(TerrainView terrain, long sectorKey, Map<Long, Sector> scratch) {
+        Sector sector = sectors.get(sectorKey);
+        if (sector == null) {
+            sector = scratch.get(sectorKey);
+        }
+        if (sector == null) {
+            sector = buildSector(terrain, sectorKey);
+            (sector.complete ? sectors : scratch).put(sectorKey, sector);
+        }
+        return sector;
+    }
+
+    /**
+     * Find a sector's entrances on all 26 borders and the cost between each pair.
+     */
+    private Sector buildSector(TerrainView terrain, long sectorKey) {
+        int sx = GridKey.x(sectorKey);
+        int sy = GridKey.y(sectorKey);
+        int sz = GridKey.z(sectorKey);
+
+        // Entrance cell -> cells it links to across a border
+        Map<Long, List<Long>> links = new LinkedHashMap<>();
+        boolean complete = true;
+
+        for (int ox = -1; ox <= 1; ox++) {
+            for (int oy = -1; oy <= 1; oy++) {
+                for (int oz = -1; oz <= 1; oz++) {
+                    complete &= terrain.isLoaded((sx + ox) << SECTOR_SHIFT, (sy + oy) << SECTOR_SHIFT,
+                        (sz + oz) << SECTOR_SHIFT);
+                    if (ox == 0 && oy == 0 && oz == 0) continue;
+
+                    // Scan each border from its lower sector so both sides agree on entrances
+                    long otherKey = GridKey.pack(sx + ox, sy + oy, sz + oz);
+                    boolean low = sectorKey < otherKey;
+                    for (long[] crossing : borderEntrances(terrain, low ? sectorKey : otherKey, low ? otherKey : sectorKey)) {
+                        long inside = low ? crossing[0] : crossing[1];
+                        long outside = low ? crossing[1] : crossing[0];
+                        links.computeIfAbsent(inside, k -> new ArrayList<>()).add(outside);
+                    }
+                }
+            }
+        }
+
+        long[] entrances = new long[links.size()];
+        long[][] linkArrays = new long[links.size()][];
+        int count = 0;
+        for (Map.Entry<Long, List<Long>> entry : links.entrySet()) {
+            entrances[count] = entry.getKey();
+            linkArrays[count] = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            count++;
+        }
+
+        double[][] costs = new double[count][count];
+        for (int i = 0; i < count; i++) {
+            ReachableArea area = floodSector(terrain, GridKey.toVector(entrances[i]), sectorKey);
+            for (int j = 0; j < count; j++) {
+                double cost = area.getCost(entrances[j]);
+                costs[i][j] = cost >= 0 ? cost : UNREACHABLE;
+            }
+        }
+
+        return new Sector(entrances, costs, linkArrays, complete);
+    }
+
+    /**
+     * Find the entrances on the border between two sectors.
+     * Crossings whose cells touch on both sides are one entrance, represented
+     * by its middle crossing.
+     *
+     * @return Pairs of {cell in low sector, cell in high sector}
+     */
+    private List<long[]> borderEntrances(TerrainView terrain, long lowKey, long highKey) {
+        int reach = Math.max(1, config.isAllowVerticalMovement() ? config.getMaxStepHeight() : 0);
+        int[] lowMin = sectorMin(lowKey);
+        int[] highMin = sectorMin(highKey);
+
+        // Cells of the low sector within one step of the high sector
+        int[] from = new int[3];
+        int[] to = new int[3];
+        for (int axis = 0; axis < 3; axis++) {
+            from[axis] = Math.max(lowMin[axis], highMin[axis] - reach);
+            to[axis] = Math.min(lowMin[axis] + SECTOR_SIZE - 1, highMin[axis] + SECTOR_SIZE - 1 + reach);
+            if (from[axis] > to[axis]) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<long[]> crossings = new ArrayList<>();
+        long[] neighbors = new long[8];
+        for (int x = from[0]; x <= to[0]; x++) {
+            for (int y = from[1]; y <= to[1]; y++) {
+                for (int z = from[2]; z <= to[2]; z++) {
+                    if (!terrain.isStandable(x, y, z)) continue;
+
+                    int count = pathfinder.collectNeighbors(terrain, x, y, z, neighbors);
+                    for (int i = 0; i < count; i++) {
+                        if (sectorOf(neighbors[i]) == highKey) {
+                            crossings.add(new long[] {GridKey.pack(x, y, z), neighbors[i]});
+                        }
+                    }
+                }
+            }
+        }
+
+        // Group touching crossings (union-find over the scan order)
+        int[] group = new int[crossings.size()];
+        for (int i = 0; i < group.length; i++) {
+            group[i] = i;
+            for (int j = 0; j < i; j++) {
+                if (touches(crossings.get(i)[0], crossings.get(j)[0])
+                    && touches(crossings.get(i)[1], crossings.get(j)[1])) {
+                    union(group, i, j);
+                }
+            }
+        }
+
+        Map<Integer, List<long[]>> runs = new LinkedHashMap<>();
+        for (int i = 0; i < group.length; i++) {
+            runs.computeIfAbsent(find(group, i), k -> new ArrayList<>()).add(crossings.get(i));
+        }
+
+        List<long[]> entrances = new ArrayList<>(runs.size());
+        for (List<long[]> run : runs.values()) {
+            entrances.add(run.get(run.size() / 2));
+        }
+        return entrances;
+    }
+
+    /**
+     * Flood fill from a cell without leaving its sector. The sector bounds
+     * the flood, so the only step limit is the number of cells in it, and
+     * winding corridors and spiral stairs keep their links.
+     */
+    private ReachableArea floodSector(TerrainView terrain, Vector3i from, long sectorKey) {
+        return pathfinder.computeReachableArea(new SectorTerrain(terrain, sectorMin(sectorKey)), from,
+            Integer.MAX_VALUE, SECTOR_CELLS);
+    }
+
+    private static long sectorOf(long cellKey) {
+        return GridKey.pack(GridKey.x(cellKey) >> SECTOR_SHIFT, GridKey.y(cellKey) >> SECTOR_SHIFT,
+            GridKey.z(cellKey) >> SECTOR_SHIFT);
+    }
+
+    private static int[] sectorMin(long sectorKey) {
+        return new int[] {
+            GridKey.x(sectorKey) << SECTOR_SHIFT,
+            GridKey.y(sectorKey) << SECTOR_SHIFT,
+            GridKey.z(sectorKey) << SECTOR_SHIFT
+        };
+    }
+
+    private static boolean touches(long a, long b) {
+        return Math.abs(GridKey.x(a) - GridKey.x(b)) <= 1
+            && Math.abs(GridKey.y(a) - GridKey.y(b)) <= 1
+            && Math.abs(GridKey.z(a) - GridKey.z(b)) <= 1;
+    }
+
+    private static int find(int[] group, int i) {
+        while (group[i] != i) {
+            group[i] = group[group[i]];
+            i = group[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] group, int a, int b) {
+        group[find(group, a)] = find(group, b);
+    }
+
+    /**
+     * Cached entrances of one sector.
+     */
+    private static final class Sector {
+        final long[] entrances;     // Entrance cells inside the sector
+        final double[][] costs;     // Cost between entrances without leaving the sector
+        final long[][] links;       // Cells across a border, per entrance
+        final boolean complete;     // Built from fully loaded terrain, safe to cache
+
+        Sector(long[] entrances, double[][] costs, long[][] links, boolean complete) {
+            this.entrances = entrances;
+            this.costs = costs;
+            this.links = links;
+            this.complete = complete;
+        }
+
+        int indexOf(long key) {
+            for (int i = 0; i < entrances.length; i++) {
+                if (entrances[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Terrain view that only lets a creature stand inside one sector.
+     */
+    private static final class SectorTerrain implements TerrainView {
+        private final TerrainView terrain;
+        private final int minX, minY, minZ;
+
+        SectorTerrain(TerrainView terrain, int[] min) {
+            this.terrain = terrain;
+            this.minX = min[0];
+            this.minY = min[1];
+            this.minZ = min[2];
+        }
+
+        @Override
+        public boolean isSolid(int x, int y, int z) {
+            return terrain.isSolid(x, y, z);
+        }
+
+        @Override
+        public boolean hasFooting(int x, int y, int z) {
+            return terrain.hasFooting(x, y, z);
+        }
+
+        @Override
+        public boolean hasRoom(int x, int y, int z) {
+            return terrain.hasRoom(x, y, z);
+        }
+
+        @Override
+        public int getMoveMultiplier(int x, int y, int z) {
+            return terrain.getMoveMultiplier(x, y, z);
+        }
+
+        @Override
+        public boolean hasMoveMultipliers() {
+            return terrain.hasMoveMultipliers();
+        }
+
+        @Override
+        public long getStandableLevels(int x, int fromY, int z, int height) {
+            if (x < minX || x >= minX + SECTOR_SIZE || z < minZ || z >= minZ + SECTOR_SIZE) {
+                return 0;
+            }
+            // Keep only the levels inside the sector
+            int low = Math.max(0, minY - fromY);
+            int high = Math.min(height, minY + SECTOR_SIZE - fromY);
+            if (low >= high) {
+                return 0;
+            }
+            return terrain.getStandableLevels(x, fromY, z, height) & (((1L << (high - low)) - 1) << low);
+        }
+
+        @Override
+        public boolean isStandable(int x, int y, int z) {
+            return x >= minX && x < minX + SECTOR_SIZE
+                && y >= minY && y < minY + SECTOR_SIZE
+                && z >= minZ && z < minZ + SECTOR_SIZE
+                && terrain.isStandable(x, y, z);
+        }
+    }
+
+    private record OpenEntry(long key, double f) implements Comparable<OpenEntry> {
+        @Override
+        public int compareTo(OpenEntry other) {
+            return Double.compare(f, other.f);
+        }
+    }
+}
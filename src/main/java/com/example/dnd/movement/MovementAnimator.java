@@ -0,0 +1,183 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Walks entities along their committed paths, cell by cell, at
+ * {@link MovementConfig#getWalkSpeed()}.
+ *
+ * Walkers advance on the world tick (see {@link com.example.dnd.WorldTickSystem}):
+ * one pass per tick moves every walker in the world by the tick's time, so
+ * ten NPCs cost one pass. Positions are set on the entities' transforms,
+ * which the server sends out together in its next entity update. A world
+ * with nobody walking costs nothing per tick.
+ *
+ * Walkers are only touched from their world's thread.
+ */
+public class MovementAnimator {
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private final MovementConfig config;
+    private final Map<UUID, WorldWalkers> worlds = new ConcurrentHashMap<>();  // world UUID -> walkers
+
+    public MovementAnimator(MovementConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Start walking an entity along a path, replacing any walk it is
+     * already on. Call from the world thread.
+     *
+     * @param path Cells to walk through, starting where the entity stands
+     *             (corners of the footprint for creatures bigger than one block)
+     * @param onArrive Run on the world thread when the walk ends, or null
+     */
+    public void walk(World world, UUID moverId, Ref<EntityStore> ref, List<Vector3i> path, CreatureSize size,
+                     Runnable onArrive) {
+        if (path.size() < 2) {
+            if (onArrive != null) onArrive.run();
+            return;
+        }
+
+        WorldWalkers walkers = worlds.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new WorldWalkers());
+        walkers.walkers.put(moverId, new Walker(ref, path, size, onArrive));
+    }
+
+    /**
+     * Move every walker of a world by one tick. Call from the world thread.
+     *
+     * @param dt Seconds since the world's last tick
+     */
+    public void tick(World world, float dt) {
+        WorldWalkers walkers = worlds.get(world.getWorldConfig().getUuid());
+        if (walkers != null && !walkers.walkers.isEmpty()) {
+            walkers.tick(config.getWalkSpeed() * dt);
+        }
+    }
+
+    /**
+     * Check if an entity is still walking.
+     */
+    public boolean isWalking(UUID moverId) {
+        for (WorldWalkers walkers : worlds.values()) {
+            if (walkers.walkers.containsKey(moverId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of entities walking in a world.
+     */
+    public int getWalkerCount(World world) {
+        WorldWalkers walkers = worlds.get(world.getWorldConfig().getUuid());
+        return walkers != null ? walkers.walkers.size() : 0;
+    }
+
+    /**
+     * The walkers of one world.
+     */
+    private static final class WorldWalkers {
+        private final Map<UUID, Walker> walkers = new HashMap<>();
+
+        /**
+         * Move every walker of the world some distance further.
+         */
+        void tick(double distance) {
+            List<Runnable> arrivals = new ArrayList<>();
+            for (Iterator<Walker> it = walkers.values().iterator(); it.hasNext(); ) {
+                Walker walker = it.next();
+                if (!walker.advance(distance)) {
+                    it.remove();
+                    if (walker.onArrive != null) {
+                        arrivals.add(walker.onArrive);
+                    }
+                }
+            }
+
+            for (Runnable arrival : arrivals) {
+                arrival.run();  // May start new walks
+            }
+        }
+    }
+
+    /**
+     * One entity's progress along its path.
+     */
+    private static final class Walker {
+        private final Ref<EntityStore> ref;
+        private final List<Vector3i> path;
+        private final CreatureSize size;
+        private final Runnable onArrive;
+        private int segment;        // Index of the cell being walked from
+        private double travelled;   // Blocks walked along the current segment
+
+        Walker(Ref<EntityStore> ref, List<Vector3i> path, CreatureSize size, Runnable onArrive) {
+            this.ref = ref;
+            this.path = new ArrayList<>(path);
+            this.size = size;
+            this.onArrive = onArrive;
+        }
+
+        /**
+         * Walk some distance further and move the entity there.
+         *
+         * @return False once the walk is over (arrived, or the entity is gone)
+         */
+        boolean advance(double distance) {
+            if (!ref.isValid()) {
+                return false;
+            }
+            TransformComponent transform = ref.getStore().getComponent(ref, TransformComponent.getComponentType());
+            if (transform == null) {
+                LOGGER.atFine().log("Walker lost its transform; stopping");
+                return false;
+            }
+
+            travelled += distance;
+            while (segment < path.size() - 1 && travelled >= length(segment)) {
+                travelled -= length(segment);
+                segment++;
+            }
+
+            Vector3d from = size.getCenter(path.get(segment));
+            if (segment == path.size() - 1) {
+                transform.teleportPosition(from);
+                return false;
+            }
+
+            Vector3d to = size.getCenter(path.get(segment + 1));
+            double t = travelled / length(segment);
+            transform.teleportPosition(new Vector3d(
+                from.getX() + (to.getX() - from.getX()) * t,
+                from.getY() + (to.getY() - from.getY()) * t,
+                from.getZ() + (to.getZ() - from.getZ()) * t
+            ));
+            return true;
+        }
+
+        private double length(int segment) {
+            Vector3i a = path.get(segment);
+            Vector3i b = path.get(segment + 1);
+            int dx = b.x - a.x;
+            int dy = b.y - a.y;
+            int dz = b.z - a.z;
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    }
+}
@@ -16,15 +16,22 @@ public class MovementConfig {
 
     // Movement costs
     private double orthogonalCost = 1.0;    // Cost for N/S/E/W movement
-    private double diagonalCost = 1.0;      // Cost for diagonal (configurable to 1.5)
+    private double diagonalCost = 1.0;      // Cost for diagonal when not alternating
+    private boolean alternatingDiagonals;   // 5e variant: diagonals alternate 1, 2, 1, 2...
 
     // Default movement speeds
     private int defaultMoveSpeed = 6;        // Default movement in blocks (30ft)
+    private double walkSpeed = 4.0;          // Blocks per second when walking a committed path
 
     // Pathfinding settings
     private int maxPathLength = 50;          // Maximum path length to search
     private boolean allowVerticalMovement = true;  // Allow moving up/down blocks
     private int maxStepHeight = 1;           // Maximum height difference per step
+    private int pathfindingThreads = 2;      // Worker threads for off-thread searches
+    private PathSearchMode searchMode = PathSearchMode.ASTAR;
+
+    // Bumped by every setter that can change which path is found
+    private int revision;
 
     private MovementConfig() {}
 
@@ -39,17 +46,46 @@ public class MovementConfig {
      * Calculate the movement cost between two adjacent positions.
      */
     public double getMoveCost(Vector3i from, Vector3i to) {
-        int dx = Math.abs(from.x - to.x);
-        int dz = Math.abs(from.z - to.z);
-        int dy = Math.abs(from.y - to.y);
+        return getMoveCost(to.x - from.x, to.y - from.y, to.z - from.z);
+    }
+
+    /**
+     * Calculate the movement cost for a single step by its offsets, as the
+     * first diagonal of a move when diagonals alternate.
+     */
+    public double getMoveCost(int dx, int dy, int dz) {
+        return getMoveCost(dx, dy, dz, 0);
+    }
 
+    /**
+     * Calculate the movement cost for a single step by its offsets.
+     * Allocation-free form used by the pathfinder's inner loop.
+     *
+     * @param parity 1 if an odd number of diagonals came before this step
+     *               (only matters with alternating diagonals)
+     */
+    public double getMoveCost(int dx, int dy, int dz, int parity) {
         // If there's vertical movement, add extra cost
-        double verticalCost = dy > 0 ? dy : 0;
+        double verticalCost = Math.abs(dy);
 
         // Check if diagonal (both x and z changed)
-        boolean isDiagonal = dx > 0 && dz > 0;
+        boolean isDiagonal = dx != 0 && dz != 0;
+        if (!isDiagonal) {
+            return orthogonalCost + verticalCost;
+        }
+        if (alternatingDiagonals) {
+            // Every second diagonal costs double (5-10-5 feet)
+            return (parity == 0 ? orthogonalCost : 2 * orthogonalCost) + verticalCost;
+        }
+        return diagonalCost + verticalCost;
+    }
 
-        return (isDiagonal ? diagonalCost : orthogonalCost) + verticalCost;
+    /**
+     * Get the diagonal parity after a step: flipped by diagonals when they
+     * alternate, always 0 otherwise so searches keep one node per cell.
+     */
+    public int getNextParity(int dx, int dz, int parity) {
+        return alternatingDiagonals && dx != 0 && dz != 0 ? parity ^ 1 : parity;
     }
 
     /**
@@ -57,12 +93,32 @@ public class MovementConfig {
      * Uses Chebyshev distance for 8-directional movement.
      */
     public double getHeuristic(Vector3i from, Vector3i to) {
-        int dx = Math.abs(from.x - to.x);
-        int dy = Math.abs(from.y - to.y);
-        int dz = Math.abs(from.z - to.z);
+        return getHeuristic(from.x, from.y, from.z, to.x, to.y, to.z);
+    }
+
+    /**
+     * Calculate the heuristic distance between two points given as coordinates.
+     */
+    public double getHeuristic(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        return getHeuristic(fromX, fromY, fromZ, toX, toY, toZ, 0);
+    }
+
+    /**
+     * Calculate the heuristic distance from a search node with a diagonal
+     * parity. With alternating diagonals this is the exact open-ground cost,
+     * which keeps the larger search space from costing extra expansions.
+     */
+    public double getHeuristic(int fromX, int fromY, int fromZ, int toX, int toY, int toZ, int parity) {
+        int dx = Math.abs(fromX - toX);
+        int dy = Math.abs(fromY - toY);
+        int dz = Math.abs(fromZ - toZ);
 
         // Chebyshev distance for 8-directional movement on XZ plane
         int horizontalDist = Math.max(dx, dz);
+        if (alternatingDiagonals) {
+            // Every second diagonal counts one extra square
+            horizontalDist += (Math.min(dx, dz) + parity) / 2;
+        }
 
         // Include vertical distance
         return horizontalDist + dy;
@@ -76,6 +132,7 @@ public class MovementConfig {
 
     public void setOrthogonalCost(double orthogonalCost) {
         this.orthogonalCost = orthogonalCost;
+        revision++;
     }
 
     public double getDiagonalCost() {
@@ -84,13 +141,23 @@ public class MovementConfig {
 
     public void setDiagonalCost(double diagonalCost) {
         this.diagonalCost = diagonalCost;
+        this.alternatingDiagonals = false;
+        revision++;
     }
 
     /**
-     * Enable 5e variant diagonal movement (alternating 1-2-1-2 averages to 1.5).
+     * Enable 5e variant diagonal movement: the first diagonal of a move costs
+     * 1 block, the second 2, and so on (5-10-5 feet). Searches track the
+     * parity exactly, so every path costs a whole number of blocks.
      */
     public void setAlternatingDiagonals(boolean enabled) {
-        this.diagonalCost = enabled ? 1.5 : 1.0;
+        this.alternatingDiagonals = enabled;
+        this.diagonalCost = 1.0;
+        revision++;
+    }
+
+    public boolean isAlternatingDiagonals() {
+        return alternatingDiagonals;
     }
 
     public int getDefaultMoveSpeed() {
@@ -101,12 +168,24 @@ public class MovementConfig {
         this.defaultMoveSpeed = defaultMoveSpeed;
     }
 
+    public double getWalkSpeed() {
+        return walkSpeed;
+    }
+
+    /**
+     * Set how fast creatures walk their committed paths, in blocks per second.
+     */
+    public void setWalkSpeed(double walkSpeed) {
+        this.walkSpeed = walkSpeed;
+    }
+
     public int getMaxPathLength() {
         return maxPathLength;
     }
 
     public void setMaxPathLength(int maxPathLength) {
         this.maxPathLength = maxPathLength;
+        revision++;
     }
 
     public boolean isAllowVerticalMovement() {
@@ -115,6 +194,7 @@ public class MovementConfig {
 
     public void setAllowVerticalMovement(boolean allowVerticalMovement) {
         this.allowVerticalMovement = allowVerticalMovement;
+        revision++;
     }
 
     public int getMaxStepHeight() {
@@ -123,5 +203,43 @@ public class MovementConfig {
 
     public void setMaxStepHeight(int maxStepHeight) {
         this.maxStepHeight = maxStepHeight;
+        revision++;
+    }
+
+    public PathSearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    public void setSearchMode(PathSearchMode searchMode) {
+        this.searchMode = searchMode;
+        revision++;
+    }
+
+    /**
+     * Check if jump point search can be used with the current costs.
+     * Its pruning assumes every horizontal step costs the same.
+     */
+    public boolean isJumpPointSearchActive() {
+        return searchMode == PathSearchMode.JUMP_POINT && orthogonalCost == diagonalCost && !alternatingDiagonals;
+    }
+
+    /**
+     * Get a counter that changes whenever a path-affecting setting does,
+     * so cached paths can tell they were found under other rules.
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    public int getPathfindingThreads() {
+        return pathfindingThreads;
+    }
+
+    /**
+     * Set the number of pathfinding worker threads.
+     * Only read when the movement manager is created.
+     */
+    public void setPathfindingThreads(int pathfindingThreads) {
+        this.pathfindingThreads = pathfindingThreads;
     }
 }
@@ -15,9 +15,13 @@ public class MovementState {
     private Vector3i startPosition;           // Where turn started
     private Vector3i plannedDestination;      // Currently selected destination
     private List<Vector3i> pathWaypoints;     // Path blocks from start to destination
+    private int plannedCost = -1;             // Movement the path costs, or -1 to count its steps
     private int totalMovement;                // Max movement in blocks (e.g., 6 = 30ft)
     private int usedMovement;                 // Already moved this turn
     private boolean planning;                 // In planning mode?
+    private ReachableArea reachableArea;      // Cells reachable from startPosition this turn
+    private IncrementalReachability reachabilityRepair;  // Patches reachableArea after block changes
+    private UUID worldId;                     // World the turn is taking place in
 
     public MovementState(UUID playerId) {
         this.playerId = playerId;
@@ -35,12 +39,16 @@ public class MovementState {
     }
 
     /**
-     * Get the planned path distance in blocks.
+     * Get the planned path distance in blocks, including extra cost for
+     * difficult terrain when it is known.
      */
     public int getPlannedDistance() {
         if (pathWaypoints == null || pathWaypoints.isEmpty()) {
             return 0;
         }
+        if (plannedCost >= 0) {
+            return plannedCost;
+        }
         // Path length is the number of steps (waypoints - 1)
         return Math.max(0, pathWaypoints.size() - 1);
     }
@@ -59,9 +67,11 @@ public class MovementState {
         this.startPosition = position;
         this.plannedDestination = null;
         this.pathWaypoints = new ArrayList<>();
+        this.plannedCost = -1;
         this.totalMovement = moveSpeed;
         this.usedMovement = 0;
         this.planning = true;
+        setReachableArea(null);
     }
 
     /**
@@ -70,6 +80,7 @@ public class MovementState {
     public void clearPlannedPath() {
         this.plannedDestination = null;
         this.pathWaypoints = new ArrayList<>();
+        this.plannedCost = -1;
     }
 
     /**
@@ -79,6 +90,7 @@ public class MovementState {
         if (plannedDestination != null && pathWaypoints != null) {
             usedMovement += getPlannedDistance();
             startPosition = plannedDestination;
+            setReachableArea(null);
             clearPlannedPath();
         }
     }
@@ -111,6 +123,14 @@ public class MovementState {
 
     public void setPathWaypoints(List<Vector3i> pathWaypoints) {
         this.pathWaypoints = new ArrayList<>(pathWaypoints);
+        this.plannedCost = -1;
+    }
+
+    /**
+     * Set the movement cost of the planned path (after setting its waypoints).
+     */
+    public void setPlannedCost(int plannedCost) {
+        this.plannedCost = plannedCost;
     }
 
     public int getTotalMovement() {
@@ -129,6 +149,37 @@ public class MovementState {
         this.usedMovement = usedMovement;
     }
 
+    /**
+     * Get the reachable area, including any repairs made after block changes.
+     */
+    public ReachableArea getReachableArea() {
+        return reachabilityRepair != null ? reachabilityRepair.getArea() : reachableArea;
+    }
+
+    /**
+     * Replace the reachable area (null to drop it), discarding any repairs.
+     */
+    public void setReachableArea(ReachableArea reachableArea) {
+        this.reachableArea = reachableArea;
+        this.reachabilityRepair = null;
+    }
+
+    IncrementalReachability getReachabilityRepair() {
+        return reachabilityRepair;
+    }
+
+    void setReachabilityRepair(IncrementalReachability reachabilityRepair) {
+        this.reachabilityRepair = reachabilityRepair;
+    }
+
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    public void setWorldId(UUID worldId) {
+        this.worldId = worldId;
+    }
+
     public boolean isPlanning() {
         return planning;
     }
@@ -0,0 +1,127 @@
+package com.example.dnd.movement;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of {@link SearchNodes} indices ordered by f-score.
+ *
+ * Every queued node remembers its heap slot, so lowering a node's score is an
+ * O(log n) sift-up instead of the O(n) remove-and-re-add a
+ * {@link java.util.PriorityQueue} needs. Ties on f prefer the node closer to
+ * the goal (lower h), which keeps A* from fanning out across equal-cost cells.
+ */
+final class NodeHeap {
+    private final SearchNodes nodes;
+    private int[] heap = new int[256];
+    private int[] position = new int[256];
+    private int size;
+
+    NodeHeap(SearchNodes nodes) {
+        this.nodes = nodes;
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int node) {
+        return node < position.length && position[node] >= 0;
+    }
+
+    /**
+     * Drop every queued node.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Queue a node, or restore heap order after its score was lowered.
+     */
+    void pushOrDecrease(int node) {
+        if (contains(node)) {
+            siftUp(position[node]);
+            return;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        if (node >= position.length) {
+            int old = position.length;
+            position = Arrays.copyOf(position, Math.max(old * 2, node + 1));
+            Arrays.fill(position, old, position.length, -1);
+        }
+        heap[size] = node;
+        position[node] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Remove and return the node with the lowest f-score.
+     */
+    int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (!less(node, parent)) {
+                break;
+            }
+            heap[index] = parent;
+            position[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!less(heap[child], node)) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+
+    private boolean less(int a, int b) {
+        double fa = nodes.f(a);
+        double fb = nodes.f(b);
+        if (fa != fb) {
+            return fa < fb;
+        }
+        return nodes.h(a) < nodes.h(b);
+    }
+}
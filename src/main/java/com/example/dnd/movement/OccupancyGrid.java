@@ -0,0 +1,140 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Which combatant stands in each cell of a world, with their faction.
+ *
+ * Every block of a combatant's body (footprint by height, from the corner
+ * cell) maps to it, so "who is here?" is one lookup whatever the size of
+ * either creature. A {@link CombatantIndex} over the same combatants answers
+ * "who is near here?". Kept up to date on every committed move, spawn and
+ * death through {@link GridMovementManager}, which also brings players in
+ * combat to where they stand before the grid is read.
+ *
+ * Not thread-safe; owned by the world thread.
+ */
+final class OccupancyGrid {
+    private final Map<Long, Combatant> cells = new HashMap<>();
+    private final Map<UUID, Combatant> occupants = new HashMap<>();
+    private final CombatantIndex index = new CombatantIndex();
+
+    /**
+     * Put a combatant at a cell, moving it if it was already placed.
+     *
+     * @return False if it was already there
+     */
+    boolean place(UUID id, Faction faction, CreatureSize size, Vector3i corner) {
+        long key = GridKey.pack(corner);
+        Combatant old = occupants.get(id);
+        if (old != null && old.corner() == key && old.faction() == faction && old.size() == size) {
+            return false;
+        }
+        remove(id);
+
+        Combatant occupant = new Combatant(id, faction, size, key);
+        occupants.put(id, occupant);
+        index.add(occupant);
+        forEachBody(occupant, cell -> cells.put(cell, occupant));
+        return true;
+    }
+
+    /**
+     * Take a combatant off the grid (death, despawn, end of combat).
+     *
+     * @return False if it was not on the grid
+     */
+    boolean remove(UUID id) {
+        Combatant occupant = occupants.remove(id);
+        if (occupant == null) {
+            return false;
+        }
+        index.remove(occupant);
+        // Another combatant may have been placed over a cell since
+        forEachBody(occupant, cell -> cells.remove(cell, occupant));
+        return true;
+    }
+
+    /**
+     * Get the combatant whose body fills a block, or null.
+     */
+    Combatant get(int x, int y, int z) {
+        return cells.isEmpty() ? null : cells.get(GridKey.pack(x, y, z));
+    }
+
+    /**
+     * Get where a combatant is, or null if it is not on the grid.
+     */
+    Combatant getOccupant(UUID id) {
+        return occupants.get(id);
+    }
+
+    /**
+     * Get every combatant of a faction. A copy, so the grid can be changed
+     * while going through it.
+     */
+    List<Combatant> getOccupants(Faction faction) {
+        List<Combatant> found = new ArrayList<>();
+        for (Combatant occupant : occupants.values()) {
+            if (occupant.faction() == faction) {
+                found.add(occupant);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get every combatant with a block of its body in a box (bounds included).
+     */
+    List<Combatant> findInBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        List<Combatant> found = new ArrayList<>();
+        index.forEachInBox(minX, minY, minZ, maxX, maxY, maxZ, found::add);
+        return found;
+    }
+
+    /**
+     * Get every combatant with a block of its body within a distance of a cell.
+     */
+    List<Combatant> findInRadius(int x, int y, int z, int radius) {
+        return index.findInRadius(x, y, z, radius);
+    }
+
+    /**
+     * Find the combatant nearest to a cell that passes a filter.
+     *
+     * @return The nearest match within maxRadius, or null
+     */
+    Combatant findNearest(int x, int y, int z, int maxRadius, Predicate<Combatant> filter) {
+        return index.findNearest(x, y, z, maxRadius, filter);
+    }
+
+    boolean isEmpty() {
+        return occupants.isEmpty();
+    }
+
+    int size() {
+        return occupants.size();
+    }
+
+    private static void forEachBody(Combatant occupant, LongConsumer action) {
+        int x = GridKey.x(occupant.corner());
+        int y = GridKey.y(occupant.corner());
+        int z = GridKey.z(occupant.corner());
+        int footprint = occupant.size().getFootprint();
+        for (int dy = 0; dy < occupant.size().getHeight(); dy++) {
+            for (int dz = 0; dz < footprint; dz++) {
+                for (int dx = 0; dx < footprint; dx++) {
+                    action.accept(GridKey.pack(x + dx, y + dy, z + dz));
+                }
+            }
+        }
+    }
+}
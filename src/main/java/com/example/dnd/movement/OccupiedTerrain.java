@@ -0,0 +1,111 @@
+package com.example.dnd.movement;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Terrain as seen by a mover among other combatants: cells where an enemy
+ * would overlap the mover's body have no room, and cells where anyone else
+ * stands are reported by {@link #isOccupied} so searches can pass through
+ * allies without stopping on them.
+ *
+ * Each check is one {@link OccupancyGrid} lookup per block of the mover's
+ * body (two for a Medium creature).
+ */
+final class OccupiedTerrain implements TerrainView {
+    private final TerrainView terrain;
+    private final OccupancyGrid grid;
+    private final Faction faction;
+    private final CreatureSize size;
+    private final Set<UUID> movers;
+
+    private OccupiedTerrain(TerrainView terrain, OccupancyGrid grid, Faction faction, CreatureSize size,
+                            Set<UUID> movers) {
+        this.terrain = terrain;
+        this.grid = grid;
+        this.faction = faction;
+        this.size = size;
+        this.movers = movers;
+    }
+
+    /**
+     * Get the view of a terrain for movers of one faction and size. The
+     * movers themselves are ignored, so they can stop where they started.
+     */
+    static TerrainView of(TerrainView terrain, OccupancyGrid grid, Faction faction, CreatureSize size,
+                          Set<UUID> movers) {
+        return grid.isEmpty() ? terrain : new OccupiedTerrain(terrain, grid, faction, size, movers);
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        return terrain.isSolid(x, y, z);
+    }
+
+    @Override
+    public boolean hasFooting(int x, int y, int z) {
+        return terrain.hasFooting(x, y, z);
+    }
+
+    @Override
+    public boolean hasRoom(int x, int y, int z) {
+        return terrain.hasRoom(x, y, z) && !overlaps(x, y, z, true);
+    }
+
+    @Override
+    public long getStandableLevels(int x, int minY, int z, int height) {
+        long levels = terrain.getStandableLevels(x, minY, z, height);
+        for (long rest = levels; rest != 0; rest &= rest - 1) {
+            int i = Long.numberOfTrailingZeros(rest);
+            if (overlaps(x, minY + i, z, true)) {
+                levels &= ~(1L << i);
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y, int z) {
+        return overlaps(x, y, z, false);
+    }
+
+    @Override
+    public int getClearance(int x, int y, int z) {
+        return terrain.getClearance(x, y, z);
+    }
+
+    @Override
+    public boolean isLoaded(int x, int y, int z) {
+        return terrain.isLoaded(x, y, z);
+    }
+
+    @Override
+    public int getMoveMultiplier(int x, int y, int z) {
+        return terrain.getMoveMultiplier(x, y, z);
+    }
+
+    @Override
+    public boolean hasMoveMultipliers() {
+        return terrain.hasMoveMultipliers();
+    }
+
+    /**
+     * Check if anyone other than the movers (only enemies, if asked) fills
+     * a block of the mover's body with its corner at a position.
+     */
+    private boolean overlaps(int x, int y, int z, boolean enemiesOnly) {
+        int footprint = size.getFootprint();
+        for (int dy = 0; dy < size.getHeight(); dy++) {
+            for (int dz = 0; dz < footprint; dz++) {
+                for (int dx = 0; dx < footprint; dx++) {
+                    Combatant occupant = grid.get(x + dx, y + dy, z + dz);
+                    if (occupant == null || movers.contains(occupant.id())) continue;
+                    if (!enemiesOnly || faction.isEnemyOf(occupant.faction())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
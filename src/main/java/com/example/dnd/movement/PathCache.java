@@ -0,0 +1,232 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of found paths for one world's encounter.
+ *
+ * Entries are keyed by start, goal, budget and the {@link MovementConfig}
+ * revision, so changing a cost setting simply stops old entries matching.
+ * A block change drops every entry whose bounding box (grown by one block
+ * for floors, headroom and diagonal corners) contains it. A cached path is
+ * therefore always still walkable, though a change outside its box may have
+ * opened a shorter one. Repainted movement costs drop entries the same way.
+ *
+ * Searches run against a frozen snapshot, so a result can arrive after the
+ * terrain it was computed on has changed. Each 16x16x16 section keeps the
+ * terrain version of its last change; a result is only stored if no section
+ * under its box changed since its {@link Query} was taken, and a stale one
+ * is reported back so the caller can search again.
+ *
+ * Synchronized, though in practice only used from the world thread.
+ */
+public class PathCache {
+    private static final int SECTION_SHIFT = ArenaSnapshot.SECTION_SHIFT;
+
+    private final MovementConfig config;
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    // Terrain version, bumped on every block change
+    private long version;
+    private final Map<Long, Long> sectionVersions = new HashMap<>();  // section -> version of last change
+
+    // Metrics
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public PathCache(MovementConfig config, int capacity) {
+        this.config = config;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > PathCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Capture the key and terrain version for a lookup. Take this before
+     * freezing the terrain for a search, then use it for both
+     * {@link #get} and {@link #put}.
+     */
+    public synchronized Query query(Vector3i start, Vector3i goal, int maxDistance) {
+        Key key = new Key(GridKey.pack(start), GridKey.pack(goal), maxDistance, config.getRevision());
+        return new Query(key, version);
+    }
+
+    /**
+     * Look up a path.
+     *
+     * @return The cached path, or null on a miss
+     */
+    public synchronized List<Vector3i> get(Query query) {
+        Entry entry = entries.get(query.key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.path;
+    }
+
+    /**
+     * Store a path found for a query, unless the terrain under it changed
+     * since the query was taken.
+     *
+     * @return False if the terrain changed, so the path may be blocked
+     */
+    public synchronized boolean put(Query query, List<Vector3i> path) {
+        if (path == null || path.isEmpty()) {
+            return true;
+        }
+
+        Entry entry = new Entry(List.copyOf(path));
+        if (changedSince(entry, query.terrainVersion)) {
+            return false;
+        }
+        entries.put(query.key, entry);
+        return true;
+    }
+
+    /**
+     * Drop every path a changed block may have broken.
+     */
+    public void onBlockChanged(int x, int y, int z) {
+        Vector3i block = new Vector3i(x, y, z);
+        onRegionChanged(block, block);
+    }
+
+    /**
+     * Drop every path crossing a box whose blocks or movement costs changed
+     * (e.g. a GM painted a hazard zone).
+     */
+    public synchronized void onRegionChanged(Vector3i min, Vector3i max) {
+        version++;
+        for (int sx = min.x >> SECTION_SHIFT; sx <= max.x >> SECTION_SHIFT; sx++) {
+            for (int sy = min.y >> SECTION_SHIFT; sy <= max.y >> SECTION_SHIFT; sy++) {
+                for (int sz = min.z >> SECTION_SHIFT; sz <= max.z >> SECTION_SHIFT; sz++) {
+                    sectionVersions.put(GridKey.pack(sx, sy, sz), version);
+                }
+            }
+        }
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().intersects(min, max)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    private boolean changedSince(Entry entry, long queryVersion) {
+        if (version == queryVersion) {
+            return false;  // Nothing changed anywhere
+        }
+        for (int sx = entry.minX >> SECTION_SHIFT; sx <= entry.maxX >> SECTION_SHIFT; sx++) {
+            for (int sy = entry.minY >> SECTION_SHIFT; sy <= entry.maxY >> SECTION_SHIFT; sy++) {
+                for (int sz = entry.minZ >> SECTION_SHIFT; sz <= entry.maxZ >> SECTION_SHIFT; sz++) {
+                    Long changed = sectionVersions.get(GridKey.pack(sx, sy, sz));
+                    if (changed != null && changed > queryVersion) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lookup key plus the terrain version it was taken at.
+     */
+    public static final class Query {
+        private final Key key;
+        private final long terrainVersion;
+
+        private Query(Key key, long terrainVersion) {
+            this.key = key;
+            this.terrainVersion = terrainVersion;
+        }
+    }
+
+    private record Key(long start, long goal, int maxDistance, int configRevision) {}
+
+    /**
+     * A cached path and the box of blocks it depends on.
+     */
+    private static final class Entry {
+        final List<Vector3i> path;
+        final int minX, minY, minZ;
+        final int maxX, maxY, maxZ;
+
+        Entry(List<Vector3i> path) {
+            this.path = path;
+
+            int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, z0 = Integer.MAX_VALUE;
+            int x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE, z1 = Integer.MIN_VALUE;
+            for (Vector3i pos : path) {
+                x0 = Math.min(x0, pos.x);
+                y0 = Math.min(y0, pos.y);
+                z0 = Math.min(z0, pos.z);
+                x1 = Math.max(x1, pos.x);
+                y1 = Math.max(y1, pos.y);
+                z1 = Math.max(z1, pos.z);
+            }
+
+            // Floor below, headroom above, corners beside diagonal steps
+            this.minX = x0 - 1;
+            this.minY = y0 - 1;
+            this.minZ = z0 - 1;
+            this.maxX = x1 + 1;
+            this.maxY = y1 + 1;
+            this.maxZ = z1 + 1;
+        }
+
+        boolean intersects(Vector3i min, Vector3i max) {
+            return max.x >= minX && min.x <= maxX && max.y >= minY && min.y <= maxY
+                && max.z >= minZ && min.z <= maxZ;
+        }
+    }
+}
@@ -26,6 +26,7 @@ public class PathRenderer {
 
     // Cached path rendering to avoid re-rendering same path
     private final Map<UUID, PathRenderState> renderStates = new HashMap<>();
+    private final Map<UUID, PathRenderState> previewStates = new HashMap<>();  // Hover previews
 
     /**
      * Render the path for a player's movement state.
@@ -73,6 +74,33 @@ public class PathRenderer {
         // Particles naturally despawn, but we track state for efficiency
     }
 
+    /**
+     * Render the hover preview for a player, alongside any planned path.
+     * Previews only ever cover reachable cells.
+     */
+    public void renderPreview(Player player, List<Vector3i> path, World world) {
+        UUID playerId = player.getPlayerRef().getUuid();
+        Vector3i destination = path.get(path.size() - 1);
+
+        PathRenderState previewState = previewStates.get(playerId);
+        if (previewState != null && previewState.matches(path, destination)) {
+            return;
+        }
+
+        previewStates.put(playerId, new PathRenderState(path, destination));
+        spawnPathParticles(player, path, true, world);
+    }
+
+    /**
+     * Clear the hover preview for a player.
+     */
+    public void clearPreview(UUID playerId) {
+        PathRenderState state = previewStates.remove(playerId);
+        if (state != null) {
+            state.clear();
+        }
+    }
+
     // Path colors - Color uses bytes (0-255), not floats
     // Green for reachable: RGB(77, 204, 77)
     private static final Color PATH_COLOR_REACHABLE = new Color((byte)77, (byte)204, (byte)77);
@@ -0,0 +1,19 @@
+package com.example.dnd.movement;
+
+/**
+ * Neighbor expansion strategy used by {@link GridPathfinder#findPath}.
+ */
+public enum PathSearchMode {
+    ASTAR("A* - expand every neighbor"),
+    JUMP_POINT("Jump Point Search - skip symmetric paths on flat ground");
+
+    private final String description;
+
+    PathSearchMode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
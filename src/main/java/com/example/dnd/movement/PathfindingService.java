@@ -0,0 +1,218 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs pathfinding searches off the world thread.
+ *
+ * Searches read a frozen terrain view (see {@link ArenaSnapshot#freeze()}),
+ * so they never touch the live world. Each player has at most one search in
+ * flight: submitting another cancels the older one (latest click wins).
+ * Results are handed back on the world thread, and only if no newer search
+ * replaced them in the meantime.
+ *
+ * Uses a small pool of platform threads rather than virtual threads so the
+ * pathfinder's per-thread search buffers stay warm between searches.
+ */
+public class PathfindingService {
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final int QUEUE_CAPACITY = 64;
+
+    private final GridPathfinder pathfinder;
+    private final ThreadPoolExecutor executor;
+
+    // Latest search per player (player UUID -> search)
+    private final Map<UUID, Search> pending = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final Map<UUID, AtomicInteger> playerCounts = new ConcurrentHashMap<>();  // Searches per player, until forgotten
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    public PathfindingService(GridPathfinder pathfinder, int workers) {
+        this.pathfinder = pathfinder;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), new WorkerFactory());
+    }
+
+    /**
+     * Queue a search for a player, cancelling any search still running for them.
+     *
+     * @param playerId The player the search is for
+     * @param world The world whose thread receives the result
+     * @param terrain A frozen terrain view, safe to read from any thread
+     * @param start Starting position
+     * @param end Target position
+     * @param maxDistance Maximum movement distance in blocks
+     * @param onResult Called on the world thread with the path, or null if none was found
+     * @return false if the queue is full and the search was dropped
+     */
+    public boolean submit(UUID playerId, World world, TerrainView terrain, Vector3i start, Vector3i end,
+                          int maxDistance, Consumer<List<Vector3i>> onResult) {
+        return submit(playerId, world, () -> pathfinder.findPath(terrain, start, end, maxDistance), onResult);
+    }
+
+    /**
+     * Queue any search for a player (e.g. a {@link LongRangePlanner} query),
+     * cancelling any search still running for them. The search must only read
+     * thread-safe state and should return null promptly once interrupted.
+     *
+     * @return false if the queue is full and the search was dropped
+     */
+    public boolean submit(UUID playerId, World world, Supplier<List<Vector3i>> query,
+                          Consumer<List<Vector3i>> onResult) {
+        Search search = new Search(playerId, world, query, onResult);
+        cancelPrevious(playerId, pending.put(playerId, search));
+        submittedCount.incrementAndGet();
+        playerCounts.computeIfAbsent(playerId, k -> new AtomicInteger()).incrementAndGet();
+
+        try {
+            executor.execute(search.future);
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(playerId, search);
+            LOGGER.atWarning().log("Pathfinding queue full, dropped search for %s", playerId);
+            return false;
+        }
+    }
+
+    /**
+     * Cancel the player's search if one is still running.
+     */
+    public void cancel(UUID playerId) {
+        cancelPrevious(playerId, pending.remove(playerId));
+    }
+
+    /**
+     * Cancel the player's search and drop their search count. Called when
+     * their movement phase ends and when they disconnect.
+     */
+    public void forget(UUID playerId) {
+        cancel(playerId);
+        playerCounts.remove(playerId);
+    }
+
+    /**
+     * Stop all workers. Called when the plugin shuts down.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        pending.clear();
+        playerCounts.clear();
+    }
+
+    /**
+     * Searches submitted for a player this turn (since their last movement
+     * phase ended).
+     */
+    public int getSubmittedCount(UUID playerId) {
+        AtomicInteger count = playerCounts.get(playerId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Total searches submitted, for every player.
+     */
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    /**
+     * Total searches cancelled because a newer one replaced them.
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    /**
+     * Searches waiting for a worker.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Searches currently running on a worker.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    private void cancelPrevious(UUID playerId, Search previous) {
+        if (previous != null && previous.future.cancel(true)) {
+            executor.remove(previous.future);
+            cancelledCount.incrementAndGet();
+            LOGGER.atFine().log("Cancelled superseded search for %s", playerId);
+        }
+    }
+
+    /**
+     * One queued search and where its result goes.
+     */
+    private final class Search implements Runnable {
+        private final UUID playerId;
+        private final World world;
+        private final Supplier<List<Vector3i>> query;
+        private final Consumer<List<Vector3i>> onResult;
+        private final FutureTask<Void> future = new FutureTask<>(this, null);
+
+        Search(UUID playerId, World world, Supplier<List<Vector3i>> query, Consumer<List<Vector3i>> onResult) {
+            this.playerId = playerId;
+            this.world = world;
+            this.query = query;
+            this.onResult = onResult;
+        }
+
+        @Override
+        public void run() {
+            List<Vector3i> path;
+            try {
+                path = query.get();
+            } catch (RuntimeException e) {
+                // The FutureTask would swallow it; report it and answer "no path"
+                LOGGER.atWarning().log("Path search for %s failed: %s", playerId, e);
+                path = null;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;  // Superseded mid-search
+            }
+            world.execute(() -> {
+                // Deliver only if no newer search replaced this one
+                if (pending.remove(playerId, this)) {
+                    onResult.accept(path);
+                }
+            });
+        }
+    }
+
+    /**
+     * Daemon worker threads, so a stuck search never holds the server open.
+     */
+    private static final class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger nextId = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dnd-pathfinding-" + nextId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
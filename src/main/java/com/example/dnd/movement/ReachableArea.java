@@ -0,0 +1,206 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every cell a combatant can reach from one origin within a movement budget,
+ * with its cheapest cost and predecessor.
+ *
+ * Built once by {@link GridPathfinder#computeReachableArea} when a movement
+ * phase starts (and again after each committed move), so selecting a
+ * destination is a table lookup plus a predecessor walk instead of a search.
+ * Block changes are patched in by {@link IncrementalReachability}, which
+ * hands out a new area rather than modifying this one.
+ *
+ * With alternating diagonals the flood's nodes are cells plus a diagonal
+ * parity, so a cell can have two entries; lookups by cell answer with the
+ * cheaper one, and predecessor walks follow the node chain it belongs to.
+ */
+public class ReachableArea {
+    private static final int NONE = -1;
+
+    private final Vector3i origin;
+    private final int budget;
+
+    // Node data, indexed by node id; node 0 is the origin
+    private final long[] keys;
+    private final double[] costs;
+    private final int[] predecessors;
+    private final int[] depths;
+
+    // Open-addressed position -> cell id table
+    private final long[] slotKeys;
+    private final int[] slotCells;
+    private final int slotMask;
+    private final int cellCount;
+
+    ReachableArea(Vector3i origin, int budget, long[] keys, double[] costs, int[] predecessors, int[] depths) {
+        this.origin = origin;
+        this.budget = budget;
+        this.keys = keys;
+        this.costs = costs;
+        this.predecessors = predecessors;
+        this.depths = depths;
+
+        int count = keys.length;
+        int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+        this.slotKeys = new long[capacity];
+        this.slotCells = new int[capacity];
+        this.slotMask = capacity - 1;
+        Arrays.fill(slotCells, NONE);
+        for (int i = 0; i < count; i++) {
+            int slot = GridKey.hash(keys[i]) & slotMask;
+            while (slotCells[slot] != NONE) {
+                slot = (slot + 1) & slotMask;
+            }
+            slotKeys[slot] = keys[i];
+            slotCells[slot] = i;
+        }
+
+        int cells = 0;
+        for (int i = 0; i < count; i++) {
+            if (indexOf(keys[i]) == i) {
+                cells++;
+            }
+        }
+        this.cellCount = cells;
+    }
+
+    /**
+     * Copy a finished flood out of the pathfinder's search buffers.
+     */
+    static ReachableArea of(Vector3i origin, int budget, SearchNodes nodes) {
+        int count = nodes.size();
+        long[] keys = new long[count];
+        double[] costs = new double[count];
+        int[] predecessors = new int[count];
+        int[] depths = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = nodes.key(i);
+            costs[i] = nodes.g(i);
+            predecessors[i] = nodes.parent(i);
+            depths[i] = nodes.depth(i);
+        }
+        return new ReachableArea(origin, budget, keys, costs, predecessors, depths);
+    }
+
+    /**
+     * Check whether this area was computed for the given origin and budget.
+     */
+    public boolean matches(Vector3i origin, int budget) {
+        return this.budget == budget && this.origin.equals(origin);
+    }
+
+    /**
+     * Check if a cell can be reached within the budget.
+     */
+    public boolean contains(Vector3i pos) {
+        return indexOf(GridKey.pack(pos)) != NONE;
+    }
+
+    /**
+     * Get the movement cost to reach a cell, or -1 if it is out of reach.
+     */
+    public double getCost(Vector3i pos) {
+        return getCost(GridKey.pack(pos));
+    }
+
+    /**
+     * Get the movement cost to reach a packed cell, or -1 if it is out of reach.
+     */
+    double getCost(long key) {
+        int cell = indexOf(key);
+        return cell == NONE ? -1 : costs[cell];
+    }
+
+    /**
+     * Get the cheapest path from the origin to a cell.
+     *
+     * @return List of positions forming the path, or null if the cell is out of reach
+     */
+    public List<Vector3i> getPath(Vector3i destination) {
+        int cell = indexOf(GridKey.pack(destination));
+        if (cell == NONE) {
+            return null;
+        }
+
+        Vector3i[] path = new Vector3i[depths[cell] + 1];
+        for (int current = cell; current != NONE; current = predecessors[current]) {
+            path[depths[current]] = GridKey.toVector(keys[current]);
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    /**
+     * Get every reachable cell (e.g. for a movement range overlay).
+     */
+    public List<Vector3i> getCells() {
+        List<Vector3i> cells = new ArrayList<>(cellCount);
+        for (int i = 0; i < keys.length; i++) {
+            if (indexOf(keys[i]) == i) {
+                cells.add(GridKey.toVector(keys[i]));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Number of reachable cells, including the origin.
+     */
+    public int size() {
+        return cellCount;
+    }
+
+    public Vector3i getOrigin() {
+        return origin;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    // Raw node access for IncrementalReachability
+
+    int nodeCount() {
+        return keys.length;
+    }
+
+    long key(int cell) {
+        return keys[cell];
+    }
+
+    double cost(int cell) {
+        return costs[cell];
+    }
+
+    int predecessor(int cell) {
+        return predecessors[cell];
+    }
+
+    /**
+     * Find the cheapest node of a cell, whatever the parity of the key.
+     */
+    private int indexOf(long key) {
+        int even = indexOfNode(GridKey.cell(key));
+        int odd = indexOfNode(GridKey.withParity(key, 1));
+        if (even == NONE || (odd != NONE && costs[odd] < costs[even])) {
+            return odd;
+        }
+        return even;
+    }
+
+    private int indexOfNode(long key) {
+        int slot = GridKey.hash(key) & slotMask;
+        while (slotCells[slot] != NONE) {
+            if (slotKeys[slot] == key) {
+                return slotCells[slot];
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return NONE;
+    }
+}
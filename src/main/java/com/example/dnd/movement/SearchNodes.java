@@ -0,0 +1,163 @@
+package com.example.dnd.movement;
+
+import java.util.Arrays;
+
+/**
+ * Primitive node storage for grid searches.
+ *
+ * Nodes are addressed by a dense index handed out in visit order. Each index
+ * owns a packed position, g/h scores, parent index and path depth in parallel
+ * arrays. Positions map to indices through an open-addressed table whose slots
+ * are tagged with a generation counter, so {@link #reset()} is O(1) and the
+ * arrays are reused from one search to the next.
+ */
+final class SearchNodes {
+    static final int NONE = -1;
+
+    private static final int INITIAL_NODES = 1024;
+
+    // Open-addressed position -> node index table
+    private long[] slotKeys;
+    private int[] slotNodes;
+    private int[] slotGeneration;
+    private int slotMask;
+    private int generation = 1;
+
+    // Per-node data, indexed by node id
+    private long[] keys;
+    private double[] g;
+    private double[] h;
+    private int[] parent;
+    private int[] depth;
+    private boolean[] closed;
+    private int size;
+
+    SearchNodes() {
+        allocateSlots(INITIAL_NODES * 2);
+        keys = new long[INITIAL_NODES];
+        g = new double[INITIAL_NODES];
+        h = new double[INITIAL_NODES];
+        parent = new int[INITIAL_NODES];
+        depth = new int[INITIAL_NODES];
+        closed = new boolean[INITIAL_NODES];
+    }
+
+    /**
+     * Forget every node without touching the backing arrays.
+     */
+    void reset() {
+        size = 0;
+        generation++;
+        if (generation == 0) {
+            // Wrapped around - stale tags could alias, so clear them once
+            Arrays.fill(slotGeneration, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Find the node for a packed position.
+     *
+     * @return The node index, or {@link #NONE} if the position was not visited
+     */
+    int find(long key) {
+        int slot = GridKey.hash(key) & slotMask;
+        while (slotGeneration[slot] == generation) {
+            if (slotKeys[slot] == key) {
+                return slotNodes[slot];
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return NONE;
+    }
+
+    /**
+     * Add a node for a position that has not been visited yet.
+     * Scores start at infinity with no parent.
+     *
+     * @return The new node index
+     */
+    int add(long key, double heuristic) {
+        if (size == keys.length) {
+            growNodes();
+        }
+        if ((size + 1) * 2 > slotKeys.length) {
+            growSlots();
+        }
+
+        int node = size++;
+        keys[node] = key;
+        g[node] = Double.MAX_VALUE;
+        h[node] = heuristic;
+        parent[node] = NONE;
+        depth[node] = 0;
+        closed[node] = false;
+        insertSlot(key, node);
+        return node;
+    }
+
+    int size() { return size; }
+    long key(int node) { return keys[node]; }
+    double g(int node) { return g[node]; }
+    double h(int node) { return h[node]; }
+    double f(int node) { return g[node] + h[node]; }
+    int parent(int node) { return parent[node]; }
+    int depth(int node) { return depth[node]; }
+    boolean isClosed(int node) { return closed[node]; }
+
+    void close(int node) {
+        closed[node] = true;
+    }
+
+    /**
+     * Record a better route to a node one step from its parent.
+     */
+    void relax(int node, double gScore, int parentNode) {
+        relax(node, gScore, parentNode, 1);
+    }
+
+    /**
+     * Record a better route to a node a straight run of steps from its parent
+     * (jump point search links nodes that are several cells apart).
+     */
+    void relax(int node, double gScore, int parentNode, int steps) {
+        g[node] = gScore;
+        parent[node] = parentNode;
+        depth[node] = parentNode == NONE ? 0 : depth[parentNode] + steps;
+    }
+
+    private void insertSlot(long key, int node) {
+        int slot = GridKey.hash(key) & slotMask;
+        while (slotGeneration[slot] == generation) {
+            slot = (slot + 1) & slotMask;
+        }
+        slotKeys[slot] = key;
+        slotNodes[slot] = node;
+        slotGeneration[slot] = generation;
+    }
+
+    private void allocateSlots(int capacity) {
+        slotKeys = new long[capacity];
+        slotNodes = new int[capacity];
+        slotGeneration = new int[capacity];
+        slotMask = capacity - 1;
+    }
+
+    private void growSlots() {
+        allocateSlots(slotKeys.length * 2);
+        generation = 1;
+        for (int node = 0; node < size; node++) {
+            insertSlot(keys[node], node);
+        }
+    }
+
+    private void growNodes() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        g = Arrays.copyOf(g, capacity);
+        h = Arrays.copyOf(h, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        closed = Arrays.copyOf(closed, capacity);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.dnd.movement;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed map from packed section coordinates to the data of a
+ * 16x16x16 terrain section (solid bits, cost bytes). Sections are never
+ * removed individually.
+ */
+final class SectionTable {
+    private long[] keys;
+    private long[][] sections;
+    private int size;
+
+    SectionTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        sections = new long[capacity][];
+    }
+
+    private SectionTable(SectionTable other) {
+        keys = other.keys.clone();
+        sections = other.sections.clone();
+        size = other.size;
+    }
+
+    long[] get(long key) {
+        int mask = keys.length - 1;
+        int slot = GridKey.hash(key) & mask;
+        while (sections[slot] != null) {
+            if (keys[slot] == key) {
+                return sections[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Insert a section, or replace the data of one already present.
+     */
+    void put(long key, long[] bits) {
+        int mask = keys.length - 1;
+        int slot = GridKey.hash(key) & mask;
+        while (sections[slot] != null) {
+            if (keys[slot] == key) {
+                sections[slot] = bits;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            put(key, bits);
+            return;
+        }
+        keys[slot] = key;
+        sections[slot] = bits;
+        size++;
+    }
+
+    /**
+     * Copy the table itself. The section arrays are shared, so callers must
+     * replace a section's bits rather than patch them once a copy exists.
+     */
+    SectionTable copy() {
+        return new SectionTable(this);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(sections, null);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[][] oldSections = sections;
+        keys = new long[oldKeys.length * 2];
+        sections = new long[oldKeys.length * 2][];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSections[i] != null) {
+                put(oldKeys[i], oldSections[i]);
+            }
+        }
+    }
+}
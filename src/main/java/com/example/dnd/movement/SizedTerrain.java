@@ -0,0 +1,85 @@
+package com.example.dnd.movement;
+
+/**
+ * Terrain as seen by a creature bigger than one block, for searching with
+ * the same {@link GridPathfinder} as everyone else.
+ *
+ * A cell stands for the creature's footprint with its corner (lowest x and z)
+ * there: the cell has room when {@link TerrainView#getClearance} reaches the
+ * footprint, and is standable when the corner block also has ground under
+ * it. Entering it costs the largest multiplier under the footprint.
+ */
+public final class SizedTerrain implements TerrainView {
+    private final TerrainView terrain;
+    private final int footprint;
+
+    private SizedTerrain(TerrainView terrain, int footprint) {
+        this.terrain = terrain;
+        this.footprint = footprint;
+    }
+
+    /**
+     * Get the view of a terrain for a creature size. Sizes that fit in one
+     * block get the terrain itself.
+     */
+    public static TerrainView of(TerrainView terrain, CreatureSize size) {
+        return size.getFootprint() == 1 ? terrain : new SizedTerrain(terrain, size.getFootprint());
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        return terrain.isSolid(x, y, z);
+    }
+
+    @Override
+    public boolean hasFooting(int x, int y, int z) {
+        return terrain.hasFooting(x, y, z);
+    }
+
+    @Override
+    public boolean hasRoom(int x, int y, int z) {
+        return terrain.getClearance(x, y, z) >= footprint;
+    }
+
+    @Override
+    public long getStandableLevels(int x, int minY, int z, int height) {
+        // Anything the creature can stand on is standable for one block too
+        long levels = terrain.getStandableLevels(x, minY, z, height);
+        for (long rest = levels; rest != 0; rest &= rest - 1) {
+            int i = Long.numberOfTrailingZeros(rest);
+            if (terrain.getClearance(x, minY + i, z) < footprint) {
+                levels &= ~(1L << i);
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public int getClearance(int x, int y, int z) {
+        return terrain.getClearance(x, y, z);
+    }
+
+    @Override
+    public boolean isLoaded(int x, int y, int z) {
+        return terrain.isLoaded(x, y, z);
+    }
+
+    @Override
+    public int getMoveMultiplier(int x, int y, int z) {
+        if (!terrain.hasMoveMultipliers()) {
+            return 1;
+        }
+        int multiplier = 1;
+        for (int dz = 0; dz < footprint; dz++) {
+            for (int dx = 0; dx < footprint; dx++) {
+                multiplier = Math.max(multiplier, terrain.getMoveMultiplier(x + dx, y, z + dz));
+            }
+        }
+        return multiplier;
+    }
+
+    @Override
+    public boolean hasMoveMultipliers() {
+        return terrain.hasMoveMultipliers();
+    }
+}
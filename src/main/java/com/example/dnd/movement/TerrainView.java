@@ -0,0 +1,119 @@
+package com.example.dnd.movement;
+
+/**
+ * Read-only block queries used by grid movement.
+ *
+ * The pathfinder only needs to know whether a voxel blocks a creature and
+ * whether it gives footing; standing room (feet clear, head clear, ground
+ * underfoot) is derived from those.
+ * Creatures bigger than one block ask for {@link #getClearance} instead.
+ * Views that know about difficult terrain also report per-cell cost multipliers.
+ */
+public interface TerrainView {
+
+    /**
+     * Check if the block at a position blocks movement.
+     */
+    boolean isSolid(int x, int y, int z);
+
+    /**
+     * Check if a creature can stand on top of the block at a position. Every
+     * solid block by default; views that know about hazards such as lava
+     * leave those out.
+     */
+    default boolean hasFooting(int x, int y, int z) {
+        return isSolid(x, y, z);
+    }
+
+    /**
+     * Check if a creature's body can occupy the block at a position.
+     */
+    default boolean isClear(int x, int y, int z) {
+        return !isSolid(x, y, z);
+    }
+
+    /**
+     * Check if there is room for a creature's body with its feet at a
+     * position, ignoring what is below (two clear blocks by default).
+     */
+    default boolean hasRoom(int x, int y, int z) {
+        return isClear(x, y, z) && isClear(x, y + 1, z);
+    }
+
+    /**
+     * Check if a creature can stand with its feet at a position.
+     */
+    default boolean isStandable(int x, int y, int z) {
+        return hasRoom(x, y, z) && hasFooting(x, y - 1, z);
+    }
+
+    /**
+     * Get the side of the largest square footprint that fits with its
+     * corner at a position: n when the blocks x..x+n-1, z..z+n-1 are clear
+     * for n + 1 blocks up from y. 0 if not even one block fits.
+     */
+    default int getClearance(int x, int y, int z) {
+        int clearance = 0;
+        for (int n = 1; n <= ClearanceMap.MAX_CLEARANCE; n++) {
+            for (int dy = 0; dy <= n; dy++) {
+                for (int dz = 0; dz < n; dz++) {
+                    for (int dx = 0; dx < n; dx++) {
+                        if (isSolid(x + dx, y + dy, z + dz)) {
+                            return clearance;
+                        }
+                    }
+                }
+            }
+            clearance = n;
+        }
+        return clearance;
+    }
+
+    /**
+     * Get the levels of a column a creature can stand on, within a range.
+     *
+     * @param height Levels to check, at most 63
+     * @return Bit i set if {@link #isStandable} holds at minY + i
+     */
+    default long getStandableLevels(int x, int minY, int z, int height) {
+        long levels = 0;
+        for (int i = 0; i < height; i++) {
+            if (isStandable(x, minY + i, z)) {
+                levels |= 1L << i;
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Check if another creature stands at a position. Movers may pass
+     * through such cells but not stop in them.
+     */
+    default boolean isOccupied(int x, int y, int z) {
+        return false;
+    }
+
+    /**
+     * Check if the block at a position is actually known, rather than
+     * assumed solid because it was never copied.
+     */
+    default boolean isLoaded(int x, int y, int z) {
+        return true;
+    }
+
+    /**
+     * Get how many times the normal cost it takes to step into a cell
+     * (2 for difficult terrain). 1 unless the view knows better.
+     */
+    default int getMoveMultiplier(int x, int y, int z) {
+        return 1;
+    }
+
+    /**
+     * Check if any cell might cost more than normal. When false, searches
+     * may assume uniform step costs.
+     */
+    default boolean hasMoveMultipliers() {
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dnd.movement;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * Terrain view that reads the live world on every query.
+ */
+public class WorldTerrain implements TerrainView {
+    private final World world;
+
+    public WorldTerrain(World world) {
+        this.world = world;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        return BlockPassability.get().isSolid(world.getBlock(x, y, z));
+    }
+
+    @Override
+    public boolean hasFooting(int x, int y, int z) {
+        return BlockPassability.get().isStandable(world.getBlock(x, y, z));
+    }
+}
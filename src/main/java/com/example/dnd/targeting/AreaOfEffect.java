@@ -0,0 +1,100 @@
+package com.example.dnd.targeting;
+
+import com.example.dnd.gm.GMManager;
+import com.example.dnd.gm.ManagedNPC;
+import com.example.dnd.movement.Combatant;
+import com.example.dnd.movement.GridKey;
+import com.example.dnd.movement.GridMovementManager;
+import com.example.dnd.movement.TerrainView;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Finds the combatants caught in an area of effect (Fireball, Cone of Cold),
+ * so one command can resolve a spell against every creature in it.
+ *
+ * Only combatants near the area are looked at, through the world's spatial
+ * index of combatants; a creature is hit when any block of its body is in
+ * the area. With line of effect on, a body block only counts if a straight
+ * line from the area's origin reaches it through the encounter's
+ * {@link com.example.dnd.movement.ArenaSnapshot}, so lines are only traced
+ * for creatures, not for the whole area.
+ *
+ * Use from the world thread.
+ */
+public class AreaOfEffect {
+    private static AreaOfEffect instance;
+
+    private AreaOfEffect() {}
+
+    public static AreaOfEffect get() {
+        if (instance == null) {
+            instance = new AreaOfEffect();
+        }
+        return instance;
+    }
+
+    /**
+     * Combatants caught in an area: player UUIDs and managed NPCs, each once.
+     */
+    public record AreaHits(List<UUID> players, List<ManagedNPC> npcs) {
+        public boolean isEmpty() {
+            return players.isEmpty() && npcs.isEmpty();
+        }
+
+        public int size() {
+            return players.size() + npcs.size();
+        }
+    }
+
+    /**
+     * Find every combatant in an area.
+     *
+     * @param lineOfEffect True to leave out creatures the effect can't reach
+     *                     past walls, as the 5e rules do
+     */
+    public AreaHits findTargets(World world, AreaTemplate template, boolean lineOfEffect) {
+        GridMovementManager movement = GridMovementManager.get();
+        GMManager gmManager = GMManager.get();
+        TerrainView terrain = lineOfEffect ? movement.getArena(world) : null;
+
+        List<UUID> players = new ArrayList<>();
+        List<ManagedNPC> npcs = new ArrayList<>();
+        for (Combatant combatant : movement.findCombatantsInBox(world, template.getMin(), template.getMax())) {
+            if (!isHit(template, combatant, terrain)) continue;
+
+            ManagedNPC npc = gmManager.getNpc(combatant.id());
+            if (npc == null) {
+                players.add(combatant.id());
+            } else if (!npc.isDead()) {
+                npcs.add(npc);
+            }
+        }
+        return new AreaHits(players, npcs);
+    }
+
+    /**
+     * Check if any block of a combatant's body is in an area and, given a
+     * terrain, reached by it.
+     */
+    private static boolean isHit(AreaTemplate template, Combatant combatant, TerrainView terrain) {
+        int x = GridKey.x(combatant.corner());
+        int y = GridKey.y(combatant.corner());
+        int z = GridKey.z(combatant.corner());
+        int footprint = combatant.size().getFootprint();
+        for (int dy = 0; dy < combatant.size().getHeight(); dy++) {
+            for (int dz = 0; dz < footprint; dz++) {
+                for (int dx = 0; dx < footprint; dx++) {
+                    if (template.contains(x + dx, y + dy, z + dz)
+                            && (terrain == null || template.reaches(terrain, x + dx, y + dy, z + dz))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.dnd.targeting;
+
+/**
+ * 5e area of effect shapes.
+ */
+public enum AreaShape {
+    SPHERE(false),    // Radius around a grid point (Fireball)
+    CUBE(true),       // Side, extending from the origin (Thunderwave)
+    CONE(true),       // Length; as wide as it is far from the origin (Cone of Cold)
+    LINE(true),       // Length, one block wide (Lightning Bolt)
+    CYLINDER(false);  // Radius around a grid point, going up from it (Moonbeam)
+
+    private final boolean aimed;
+
+    AreaShape(boolean aimed) {
+        this.aimed = aimed;
+    }
+
+    /**
+     * Check if the shape points a direction away from its origin rather than
+     * surrounding it.
+     */
+    public boolean isAimed() {
+        return aimed;
+    }
+
+    /**
+     * Look up a shape by name, ignoring case.
+     *
+     * @return The shape, or null if the name matches none
+     */
+    public static AreaShape fromName(String name) {
+        for (AreaShape shape : values()) {
+            if (shape.name().equalsIgnoreCase(name)) {
+                return shape;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.dnd.targeting;
+
+import com.example.dnd.movement.GridKey;
+import com.example.dnd.movement.TerrainView;
+import com.hypixel.hytale.math.vector.Vector3i;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * A 5e area of effect placed on the grid, and the cells it covers.
+ *
+ * A cell is in the area when its center is. Spheres and cylinders spread
+ * from the corner of the origin cell (a grid point, as in the rules); cubes,
+ * cones and lines start at the origin cell (usually the caster's) and point
+ * along a direction. Every test works in half blocks with whole numbers, so
+ * the same template covers the same cells on every server.
+ *
+ * Sizes are in blocks (1 block = 5 feet).
+ */
+public final class AreaTemplate {
+    private final AreaShape shape;
+    private final Vector3i origin;
+    private final Vector3i direction;
+    private final int size;
+    private final int height;
+
+    // Bounds of the cells to test
+    private final int minX, minY, minZ;
+    private final int maxX, maxY, maxZ;
+
+    /**
+     * Place an area whose height (cylinders only) is its size.
+     */
+    public AreaTemplate(AreaShape shape, Vector3i origin, Vector3i direction, int size) {
+        this(shape, origin, direction, size, size);
+    }
+
+    /**
+     * Place an area.
+     *
+     * @param origin The cell the area starts from
+     * @param direction Where aimed shapes point; any length, ignored by spheres and cylinders
+     * @param size Radius of spheres and cylinders, side of cubes, length of cones and lines
+     * @param height Height of cylinders
+     */
+    public AreaTemplate(AreaShape shape, Vector3i origin, Vector3i direction, int size, int height) {
+        this.shape = shape;
+        this.origin = origin;
+        this.direction = direction;
+        this.size = size;
+        this.height = height;
+
+        switch (shape) {
+            case SPHERE, CYLINDER -> {
+                minX = origin.x - size;
+                maxX = origin.x + size - 1;
+                minZ = origin.z - size;
+                maxZ = origin.z + size - 1;
+                minY = shape == AreaShape.SPHERE ? origin.y - size : origin.y;
+                maxY = shape == AreaShape.SPHERE ? origin.y + size - 1 : origin.y + height - 1;
+            }
+            case CUBE -> {
+                minX = cubeStart(origin.x, direction.x, size);
+                maxX = minX + size - 1;
+                minZ = cubeStart(origin.z, direction.z, size);
+                maxZ = minZ + size - 1;
+                minY = direction.y == 0 ? origin.y : cubeStart(origin.y, direction.y, size);
+                maxY = minY + size - 1;
+            }
+            default -> {
+                // Box around the axis, wide enough for the far end of a cone
+                double length = Math.sqrt((double) direction.x * direction.x
+                    + (double) direction.y * direction.y + (double) direction.z * direction.z);
+                int pad = shape == AreaShape.CONE ? size / 2 + 1 : 1;
+                int endX = length == 0 ? origin.x : origin.x + (int) Math.round(direction.x * size / length);
+                int endY = length == 0 ? origin.y : origin.y + (int) Math.round(direction.y * size / length);
+                int endZ = length == 0 ? origin.z : origin.z + (int) Math.round(direction.z * size / length);
+                minX = Math.min(origin.x, endX) - pad;
+                maxX = Math.max(origin.x, endX) + pad;
+                minY = Math.min(origin.y, endY) - pad;
+                maxY = Math.max(origin.y, endY) + pad;
+                minZ = Math.min(origin.z, endZ) - pad;
+                maxZ = Math.max(origin.z, endZ) + pad;
+            }
+        }
+    }
+
+    /**
+     * Check if a cell is in the area.
+     */
+    public boolean contains(int x, int y, int z) {
+        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+            return false;
+        }
+
+        // Cell center relative to the origin point, in half blocks
+        long px = 2L * x + 1 - originX2();
+        long py = 2L * y + 1 - originY2();
+        long pz = 2L * z + 1 - originZ2();
+        long reach = 2L * size;
+
+        if (shape == AreaShape.SPHERE) {
+            return px * px + py * py + pz * pz <= reach * reach;
+        }
+        if (shape == AreaShape.CYLINDER) {
+            return px * px + pz * pz <= reach * reach;
+        }
+        if (shape == AreaShape.CUBE) {
+            return true;
+        }
+
+        long ux = direction.x;
+        long uy = direction.y;
+        long uz = direction.z;
+        long uu = ux * ux + uy * uy + uz * uz;
+        long along = px * ux + py * uy + pz * uz;  // Distance along the axis, times |u|
+        if (uu == 0 || along <= 0 || along * along > reach * reach * uu) {
+            return false;
+        }
+
+        // Squared distance from the axis, times |u|^2
+        long off = (px * px + py * py + pz * pz) * uu - along * along;
+        if (shape == AreaShape.CONE) {
+            return 4 * off <= along * along;  // Width equals distance from the origin
+        }
+        return off <= uu;  // Half a block either side of the axis
+    }
+
+    /**
+     * Check if nothing solid stands between the origin and the center of a
+     * cell, so the effect reaches it.
+     */
+    public boolean reaches(TerrainView terrain, int x, int y, int z) {
+        return !LineOfSight.isBlocked(terrain,
+            originX2() / 2.0, originY2() / 2.0, originZ2() / 2.0,
+            x + 0.5, y + 0.5, z + 0.5);
+    }
+
+    /**
+     * Call an action with the packed key of every cell in the area.
+     */
+    public void forEachCell(LongConsumer action) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    if (contains(x, y, z)) {
+                        action.accept(GridKey.pack(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the packed keys of every cell in the area.
+     */
+    public Set<Long> getCells() {
+        Set<Long> cells = new HashSet<>();
+        forEachCell(cells::add);
+        return cells;
+    }
+
+    /**
+     * Get the lowest corner of the box around the area.
+     */
+    public Vector3i getMin() {
+        return new Vector3i(minX, minY, minZ);
+    }
+
+    /**
+     * Get the highest corner of the box around the area (included).
+     */
+    public Vector3i getMax() {
+        return new Vector3i(maxX, maxY, maxZ);
+    }
+
+    public AreaShape getShape() {
+        return shape;
+    }
+
+    public Vector3i getOrigin() {
+        return origin;
+    }
+
+    public Vector3i getDirection() {
+        return direction;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Origin point in half blocks: a grid point for shapes that surround it,
+    // the middle of the origin cell for shapes that point away from it
+    private long originX2() {
+        return 2L * origin.x + (shape.isAimed() ? 1 : 0);
+    }
+
+    private long originY2() {
+        return 2L * origin.y + (shape.isAimed() ? 1 : 0);
+    }
+
+    private long originZ2() {
+        return 2L * origin.z + (shape.isAimed() ? 1 : 0);
+    }
+
+    /**
+     * First cell of a cube along one axis: just past the origin cell on the
+     * side it points to, or centered on it.
+     */
+    private static int cubeStart(int origin, int direction, int size) {
+        if (direction > 0) {
+            return origin + 1;
+        }
+        if (direction < 0) {
+            return origin - size;
+        }
+        return origin - size / 2;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.dnd.targeting;
+
+/**
+ * 5e cover grades, from the share of sight lines to a target that terrain blocks.
+ */
+public enum Cover {
+    NONE(0, "no cover"),
+    HALF(2, "half cover"),
+    THREE_QUARTERS(5, "three-quarters cover"),
+    TOTAL(0, "total cover");
+
+    private final int acBonus;
+    private final String description;
+
+    Cover(int acBonus, String description) {
+        this.acBonus = acBonus;
+        this.description = description;
+    }
+
+    /**
+     * Bonus to the target's AC (and Dexterity saves) against the attack.
+     */
+    public int getAcBonus() {
+        return acBonus;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Check if the target can be attacked or targeted directly at all.
+     */
+    public boolean isTargetable() {
+        return this != TOTAL;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.dnd.targeting;
+
+import com.example.dnd.movement.ArenaSnapshot;
+import com.example.dnd.movement.CreatureSize;
+import com.example.dnd.movement.GridKey;
+import com.example.dnd.movement.GridMovementManager;
+import com.example.dnd.movement.TerrainView;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Line of sight and cover between combatants, traced through the solid
+ * blocks of the encounter's {@link ArenaSnapshot}.
+ *
+ * Follows the 5e grid rule in 3D: from each corner of the attacker's space
+ * at eye height, lines go to the corners of the target's space at its feet
+ * and at its head (eight lines), and the attacker uses whichever corner sees
+ * best. None blocked is no cover, up to half is half cover, more is
+ * three-quarters, and all of them is total cover. Each line walks the blocks
+ * it crosses one at a time (Amanatides-Woo voxel traversal), so a line costs
+ * about as many block tests as it is long.
+ *
+ * Results are kept per world and per (attacker cell, target cell) until a
+ * block of the snapshot changes. Use from the world thread.
+ */
+public class LineOfSight {
+    private static LineOfSight instance;
+
+    private static final double INSET = 0.05;  // Keeps corner points off block edges
+    private static final int TARGET_POINTS = 8;
+    private static final int MAX_CACHED = 4096;
+
+    private final Map<UUID, Sightlines> worlds = new ConcurrentHashMap<>();  // world UUID -> cached results
+
+    private LineOfSight() {}
+
+    public static LineOfSight get() {
+        if (instance == null) {
+            instance = new LineOfSight();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the cover a Medium target has against a Medium attacker.
+     */
+    public Cover getCover(World world, Vector3i attacker, Vector3i target) {
+        return getCover(world, attacker, CreatureSize.MEDIUM, target, CreatureSize.MEDIUM);
+    }
+
+    /**
+     * Get the cover a target has against an attacker.
+     *
+     * @param attacker The attacker's cell (the corner of its footprint if bigger than one block)
+     * @param target The target's cell (likewise)
+     */
+    public Cover getCover(World world, Vector3i attacker, CreatureSize attackerSize,
+                          Vector3i target, CreatureSize targetSize) {
+        ArenaSnapshot arena = GridMovementManager.get().getArena(world);
+        return sightlines(world, arena).get(arena, attacker, attackerSize, target, targetSize);
+    }
+
+    /**
+     * Get the cover of many targets against one attacker in one call
+     * (e.g. "which of these NPCs can I see?").
+     *
+     * @param targetSizes Size of each target, in the same order as targets
+     * @return The cover of each target, in the same order
+     */
+    public Cover[] getCovers(World world, Vector3i attacker, CreatureSize attackerSize,
+                             List<Vector3i> targets, List<CreatureSize> targetSizes) {
+        ArenaSnapshot arena = GridMovementManager.get().getArena(world);
+        Sightlines cache = sightlines(world, arena);
+
+        Cover[] covers = new Cover[targets.size()];
+        for (int i = 0; i < covers.length; i++) {
+            covers[i] = cache.get(arena, attacker, attackerSize, targets.get(i), targetSizes.get(i));
+        }
+        return covers;
+    }
+
+    /**
+     * Check if an attacker can see and target a Medium target.
+     */
+    public boolean canSee(World world, Vector3i attacker, Vector3i target) {
+        return getCover(world, attacker, target).isTargetable();
+    }
+
+    /**
+     * Trace the sight lines between two spaces without caching.
+     */
+    public static Cover trace(TerrainView terrain, Vector3i attacker, CreatureSize attackerSize,
+                              Vector3i target, CreatureSize targetSize) {
+        int n = attackerSize.getFootprint();
+        int m = targetSize.getFootprint();
+        double eye = attacker.y + attackerSize.getHeight() - 0.5;
+
+        int best = TARGET_POINTS + 1;
+        for (int corner = 0; corner < 4 && best > 0; corner++) {
+            double fromX = attacker.x + ((corner & 1) == 0 ? INSET : n - INSET);
+            double fromZ = attacker.z + ((corner & 2) == 0 ? INSET : n - INSET);
+
+            int blocked = 0;
+            for (int point = 0; point < TARGET_POINTS && blocked < best; point++) {
+                double toX = target.x + ((point & 1) == 0 ? INSET : m - INSET);
+                double toZ = target.z + ((point & 2) == 0 ? INSET : m - INSET);
+                double toY = target.y + ((point & 4) == 0 ? 0.5 : targetSize.getHeight() - 0.5);
+                if (isBlocked(terrain, fromX, eye, fromZ, toX, toY, toZ)) {
+                    blocked++;
+                }
+            }
+            best = Math.min(best, blocked);
+        }
+
+        if (best == 0) {
+            return Cover.NONE;
+        }
+        if (best <= TARGET_POINTS / 2) {
+            return Cover.HALF;
+        }
+        return best < TARGET_POINTS ? Cover.THREE_QUARTERS : Cover.TOTAL;
+    }
+
+    /**
+     * Check if a solid block lies on the segment between two points, visiting
+     * each block the segment crosses in order.
+     */
+    static boolean isBlocked(TerrainView terrain, double x0, double y0, double z0,
+                             double x1, double y1, double z1) {
+        int x = (int) Math.floor(x0);
+        int y = (int) Math.floor(y0);
+        int z = (int) Math.floor(z0);
+        int steps = Math.abs((int) Math.floor(x1) - x) + Math.abs((int) Math.floor(y1) - y)
+            + Math.abs((int) Math.floor(z1) - z);
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double dz = z1 - z0;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        int stepZ = dz > 0 ? 1 : -1;
+
+        // Distance along the segment (0 to 1) to the next block boundary on
+        // each axis, and between boundaries
+        double deltaX = dx != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY;
+        double deltaY = dy != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY;
+        double deltaZ = dz != 0 ? Math.abs(1 / dz) : Double.POSITIVE_INFINITY;
+        double maxX = dx != 0 ? ((dx > 0 ? x + 1 : x) - x0) / dx : Double.POSITIVE_INFINITY;
+        double maxY = dy != 0 ? ((dy > 0 ? y + 1 : y) - y0) / dy : Double.POSITIVE_INFINITY;
+        double maxZ = dz != 0 ? ((dz > 0 ? z + 1 : z) - z0) / dz : Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < steps; i++) {
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                maxX += deltaX;
+            } else if (maxY < maxZ) {
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                z += stepZ;
+                maxZ += deltaZ;
+            }
+            if (terrain.isSolid(x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Sightlines sightlines(World world, ArenaSnapshot arena) {
+        Sightlines cache = worlds.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new Sightlines());
+        cache.validate(arena);
+        return cache;
+    }
+
+    /**
+     * Cover results of one world, valid for one version of one snapshot.
+     */
+    private static final class Sightlines {
+        private final Map<Sight, Cover> results = new HashMap<>();
+        private ArenaSnapshot arena;
+        private int version;
+
+        /**
+         * Drop every result if the terrain changed since they were traced.
+         */
+        void validate(ArenaSnapshot current) {
+            if (arena != current || version != current.getVersion()) {
+                results.clear();
+                arena = current;
+                version = current.getVersion();
+            }
+        }
+
+        Cover get(ArenaSnapshot arena, Vector3i attacker, CreatureSize attackerSize,
+                  Vector3i target, CreatureSize targetSize) {
+            Sight key = new Sight(GridKey.pack(attacker), attackerSize, GridKey.pack(target), targetSize);
+            Cover cover = results.get(key);
+            if (cover == null) {
+                cover = trace(arena, attacker, attackerSize, target, targetSize);
+                if (results.size() >= MAX_CACHED) {
+                    results.clear();
+                }
+                results.put(key, cover);
+            }
+            return cover;
+        }
+    }
+
+    private record Sight(long from, CreatureSize fromSize, long to, CreatureSize toSize) {}
+}
@@ -1,10 +1,16 @@
 package com.example.dnd.targeting;
 
+import com.example.dnd.gm.GMManager;
+import com.example.dnd.gm.ManagedNPC;
+import com.example.dnd.movement.CreatureSize;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.Entity;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
@@ -16,7 +22,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages target selection for players during combat.
- * Each player can have one selected target at a time.
+ * Each player can have one selected target at a time, and only targets
+ * they have a line of sight to (see {@link LineOfSight}).
  *
  * TODO: Target info retrieval requires ECS integration.
  * The world.getComponentAccessor() pattern doesn't exist.
@@ -68,6 +75,13 @@ public class TargetManager {
             return false;
         }
 
+        // Ranged attacks and spells need a line to the target
+        Cover cover = getCover(player, targetRef, world);
+        if (!cover.isTargetable()) {
+            player.getPlayerRef().sendMessage(Message.raw("[D&D] No line of sight to that target."));
+            return false;
+        }
+
         // Clear previous target highlight
         if (currentTarget != null) {
             highlighter.clearHighlight(playerId);
@@ -82,7 +96,9 @@ public class TargetManager {
         // - TargetInfo.fromEntityRef(targetRef, accessor)
         //
         // For now, just confirm target selection without detailed info
-        player.getPlayerRef().sendMessage(Message.raw("[D&D] Target selected."));
+        player.getPlayerRef().sendMessage(Message.raw(cover == Cover.NONE
+            ? "[D&D] Target selected."
+            : String.format("[D&D] Target selected (%s: +%d AC).", cover.getDescription(), cover.getAcBonus())));
 
         LOGGER.atFine().log("Player %s selected target (entity ref: %s)",
             player.getPlayerRef().getUsername(), targetRef);
@@ -90,6 +106,45 @@ public class TargetManager {
         return true;
     }
 
+    /**
+     * Get the cover an entity has against a player. Entities whose position
+     * is unknown are treated as in plain view.
+     */
+    @Nonnull
+    public Cover getCover(@Nonnull Player player, @Nonnull Ref<EntityStore> targetRef, @Nonnull World world) {
+        Vector3d from = getPosition(player.getReference());
+        Vector3d to = getPosition(targetRef);
+        if (from == null || to == null) {
+            return Cover.NONE;
+        }
+        CreatureSize targetSize = getSize(targetRef, world);
+        Vector3i attacker = CreatureSize.MEDIUM.getCorner(from);
+        Vector3i target = targetSize.getCorner(to);
+        return LineOfSight.get().getCover(world, attacker, CreatureSize.MEDIUM, target, targetSize);
+    }
+
+    @Nullable
+    private static Vector3d getPosition(@Nullable Ref<EntityStore> ref) {
+        if (ref == null || !ref.isValid()) {
+            return null;
+        }
+        TransformComponent transform = ref.getStore().getComponent(ref, TransformComponent.getComponentType());
+        return transform != null ? transform.getPosition() : null;
+    }
+
+    /**
+     * Size of a managed NPC, Medium for anything else.
+     */
+    @Nonnull
+    private static CreatureSize getSize(@Nonnull Ref<EntityStore> ref, @Nonnull World world) {
+        for (ManagedNPC npc : GMManager.get().getNpcsInWorld(world.getWorldConfig().getUuid())) {
+            if (ref.equals(npc.getEntityRef())) {
+                return npc.getSize();
+            }
+        }
+        return CreatureSize.MEDIUM;
+    }
+
     /**
      * Clear the target for a player.
      */
@@ -209,18 +264,4 @@ public class TargetManager {
         //
         // Highlights are currently not refreshed automatically
     }
-
-    /**
-     * Find a player in the world by UUID.
-     */
-    @Nullable
-    @SuppressWarnings("deprecation")
-    private Player findPlayerByUuid(@Nonnull World world, @Nonnull UUID playerId) {
-        for (Player player : world.getPlayers()) {
-            if (player.getPlayerRef().getUuid().equals(playerId)) {
-                return player;
-            }
-        }
-        return null;
-    }
 }
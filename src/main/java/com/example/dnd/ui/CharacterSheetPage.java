@@ -1,10 +1,13 @@
 package com.example.dnd.ui;
 
 import com.example.dnd.DndPlugin;
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.character.Ability;
 import com.example.dnd.character.CharacterSheet;
 import com.example.dnd.character.DiceRoller;
+import com.example.dnd.combat.CombatSnapshot;
 import com.example.dnd.combat.CombatState;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
@@ -134,11 +137,11 @@ public class CharacterSheetPage extends InteractiveCustomUIPage<CharacterSheetPa
         // ========== Combat Section ==========
         World world = store.getExternalData().getWorld();
         TurnManager turnManager = plugin.getTurnManager();
-        CombatState combatState = turnManager.getCombatState(world);
+        CombatSnapshot combatState = turnManager.getCombatState(world, playerRef.getUuid()).getSnapshot();
         UUID myUuid = playerRef.getUuid();
 
         // Set combat status
-        boolean combatActive = combatState.isCombatActive();
+        boolean combatActive = combatState.combatActive();
         boolean isMyTurn = combatState.isPlayerTurn(myUuid);
 
         cmd.set("#combatStatusLabel.Text", combatActive ? "Combat Active" : "No Combat");
@@ -219,28 +222,29 @@ public class CharacterSheetPage extends InteractiveCustomUIPage<CharacterSheetPa
 
     private void handleEndTurn(World world, UICommandBuilder cmd) {
         TurnManager turnManager = plugin.getTurnManager();
-        CombatState combatState = turnManager.getCombatState(world);
+        Encounter encounter = turnManager.getEncounter(world, playerRef.getUuid());
+        CombatState combatState = encounter.getCombatState();
 
         if (!combatState.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] No active combat!"));
             return;
         }
 
-        if (!combatState.isPlayerTurn(playerRef.getUuid())) {
+        if (!combatState.endTurn(playerRef.getUuid())) {
             playerRef.sendMessage(Message.raw("[D&D] It's not your turn!"));
             return;
         }
 
-        combatState.nextTurn();
         String message = String.format("[D&D] Turn ended. Next: %s", combatState.getCurrentPlayerName());
-        broadcastMessage(world, message);
+        PlayerRegistry.get().sendToEncounter(encounter, Message.raw(message));
 
-        // Refresh all combat HUDs
-        turnManager.refreshAllHuds(world);
+        // Refresh the encounter's combat HUDs
+        turnManager.refreshHuds(encounter);
 
         // Update combat status in this UI
-        boolean isMyTurn = combatState.isPlayerTurn(playerRef.getUuid());
-        String currentPlayer = combatState.getCurrentPlayerName();
+        CombatSnapshot combat = combatState.getSnapshot();
+        boolean isMyTurn = combat.isPlayerTurn(playerRef.getUuid());
+        String currentPlayer = combat.getCurrentPlayerName();
         cmd.set("#turnStatusLabel.Text", isMyTurn ? "Your turn!" : "Current: " + currentPlayer);
         cmd.set("#turnStatusLabel.Style.TextColor", isMyTurn ? "#4caf50" : "#ffeb3b");
     }
@@ -259,15 +263,7 @@ public class CharacterSheetPage extends InteractiveCustomUIPage<CharacterSheetPa
         String message = String.format("[D&D] %s rolled %s: %s",
             playerRef.getUsername(), rollType, result.format());
 
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
-    }
-
-    private void broadcastMessage(World world, String message) {
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
+        PlayerRegistry.get().sendToWorld(world, Message.raw(message));
     }
 
     /**
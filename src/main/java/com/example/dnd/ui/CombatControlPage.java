@@ -1,16 +1,21 @@
 package com.example.dnd.ui;
 
 import com.example.dnd.DndPlugin;
+import com.example.dnd.PlayerRegistry;
 import com.example.dnd.character.Ability;
 import com.example.dnd.character.CharacterSheet;
 import com.example.dnd.character.DiceRoller;
+import com.example.dnd.combat.CombatSnapshot;
 import com.example.dnd.combat.CombatState;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
+import com.example.dnd.movement.GridMovementManager;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
 import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
 import com.hypixel.hytale.server.core.Message;
@@ -54,11 +59,11 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
     ) {
         cmd.append("Pages/Dnd/CombatControl.ui");
 
-        CombatState state = turnManager.getCombatState(world);
+        CombatSnapshot state = turnManager.getCombatState(world, playerRef.getUuid()).getSnapshot();
         UUID myUuid = playerRef.getUuid();
 
         // Set combat status
-        boolean combatActive = state.isCombatActive();
+        boolean combatActive = state.combatActive();
         cmd.set("#combatStatus.Text", combatActive ? "Combat Active" : "No Active Combat");
         cmd.set("#combatStatus.Style.TextColor", combatActive ? "#4caf50" : "#888888");
 
@@ -119,11 +124,11 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
     /**
      * Build the initiative order list display.
      */
-    private void buildInitiativeList(UICommandBuilder cmd, CombatState state, UUID myUuid) {
-        List<UUID> order = state.getInitiativeOrder();
-        Map<UUID, String> names = state.getPlayerNames();
-        Map<UUID, Integer> rolls = state.getInitiativeRolls();
-        UUID currentPlayer = state.getCurrentPlayer();
+    private void buildInitiativeList(UICommandBuilder cmd, CombatSnapshot state, UUID myUuid) {
+        List<UUID> order = state.initiativeOrder();
+        Map<UUID, String> names = state.playerNames();
+        Map<UUID, Integer> rolls = state.initiativeRolls();
+        UUID currentPlayer = state.currentPlayer();
 
         // Update up to 8 initiative slots
         int maxSlots = 8;
@@ -170,43 +175,47 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
         @Nonnull Store<EntityStore> store,
         @Nonnull CombatEventData data
     ) {
-        CombatState state = turnManager.getCombatState(world);
+        Encounter encounter = turnManager.getEncounter(world, playerRef.getUuid());
         UICommandBuilder cmd = new UICommandBuilder();
 
         switch (data.action) {
-            case "EndTurn" -> handleEndTurn(state, cmd);
-            case "RollInitiative" -> handleRollInitiative(state, cmd);
+            case "EndTurn" -> handleEndTurn(encounter, cmd);
+            case "RollInitiative" -> handleRollInitiative(ref, store, cmd);
             case "OpenSheet" -> handleOpenSheet(ref, store);
-            case "StartCombat" -> handleStartCombat(state, cmd);
-            case "EndCombat" -> handleEndCombat(state, cmd);
+            case "StartCombat" -> handleStartCombat(encounter, cmd);
+            case "EndCombat" -> handleEndCombat(encounter, cmd);
         }
 
-        // Refresh the UI after any action
-        refreshDisplay(cmd, state);
+        // Refresh the UI after any action, from the encounter the player is now in
+        refreshDisplay(cmd, turnManager.getCombatState(world, playerRef.getUuid()).getSnapshot());
         sendUpdate(cmd, null, false);
     }
 
-    private void handleEndTurn(CombatState state, UICommandBuilder cmd) {
+    private void handleEndTurn(Encounter encounter, UICommandBuilder cmd) {
+        CombatState state = encounter.getCombatState();
         if (!state.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] No active combat!"));
             return;
         }
 
-        if (!state.isPlayerTurn(playerRef.getUuid())) {
+        if (!state.endTurn(playerRef.getUuid())) {
             playerRef.sendMessage(Message.raw("[D&D] It's not your turn!"));
             return;
         }
 
-        state.nextTurn();
         String message = String.format("[D&D] Turn ended. Next: %s", state.getCurrentPlayerName());
-        broadcastMessage(message);
+        broadcastMessage(encounter, message);
 
-        // Refresh all combat HUDs
-        turnManager.refreshAllHuds(world);
+        // Refresh the encounter's combat HUDs
+        turnManager.refreshHuds(encounter);
     }
 
-    private void handleRollInitiative(CombatState state, UICommandBuilder cmd) {
-        if (state.isCombatActive()) {
+    private void handleRollInitiative(Ref<EntityStore> ref, Store<EntityStore> store, UICommandBuilder cmd) {
+        // Join the encounter whose region the player stands in
+        Player player = store.getComponent(ref, Player.getComponentType());
+        Vector3i cell = player != null ? GridMovementManager.get().getPlayerCell(player) : null;
+        Encounter encounter = turnManager.getEncounterToJoin(world, playerRef.getUuid(), cell);
+        if (encounter.getCombatState().isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] Cannot roll initiative during active combat!"));
             return;
         }
@@ -216,11 +225,11 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
         int dexMod = sheet.getModifier(Ability.DEXTERITY);
 
         DiceRoller.DiceResult result = DiceRoller.rollD20(dexMod);
-        state.addToInitiative(playerRef.getUuid(), playerRef.getUsername(), result.total());
+        turnManager.addToInitiative(encounter, playerRef.getUuid(), playerRef.getUsername(), result.total(), dexMod);
 
         String message = String.format("[D&D] %s rolled initiative: %s",
             playerRef.getUsername(), result.format());
-        broadcastMessage(message);
+        broadcastMessage(encounter, message);
     }
 
     private void handleOpenSheet(Ref<EntityStore> ref, Store<EntityStore> store) {
@@ -232,7 +241,8 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
         }
     }
 
-    private void handleStartCombat(CombatState state, UICommandBuilder cmd) {
+    private void handleStartCombat(Encounter encounter, UICommandBuilder cmd) {
+        CombatState state = encounter.getCombatState();
         if (state.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] Combat is already active!"));
             return;
@@ -244,30 +254,33 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
         }
 
         state.startCombat();
+        GridMovementManager.get().beginEncounter(world, encounter.getParticipants());
         String message = String.format("[D&D] Combat started! First turn: %s",
             state.getCurrentPlayerName());
-        broadcastMessage(message);
+        broadcastMessage(encounter, message);
 
         // Show HUDs for all combatants
-        turnManager.showCombatHuds(world);
+        turnManager.showCombatHuds(encounter);
     }
 
-    private void handleEndCombat(CombatState state, UICommandBuilder cmd) {
+    private void handleEndCombat(Encounter encounter, UICommandBuilder cmd) {
+        CombatState state = encounter.getCombatState();
         if (!state.isCombatActive()) {
             playerRef.sendMessage(Message.raw("[D&D] No active combat to end!"));
             return;
         }
 
         // Hide all combat HUDs first
-        turnManager.hideCombatHuds(world);
+        turnManager.hideCombatHuds(encounter);
 
         state.endCombat();
-        broadcastMessage("[D&D] Combat ended!");
+        GridMovementManager.get().endEncounter(world, encounter.getParticipants());
+        broadcastMessage(encounter, "[D&D] Combat ended!");
     }
 
-    private void refreshDisplay(UICommandBuilder cmd, CombatState state) {
+    private void refreshDisplay(UICommandBuilder cmd, CombatSnapshot state) {
         UUID myUuid = playerRef.getUuid();
-        boolean combatActive = state.isCombatActive();
+        boolean combatActive = state.combatActive();
 
         cmd.set("#combatStatus.Text", combatActive ? "Combat Active" : "No Active Combat");
         cmd.set("#combatStatus.Style.TextColor", combatActive ? "#4caf50" : "#888888");
@@ -288,10 +301,8 @@ public class CombatControlPage extends InteractiveCustomUIPage<CombatControlPage
         buildInitiativeList(cmd, state, myUuid);
     }
 
-    private void broadcastMessage(String message) {
-        for (Player player : world.getPlayers()) {
-            player.getPlayerRef().sendMessage(Message.raw(message));
-        }
+    private void broadcastMessage(Encounter encounter, String message) {
+        PlayerRegistry.get().sendToEncounter(encounter, Message.raw(message));
     }
 
     /**
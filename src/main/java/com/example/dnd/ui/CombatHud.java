@@ -1,6 +1,7 @@
 package com.example.dnd.ui;
 
-import com.example.dnd.combat.CombatState;
+import com.example.dnd.combat.CombatSnapshot;
+import com.example.dnd.combat.Encounter;
 import com.example.dnd.combat.TurnManager;
 import com.example.dnd.combat.TurnPhase;
 import com.example.dnd.movement.GridMovementManager;
@@ -10,81 +11,139 @@ import com.example.dnd.targeting.TargetManager;
 import com.hypixel.hytale.server.core.entity.entities.player.hud.CustomUIHud;
 import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.world.World;
 
 import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Persistent HUD overlay showing turn order and combat status.
+ * Persistent HUD overlay showing the turn order and combat status of the
+ * player's encounter.
  * This is display-only (no button events) but shows continuously during combat.
+ *
+ * The HUD remembers the last value it sent for each element, and a refresh
+ * only sends the ones that changed (usually the movement label while a path
+ * is being planned, or two initiative slots when the turn passes). Refreshes
+ * are asked for with {@link #markDirty()} and sent by {@link TurnManager} at
+ * most once per tick.
  */
 public class CombatHud extends CustomUIHud {
-    private final TurnManager turnManager;
-    private final World world;
+    private final Encounter encounter;
 
-    public CombatHud(@Nonnull PlayerRef playerRef, @Nonnull TurnManager turnManager, @Nonnull World world) {
+    // Last value sent for each selector, since the HUD was last built
+    private final Map<String, Object> sent = new HashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public CombatHud(@Nonnull PlayerRef playerRef, @Nonnull Encounter encounter) {
         super(playerRef);
-        this.turnManager = turnManager;
-        this.world = world;
+        this.encounter = encounter;
     }
 
     @Override
-    protected void build(@Nonnull UICommandBuilder cmd) {
+    protected synchronized void build(@Nonnull UICommandBuilder cmd) {
         cmd.append("Hud/Dnd/CombatHud.ui");
-        updateTurnDisplay(cmd);
+        sent.clear();
+        writeChanges(cmd);
     }
 
     /**
-     * Refresh the HUD with current combat state.
+     * Refresh the HUD with current combat state, sending only what changed.
      */
-    public void refresh() {
+    public synchronized void refresh() {
         UICommandBuilder cmd = new UICommandBuilder();
-        updateTurnDisplay(cmd);
-        update(false, cmd);
+        if (writeChanges(cmd) > 0) {
+            update(false, cmd);
+        }
+    }
+
+    /**
+     * Ask for a refresh on the next flush.
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Refresh the HUD if it was marked dirty since the last flush.
+     */
+    public void flush() {
+        if (dirty.getAndSet(false)) {
+            refresh();
+        }
+    }
+
+    public Encounter getEncounter() {
+        return encounter;
+    }
+
+    /**
+     * Write the values that differ from the last ones sent.
+     *
+     * @return Number of values written
+     */
+    private int writeChanges(UICommandBuilder cmd) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        updateTurnDisplay(values);
+
+        int changed = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue().equals(sent.put(entry.getKey(), entry.getValue()))) continue;
+
+            Object value = entry.getValue();
+            if (value instanceof Boolean) {
+                cmd.set(entry.getKey(), (boolean) (Boolean) value);
+            } else if (value instanceof Integer) {
+                cmd.set(entry.getKey(), (int) (Integer) value);
+            } else {
+                cmd.set(entry.getKey(), (String) value);
+            }
+            changed++;
+        }
+        return changed;
     }
 
     /**
-     * Update the turn display elements.
+     * Collect the values of the turn display elements, by selector.
      */
-    private void updateTurnDisplay(UICommandBuilder cmd) {
-        CombatState state = turnManager.getCombatState(world);
+    private void updateTurnDisplay(Map<String, Object> values) {
+        CombatSnapshot state = encounter.getCombatState().getSnapshot();
 
         // Set current turn player name
         String currentPlayer = state.getCurrentPlayerName();
-        cmd.set("#currentTurnName.Text", currentPlayer);
+        values.put("#currentTurnName.Text", currentPlayer);
 
         // Set turn prompt based on whether it's this player's turn
         UUID myUuid = getPlayerRef().getUuid();
         boolean isMyTurn = state.isPlayerTurn(myUuid);
-        cmd.set("#turnPrompt.Text", isMyTurn ? "Your turn!" : "Waiting for " + currentPlayer + "...");
+        values.put("#turnPrompt.Text", isMyTurn ? "Your turn!" : "Waiting for " + currentPlayer + "...");
 
         // Set prompt color (green for your turn, gray otherwise)
-        cmd.set("#turnPrompt.Style.TextColor", isMyTurn ? "#4caf50" : "#888888");
+        values.put("#turnPrompt.Style.TextColor", isMyTurn ? "#4caf50" : "#888888");
 
         // Build initiative order list
-        buildInitiativeList(cmd, state, myUuid);
+        buildInitiativeList(values, state, myUuid);
 
-        // Show round number if we want to track that
-        cmd.set("#roundLabel.Text", "Combat Active");
+        values.put("#roundLabel.Text", "Round " + state.round());
 
         // Update movement display
-        updateMovementDisplay(cmd, state, myUuid, isMyTurn);
+        updateMovementDisplay(values, state, myUuid, isMyTurn);
 
         // Update target display
-        updateTargetDisplay(cmd, myUuid);
+        updateTargetDisplay(values, myUuid);
     }
 
     /**
      * Update the movement information display.
      */
-    private void updateMovementDisplay(UICommandBuilder cmd, CombatState combatState, UUID myUuid, boolean isMyTurn) {
+    private void updateMovementDisplay(Map<String, Object> values, CombatSnapshot combatState, UUID myUuid, boolean isMyTurn) {
         // Only show movement info during movement phase when it's player's turn
-        boolean showMovement = isMyTurn && combatState.getCurrentPhase() == TurnPhase.MOVEMENT;
+        boolean showMovement = isMyTurn && combatState.phase() == TurnPhase.MOVEMENT;
 
-        cmd.set("#movementPanel.Visible", showMovement);
+        values.put("#movementPanel.Visible", showMovement);
 
         if (!showMovement) {
             return;
@@ -92,8 +151,8 @@ public class CombatHud extends CustomUIHud {
 
         MovementState moveState = GridMovementManager.get().getState(myUuid);
         if (moveState == null) {
-            cmd.set("#movementLabel.Text", "Movement: --");
-            cmd.set("#movementHint.Visible", false);
+            values.put("#movementLabel.Text", "Movement: --");
+            values.put("#movementHint.Visible", false);
             return;
         }
 
@@ -110,51 +169,51 @@ public class CombatHud extends CustomUIHud {
         } else {
             movementText = String.format("Movement: %d/%d blocks", remaining, total);
         }
-        cmd.set("#movementLabel.Text", movementText);
+        values.put("#movementLabel.Text", movementText);
 
         // Set color based on whether path is valid
         boolean canReach = moveState.canReachDestination();
         String movementColor = canReach ? "#4caf50" : "#f44336"; // Green or red
-        cmd.set("#movementLabel.Style.TextColor", movementColor);
+        values.put("#movementLabel.Style.TextColor", movementColor);
 
         // Show hint text
         if (moveState.getPlannedDestination() != null) {
-            cmd.set("#movementHint.Text", canReach
+            values.put("#movementHint.Text", canReach
                 ? "Right-click to move, click elsewhere to change"
                 : "Too far! Select a closer destination");
-            cmd.set("#movementHint.Visible", true);
+            values.put("#movementHint.Visible", true);
         } else {
-            cmd.set("#movementHint.Text", "Click a block to set destination");
-            cmd.set("#movementHint.Visible", true);
+            values.put("#movementHint.Text", "Click a block to set destination");
+            values.put("#movementHint.Visible", true);
         }
     }
 
     /**
      * Update the target information display.
      */
-    private void updateTargetDisplay(UICommandBuilder cmd, UUID myUuid) {
+    private void updateTargetDisplay(Map<String, Object> values, UUID myUuid) {
         TargetManager targetManager = TargetManager.get();
-        TargetInfo targetInfo = targetManager.getTargetInfo(myUuid, world);
+        TargetInfo targetInfo = targetManager.getTargetInfo(myUuid, encounter.getWorld());
 
         // Show/hide target panel based on whether we have a valid target
         boolean hasTarget = targetInfo != null && targetInfo.isValid();
-        cmd.set("#targetPanel.Visible", hasTarget);
+        values.put("#targetPanel.Visible", hasTarget);
 
         if (!hasTarget) {
             return;
         }
 
         // Set target name
-        cmd.set("#targetName.Text", targetInfo.getName());
+        values.put("#targetName.Text", targetInfo.getName());
 
         // Set HP text
         String hpText = String.format("%.0f/%.0f", targetInfo.getCurrentHp(), targetInfo.getMaxHp());
-        cmd.set("#hpText.Text", hpText);
+        values.put("#hpText.Text", hpText);
 
         // Calculate HP bar width (max 118 pixels to fit within the 120px container with 1px borders)
         float hpPercent = targetInfo.getHpPercent();
         int barWidth = Math.max(1, (int) (118 * hpPercent));
-        cmd.set("#hpBarFill.Anchor.Width", barWidth);
+        values.put("#hpBarFill.Anchor.Width", barWidth);
 
         // Set HP bar color based on percentage
         String hpColor;
@@ -165,17 +224,17 @@ public class CombatHud extends CustomUIHud {
         } else {
             hpColor = "#aa4444"; // Red
         }
-        cmd.set("#hpBarFill.Background.Color", hpColor);
+        values.put("#hpBarFill.Background.Color", hpColor);
     }
 
     /**
      * Build the initiative order list display.
      */
-    private void buildInitiativeList(UICommandBuilder cmd, CombatState state, UUID myUuid) {
-        List<UUID> order = state.getInitiativeOrder();
-        Map<UUID, String> names = state.getPlayerNames();
-        Map<UUID, Integer> rolls = state.getInitiativeRolls();
-        UUID currentPlayer = state.getCurrentPlayer();
+    private void buildInitiativeList(Map<String, Object> values, CombatSnapshot state, UUID myUuid) {
+        List<UUID> order = state.initiativeOrder();
+        Map<UUID, String> names = state.playerNames();
+        Map<UUID, Integer> rolls = state.initiativeRolls();
+        UUID currentPlayer = state.currentPlayer();
 
         // We'll update up to 8 initiative slots in the HUD
         int maxSlots = 8;
@@ -189,10 +248,10 @@ public class CombatHud extends CustomUIHud {
 
                 // Format: "1. PlayerName (15)"
                 String text = String.format("%d. %s (%d)", i + 1, name, roll);
-                cmd.set(slotId + ".Text", text);
+                values.put(slotId + ".Text", text);
 
                 // Show slot
-                cmd.set(slotId + ".Visible", true);
+                values.put(slotId + ".Visible", true);
 
                 // Highlight current turn player
                 boolean isCurrent = playerId.equals(currentPlayer);
@@ -208,13 +267,13 @@ public class CombatHud extends CustomUIHud {
                 } else {
                     textColor = "#cccccc"; // Gray - others
                 }
-                cmd.set(slotId + ".Style.TextColor", textColor);
+                values.put(slotId + ".Style.TextColor", textColor);
 
                 // Bold if current turn
-                cmd.set(slotId + ".Style.RenderBold", isCurrent);
+                values.put(slotId + ".Style.RenderBold", isCurrent);
             } else {
                 // Hide unused slots
-                cmd.set(slotId + ".Visible", false);
+                values.put(slotId + ".Visible", false);
             }
         }
     }
@@ -222,7 +281,8 @@ public class CombatHud extends CustomUIHud {
     /**
      * Hide the HUD (clear it).
      */
-    public void hide() {
+    public synchronized void hide() {
+        sent.clear();
         UICommandBuilder cmd = new UICommandBuilder();
         update(true, cmd); // Clear the HUD
     }